@@ -93,6 +93,22 @@ public @interface MethodSourceBean {
          */
         MappingType mappingType() default MappingType.ONE_TO_ONE;
 
+        /**
+         * 单次调用方法时传入的最大key数量，key数量超过该值时将被拆分为多批分别调用方法，小于等于0时不拆分。<br />
+         * 适用于数据库对IN查询的参数数量有限制，或参数过多时查询性能明显下降的场景
+         *
+         * @since 0.6.1
+         */
+        int batchSize() default 0;
+
+        /**
+         * 拆分为多批调用方法时，是否通过容器的线程池并行调用，容器未指定线程池时仍依次调用
+         *
+         * @see MethodSourceContainer#setExecutor
+         * @since 0.6.1
+         */
+        boolean parallel() default false;
+
     }
 
 }
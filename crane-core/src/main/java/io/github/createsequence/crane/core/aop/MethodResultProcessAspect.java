@@ -4,6 +4,7 @@ import cn.hutool.core.text.CharSequenceUtil;
 import cn.hutool.core.util.ReflectUtil;
 import io.github.createsequence.crane.core.annotation.ProcessResult;
 import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.cache.SourceScope;
 import io.github.createsequence.crane.core.helper.ConfigOptionAnnotationProcessor;
 import io.github.createsequence.crane.core.helper.ExpressionUtils;
 import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
@@ -37,11 +38,27 @@ public class MethodResultProcessAspect extends ConfigOptionAnnotationProcessor<M
         super(beanFactory, configurationCache);
     }
     
+    /**
+     * 在数据源作用域中处理方法返回值，作用域仅覆盖处理过程，不覆盖方法本身的执行，
+     * 以免方法执行期间数据源发生变更后，处理时仍然使用作用域中记录的旧数据。<br />
+     * 若调用方已经开启了作用域（比如通过{@link SourceScopeInterceptor}），则加入该作用域，
+     * 此时同一请求中多个方法的返回值处理将复用已经获取过的数据源
+     *
+     * @param joinPoint 切点
+     * @param result 方法返回值
+     * @author huangchengxing
+     * @date 2022/7/26 18:50
+     * @see SourceScope
+     */
     @AfterReturning(returning = "result", pointcut = "@annotation(io.github.createsequence.crane.core.annotation.ProcessResult)")
     public void afterReturning(JoinPoint joinPoint, Object result) {
         if (ObjectUtils.isEmpty(result)) {
             return;
         }
+        SourceScope.run(() -> processResult(joinPoint, result));
+    }
+
+    private void processResult(JoinPoint joinPoint, Object result) {
         MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
         Method method = methodSignature.getMethod();
         ProcessResult annotation = AnnotatedElementUtils.findMergedAnnotation(method, ProcessResult.class);
@@ -0,0 +1,34 @@
+package io.github.createsequence.crane.core.aop;
+
+import io.github.createsequence.crane.core.cache.SourceScope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * <p>在方法调用期间开启{@link SourceScope}的拦截器。
+ *
+ * <p>当一次请求中会多次调用{@link io.github.createsequence.crane.core.annotation.ProcessResult}注解的方法，
+ * 或多次通过{@link io.github.createsequence.crane.core.helper.OperateTemplate}处理数据时，
+ * 可以通过切点将该拦截器应用到请求的入口方法（比如Controller中的方法）上，
+ * 此时入口方法执行期间开启的作用域都将复用该作用域，重复的key值仅会实际获取一次数据源。<br />
+ * 作用域将覆盖入口方法的整个执行过程，因此期间被修改的数据源不会被重新获取，
+ * 且作用域内记录的数据源不限制数量，应当仅用于数据源在请求期间不会变更，且数量有限的场景。
+ *
+ * @author huangchengxing
+ * @date 2022/07/27 10:00
+ * @see SourceScope
+ * @see MethodResultProcessAspect
+ */
+public class SourceScopeInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        SourceScope scope = SourceScope.open();
+        try {
+            return invocation.proceed();
+        } finally {
+            scope.close();
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package io.github.createsequence.crane.core.cache;
+
+/**
+ * <p>基于Count-Min Sketch的访问频率统计器，用于{@link TinyLfuSourceCache}的准入判断。
+ *
+ * <p>每个计数器占4位，上限为15，一个long可容纳16个计数器。每次记录访问时，
+ * 会根据key的哈希值在四个不同位置的计数器上加一，估算频率时取其中的最小值。<br />
+ * 当记录的访问次数达到采样上限后，所有计数器都将减半，使统计结果能够随访问模式的变化而衰减。<br />
+ * 计数器数组的长度最多为{@link #MAXIMUM_TABLE_LENGTH}，缓存容量超出该值时，统计结果的误差将随之增大。
+ *
+ * <p>该类不是线程安全的，应当由调用方保证同步。
+ *
+ * @author huangchengxing
+ * @date 2022/07/25 10:10
+ */
+class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    /**
+     * 计数器数组的最大长度，即最多占用8MB内存
+     */
+    private static final int MAXIMUM_TABLE_LENGTH = 1 << 20;
+
+    private final long[] table;
+    private final int tableMask;
+    private final long sampleSize;
+    private long additions;
+
+    /**
+     * 创建一个频率统计器
+     *
+     * @param maximumSize 缓存的最大容量
+     */
+    FrequencySketch(long maximumSize) {
+        int capacity = (int) Math.min(Math.max(maximumSize, 8), MAXIMUM_TABLE_LENGTH);
+        int length = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = capacity * 10L;
+    }
+
+
+    /**
+     * 获取估算的访问频率
+     *
+     * @param hash key的哈希值
+     * @return int
+     * @author huangchengxing
+     * @date 2022/7/25 10:15
+     */
+    int frequency(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = indexHash(hash, i);
+            int shift = counterShift(h);
+            frequency = Math.min(frequency, (int) ((table[tableIndex(h)] >>> shift) & 0xfL));
+        }
+        return frequency;
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param hash key的哈希值
+     * @author huangchengxing
+     * @date 2022/7/25 10:15
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = indexHash(hash, i);
+            int index = tableIndex(h);
+            int shift = counterShift(h);
+            if (((table[index] >>> shift) & 0xfL) != 0xfL) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private int tableIndex(long h) {
+        return (int) h & tableMask;
+    }
+
+    private static int counterShift(long h) {
+        return (int) (h >>> 60) << 2;
+    }
+
+    private static long indexHash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return h ^ (h >>> 29);
+    }
+
+}
@@ -0,0 +1,141 @@
+package io.github.createsequence.crane.core.cache;
+
+import cn.hutool.core.lang.Assert;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>基于{@link Cache}的{@link SourceCache}实现。
+ *
+ * <p>每个命名空间都拥有独立的缓存，且允许通过{@link #setNamespaceOptions}为指定命名空间单独设置缓存容量与过期时间，
+ * 未单独设置的命名空间将使用创建时指定的默认配置。<br />
+ * “数据源不存在”的结果将被缓存在单独的缓存中，并使用单独的过期时间，通常应当短于数据源的过期时间，
+ * 以免新增的数据在较长时间内都无法被获取。
+ *
+ * @param <K> key类型
+ * @param <T> 数据源类型
+ * @author huangchengxing
+ * @date 2022/07/24 14:40
+ */
+public class GuavaSourceCache<K, T> implements SourceCache<K, T> {
+
+    private final Options defaultOptions;
+    private final Map<String, Options> namespaceOptions = new ConcurrentHashMap<>();
+    private final Map<String, NamespaceCache<K, T>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * 创建一个缓存
+     *
+     * @param maximumSize 每个命名空间的最大缓存数量
+     * @param expireAfterWrite 数据源的过期时间，小于等于0时表示不过期
+     * @param negativeExpireAfterWrite “数据源不存在”的结果的过期时间，小于等于0时表示不缓存该结果
+     * @param unit 时间单位
+     */
+    public GuavaSourceCache(long maximumSize, long expireAfterWrite, long negativeExpireAfterWrite, TimeUnit unit) {
+        this.defaultOptions = new Options(maximumSize, unit.toNanos(expireAfterWrite), unit.toNanos(negativeExpireAfterWrite));
+    }
+
+    /**
+     * 为指定命名空间单独设置缓存配置，设置后该命名空间已有的缓存将被清空
+     *
+     * @param namespace 命名空间
+     * @param maximumSize 最大缓存数量
+     * @param expireAfterWrite 数据源的过期时间，小于等于0时表示不过期
+     * @param negativeExpireAfterWrite “数据源不存在”的结果的过期时间，小于等于0时表示不缓存该结果
+     * @param unit 时间单位
+     * @author huangchengxing
+     * @date 2022/7/24 14:50
+     */
+    public void setNamespaceOptions(String namespace, long maximumSize, long expireAfterWrite, long negativeExpireAfterWrite, TimeUnit unit) {
+        namespaceOptions.put(namespace, new Options(maximumSize, unit.toNanos(expireAfterWrite), unit.toNanos(negativeExpireAfterWrite)));
+        caches.remove(namespace);
+    }
+
+    @Nonnull
+    @Override
+    public Map<K, T> getAllPresent(@Nonnull String namespace, @Nonnull Collection<K> keys) {
+        NamespaceCache<K, T> cache = caches.get(namespace);
+        if (Objects.isNull(cache) || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<K, T> results = new HashMap<>(cache.sources.getAllPresent(keys));
+        if (Objects.nonNull(cache.absentKeys) && results.size() < keys.size()) {
+            cache.absentKeys.getAllPresent(keys).keySet().forEach(key -> results.putIfAbsent(key, null));
+        }
+        return results;
+    }
+
+    @Override
+    public void putAll(@Nonnull String namespace, @Nonnull Map<K, T> sources, @Nonnull Collection<K> absentKeys) {
+        NamespaceCache<K, T> cache = caches.computeIfAbsent(
+            namespace, ns -> new NamespaceCache<>(namespaceOptions.getOrDefault(ns, defaultOptions))
+        );
+        sources.forEach((key, source) -> {
+            if (Objects.nonNull(key) && Objects.nonNull(source)) {
+                cache.sources.put(key, source);
+                if (Objects.nonNull(cache.absentKeys)) {
+                    cache.absentKeys.invalidate(key);
+                }
+            }
+        });
+        if (Objects.nonNull(cache.absentKeys)) {
+            absentKeys.forEach(key -> cache.absentKeys.put(key, Boolean.TRUE));
+        }
+    }
+
+    @Override
+    public void invalidate(@Nonnull String namespace) {
+        caches.remove(namespace);
+    }
+
+    @Override
+    public void invalidateAll() {
+        caches.clear();
+    }
+
+    /**
+     * 缓存配置
+     */
+    private static class Options {
+
+        private final long maximumSize;
+        private final long expireAfterWriteNanos;
+        private final long negativeExpireAfterWriteNanos;
+
+        Options(long maximumSize, long expireAfterWriteNanos, long negativeExpireAfterWriteNanos) {
+            Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+            this.maximumSize = maximumSize;
+            this.expireAfterWriteNanos = expireAfterWriteNanos;
+            this.negativeExpireAfterWriteNanos = negativeExpireAfterWriteNanos;
+        }
+
+    }
+
+    /**
+     * 一个命名空间下的缓存
+     */
+    private static class NamespaceCache<K, T> {
+
+        private final Cache<K, T> sources;
+        private final Cache<K, Boolean> absentKeys;
+
+        NamespaceCache(Options options) {
+            CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumSize(options.maximumSize);
+            if (options.expireAfterWriteNanos > 0) {
+                builder.expireAfterWrite(options.expireAfterWriteNanos, TimeUnit.NANOSECONDS);
+            }
+            this.sources = builder.build();
+            this.absentKeys = options.negativeExpireAfterWriteNanos <= 0 ? null : CacheBuilder.newBuilder()
+                .maximumSize(options.maximumSize)
+                .expireAfterWrite(options.negativeExpireAfterWriteNanos, TimeUnit.NANOSECONDS)
+                .build();
+        }
+
+    }
+
+}
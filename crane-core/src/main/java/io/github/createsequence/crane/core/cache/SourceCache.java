@@ -0,0 +1,75 @@
+package io.github.createsequence.crane.core.cache;
+
+import io.github.createsequence.crane.core.container.BaseKeyContainer;
+import io.github.createsequence.crane.core.container.BaseNamespaceContainer;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 数据源缓存
+ *
+ * <p>表明一个容器数据源的缓存，提供类似{@code namespace -> key -> source}的二级索引结构。<br />
+ * 当容器设置了数据源缓存后，容器在收集完key值后将优先从缓存中获取数据源，仅将未命中的key值交由容器实际获取，
+ * 获取到的数据源与未获取到数据源的key值都将被写入缓存，后者用于避免重复查询实际并不存在的数据。
+ *
+ * <p>没有命名空间的容器，比如{@link BaseKeyContainer}，将统一使用{@link #DEFAULT_NAMESPACE}作为命名空间。
+ *
+ * @param <K> key类型
+ * @param <T> 数据源类型
+ * @author huangchengxing
+ * @date 2022/07/24 14:10
+ * @see BaseNamespaceContainer#setSourceCache
+ * @see BaseKeyContainer#setSourceCache
+ * @see GuavaSourceCache
+ */
+public interface SourceCache<K, T> {
+
+    /**
+     * 默认命名空间
+     */
+    String DEFAULT_NAMESPACE = "";
+
+    /**
+     * 获取缓存的数据源。<br />
+     * 返回值中仅包含命中缓存的key，若缓存的结果为“数据源不存在”，则该key对应的值为null。
+     *
+     * @param namespace 命名空间
+     * @param keys key值
+     * @return java.util.Map<K,T>
+     * @author huangchengxing
+     * @date 2022/7/24 14:20
+     */
+    @Nonnull
+    Map<K, T> getAllPresent(@Nonnull String namespace, @Nonnull Collection<K> keys);
+
+    /**
+     * 缓存数据源
+     *
+     * @param namespace 命名空间
+     * @param sources 获取到的数据源
+     * @param absentKeys 未获取到数据源的key值
+     * @author huangchengxing
+     * @date 2022/7/24 14:20
+     */
+    void putAll(@Nonnull String namespace, @Nonnull Map<K, T> sources, @Nonnull Collection<K> absentKeys);
+
+    /**
+     * 清除指定命名空间下的缓存
+     *
+     * @param namespace 命名空间
+     * @author huangchengxing
+     * @date 2022/7/24 14:20
+     */
+    void invalidate(@Nonnull String namespace);
+
+    /**
+     * 清除全部缓存
+     *
+     * @author huangchengxing
+     * @date 2022/7/24 14:20
+     */
+    void invalidateAll();
+
+}
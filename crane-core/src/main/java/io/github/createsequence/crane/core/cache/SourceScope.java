@@ -0,0 +1,243 @@
+package io.github.createsequence.crane.core.cache;
+
+import io.github.createsequence.crane.core.aop.MethodResultProcessAspect;
+import io.github.createsequence.crane.core.aop.SourceScopeInterceptor;
+import io.github.createsequence.crane.core.container.BaseKeyContainer;
+import io.github.createsequence.crane.core.container.BaseNamespaceContainer;
+import io.github.createsequence.crane.core.helper.OperateTemplate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>数据源作用域，用于在一次逻辑请求内记忆容器获取到的数据源。
+ *
+ * <p>作用域开启后，在当前线程中，{@link BaseNamespaceContainer}与{@link BaseKeyContainer}
+ * 根据“容器-命名空间-key”获取到的数据源，以及未获取到数据源的key值，都会被记录下来，
+ * 直到作用域关闭前，再次获取相同的数据源时都将直接复用记录的结果。<br />
+ * 与{@link SourceCache}不同，记录的结果仅在作用域内有效，因此不必考虑数据过期的问题，
+ * 适用于一次请求中多次调用{@link OperateTemplate}等需要多次处理数据的场景。<br />
+ * 作用域内记录的数据源不限制数量，因此默认仅覆盖处理数据的过程，
+ * 比如{@link MethodResultProcessAspect}仅在处理方法返回值时开启作用域。<br />
+ * 若需要在一次请求中多次处理数据时复用数据源，可以在请求的入口方法中开启作用域，
+ * 或通过{@link SourceScopeInterceptor}将作用域应用到入口方法上，此后开启的作用域都将加入该作用域。
+ *
+ * <p>作用域与开启它的线程绑定，在已开启作用域的线程中再次开启时，将复用已有的作用域，
+ * 并在最外层的作用域关闭时才真正结束。比如：
+ * <pre>{@code
+ * try (SourceScope scope = SourceScope.open()) {
+ *     operateTemplate.process(users);
+ *     operateTemplate.process(orders);
+ * }
+ * }</pre>
+ * 作用域与线程绑定，因此在线程池中执行的任务需要通过{@link #wrap}包装后才能使用提交任务的线程的作用域，
+ * {@link io.github.createsequence.crane.core.executor.AsyncUnorderedOperationExecutor}等异步执行器提交容器的处理任务时均会进行包装。
+ * 作用域只能由开启它的线程关闭，关闭后即使任务仍在执行，也不会再使用作用域中记录的结果。
+ *
+ * @author huangchengxing
+ * @date 2022/07/25 15:10
+ * @see BaseNamespaceContainer#getSourcesQuietly
+ * @see BaseKeyContainer#getSourcesQuietly
+ */
+public final class SourceScope implements AutoCloseable {
+
+    private static final ThreadLocal<SourceScope> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 按容器实例记录的数据源
+     */
+    private final Map<Object, SourceCache<?, ?>> caches = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Thread owner = Thread.currentThread();
+    private int depth;
+    private volatile boolean closed;
+
+    private SourceScope() {
+    }
+
+    /**
+     * 在当前线程开启作用域，若当前线程已经开启了作用域，则复用已有的作用域。<br />
+     * 在通过{@link #wrap}包装的任务中开启时，将复用提交任务的线程的作用域，但不会影响其关闭
+     *
+     * @return io.github.createsequence.crane.core.cache.SourceScope
+     * @author huangchengxing
+     * @date 2022/7/25 15:20
+     */
+    @Nonnull
+    public static SourceScope open() {
+        SourceScope scope = CURRENT.get();
+        if (Objects.isNull(scope)) {
+            scope = new SourceScope();
+            CURRENT.set(scope);
+        }
+        if (scope.owner == Thread.currentThread()) {
+            scope.depth++;
+        }
+        return scope;
+    }
+
+    /**
+     * 包装任务，使其在其他线程中执行时也使用当前线程的作用域，若当前线程未开启作用域则直接返回原任务
+     *
+     * @param runnable 任务
+     * @return java.lang.Runnable
+     * @author huangchengxing
+     * @date 2022/7/26 18:40
+     */
+    @Nonnull
+    public static Runnable wrap(@Nonnull Runnable runnable) {
+        SourceScope scope = CURRENT.get();
+        if (Objects.isNull(scope)) {
+            return runnable;
+        }
+        return () -> {
+            SourceScope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                runnable.run();
+            } finally {
+                if (Objects.isNull(previous)) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * 在作用域中执行操作
+     *
+     * @param supplier 操作
+     * @return T
+     * @author huangchengxing
+     * @date 2022/7/25 15:20
+     */
+    public static <T> T call(@Nonnull Supplier<T> supplier) {
+        SourceScope scope = open();
+        try {
+            return supplier.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * 在作用域中执行操作
+     *
+     * @param runnable 操作
+     * @author huangchengxing
+     * @date 2022/7/25 15:20
+     */
+    public static void run(@Nonnull Runnable runnable) {
+        SourceScope scope = open();
+        try {
+            runnable.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * 当前线程是否已经开启作用域
+     *
+     * @return boolean
+     * @author huangchengxing
+     * @date 2022/7/25 15:20
+     */
+    public static boolean isOpen() {
+        SourceScope scope = CURRENT.get();
+        return Objects.nonNull(scope) && !scope.closed;
+    }
+
+    /**
+     * 获取当前作用域中用于记录指定容器数据源的缓存，若当前线程未开启作用域或作用域已经关闭则返回null
+     *
+     * @param container 容器
+     * @return io.github.createsequence.crane.core.cache.SourceCache<K,T>
+     * @author huangchengxing
+     * @date 2022/7/25 15:20
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <K, T> SourceCache<K, T> getCache(@Nonnull Object container) {
+        SourceScope scope = CURRENT.get();
+        return Objects.isNull(scope) || scope.closed ?
+            null : (SourceCache<K, T>) scope.caches.computeIfAbsent(container, c -> new ScopedSourceCache<>());
+    }
+
+    /**
+     * 关闭作用域，仅当最外层的作用域关闭时才会清空记录的数据源
+     */
+    @Override
+    public void close() {
+        if (Thread.currentThread() != owner || depth <= 0) {
+            return;
+        }
+        if (--depth == 0) {
+            closed = true;
+            caches.clear();
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * 作用域内的数据源缓存，不限制容量且不会过期
+     */
+    private static class ScopedSourceCache<K, T> implements SourceCache<K, T> {
+
+        /**
+         * 表示“数据源不存在”的占位符
+         */
+        private static final Object ABSENT = new Object();
+
+        private final Map<String, Map<K, Object>> sources = new ConcurrentHashMap<>();
+
+        @Nonnull
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<K, T> getAllPresent(@Nonnull String namespace, @Nonnull Collection<K> keys) {
+            Map<K, Object> cached = sources.get(namespace);
+            if (Objects.isNull(cached)) {
+                return Collections.emptyMap();
+            }
+            Map<K, T> results = new HashMap<>(keys.size());
+            for (K key : keys) {
+                Object source = Objects.isNull(key) ? null : cached.get(key);
+                if (Objects.nonNull(source)) {
+                    results.put(key, source == ABSENT ? null : (T) source);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public void putAll(@Nonnull String namespace, @Nonnull Map<K, T> sources, @Nonnull Collection<K> absentKeys) {
+            Map<K, Object> cached = this.sources.computeIfAbsent(namespace, ns -> new ConcurrentHashMap<>());
+            sources.forEach((key, source) -> {
+                if (Objects.nonNull(key) && Objects.nonNull(source)) {
+                    cached.put(key, source);
+                }
+            });
+            absentKeys.forEach(key -> {
+                if (Objects.nonNull(key)) {
+                    cached.putIfAbsent(key, ABSENT);
+                }
+            });
+        }
+
+        @Override
+        public void invalidate(@Nonnull String namespace) {
+            sources.remove(namespace);
+        }
+
+        @Override
+        public void invalidateAll() {
+            sources.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,335 @@
+package io.github.createsequence.crane.core.cache;
+
+import cn.hutool.core.lang.Assert;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>基于W-TinyLFU淘汰策略的{@link SourceCache}实现。
+ *
+ * <p>每个命名空间的缓存被划分为三个按访问顺序排列的队列：
+ * <ul>
+ *     <li>窗口队列：约占总容量的1%，新写入的数据源总是先进入该队列；</li>
+ *     <li>试用队列：从窗口队列中淘汰的数据源将进入该队列，在其中被再次访问后晋升至保护队列；</li>
+ *     <li>保护队列：约占主队列容量的80%，超出容量时最久未访问的数据源将降级回试用队列；</li>
+ * </ul>
+ * 当缓存容量不足时，从窗口队列淘汰的候选者将与试用队列中最久未访问的数据源比较近期的访问频率，
+ * 仅当候选者的访问频率更高时才会被保留。访问频率通过{@link FrequencySketch}估算，且会周期性衰减。<br />
+ * 与单纯的LRU相比，大批量的一次性查询（比如导出时遍历全表）产生的数据源只会在窗口队列与试用队列中流转，
+ * 而不会挤占经常被访问的热点数据源。
+ *
+ * <p>“数据源不存在”的结果与数据源共用相同的淘汰策略，但使用单独的过期时间，通常应当短于数据源的过期时间。<br />
+ * 与{@link GuavaSourceCache}相同，允许通过{@link #setNamespaceOptions}为指定命名空间单独设置缓存容量与过期时间，
+ * 未单独设置的命名空间将使用创建时指定的默认配置。
+ *
+ * <p>每个命名空间的缓存使用独立的锁，一次{@link #getAllPresent}或{@link #putAll}调用只需获取一次锁。
+ *
+ * @param <K> key类型
+ * @param <T> 数据源类型
+ * @author huangchengxing
+ * @date 2022/07/25 10:30
+ * @see FrequencySketch
+ */
+public class TinyLfuSourceCache<K, T> implements SourceCache<K, T> {
+
+    private final Options defaultOptions;
+    private final Map<String, Options> namespaceOptions = new ConcurrentHashMap<>();
+    private final Map<String, NamespaceCache<K, T>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * 创建一个缓存
+     *
+     * @param maximumSize 每个命名空间的最大缓存数量
+     * @param expireAfterWrite 数据源的过期时间，小于等于0时表示不过期
+     * @param negativeExpireAfterWrite “数据源不存在”的结果的过期时间，小于等于0时表示不缓存该结果
+     * @param unit 时间单位
+     */
+    public TinyLfuSourceCache(long maximumSize, long expireAfterWrite, long negativeExpireAfterWrite, TimeUnit unit) {
+        this.defaultOptions = new Options(maximumSize, unit.toNanos(expireAfterWrite), unit.toNanos(negativeExpireAfterWrite));
+    }
+
+    /**
+     * 为指定命名空间单独设置缓存配置，设置后该命名空间已有的缓存将被清空
+     *
+     * @param namespace 命名空间
+     * @param maximumSize 最大缓存数量
+     * @param expireAfterWrite 数据源的过期时间，小于等于0时表示不过期
+     * @param negativeExpireAfterWrite “数据源不存在”的结果的过期时间，小于等于0时表示不缓存该结果
+     * @param unit 时间单位
+     * @author huangchengxing
+     * @date 2022/7/27 14:00
+     */
+    public void setNamespaceOptions(String namespace, long maximumSize, long expireAfterWrite, long negativeExpireAfterWrite, TimeUnit unit) {
+        namespaceOptions.put(namespace, new Options(maximumSize, unit.toNanos(expireAfterWrite), unit.toNanos(negativeExpireAfterWrite)));
+        caches.remove(namespace);
+    }
+
+    @Nonnull
+    @Override
+    public Map<K, T> getAllPresent(@Nonnull String namespace, @Nonnull Collection<K> keys) {
+        // 仅在写入数据源时创建命名空间的缓存，避免未缓存过任何数据源的命名空间占用内存
+        NamespaceCache<K, T> cache = caches.get(namespace);
+        if (Objects.isNull(cache) || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return cache.getAllPresent(keys, System.nanoTime());
+    }
+
+    @Override
+    public void putAll(@Nonnull String namespace, @Nonnull Map<K, T> sources, @Nonnull Collection<K> absentKeys) {
+        Options options = namespaceOptions.getOrDefault(namespace, defaultOptions);
+        boolean cacheAbsent = options.negativeExpireAfterWriteNanos > 0 && !absentKeys.isEmpty();
+        if (sources.isEmpty() && !cacheAbsent) {
+            return;
+        }
+        long now = System.nanoTime();
+        NamespaceCache<K, T> cache = getCache(namespace, options);
+        synchronized (cache) {
+            sources.forEach((key, source) -> {
+                if (Objects.nonNull(key) && Objects.nonNull(source)) {
+                    cache.put(key, source, expireAt(now, options.expireAfterWriteNanos));
+                }
+            });
+            if (cacheAbsent) {
+                long expireAt = expireAt(now, options.negativeExpireAfterWriteNanos);
+                absentKeys.stream()
+                    .filter(key -> Objects.nonNull(key) && !sources.containsKey(key))
+                    .forEach(key -> cache.put(key, null, expireAt));
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(@Nonnull String namespace) {
+        caches.remove(namespace);
+    }
+
+    @Override
+    public void invalidateAll() {
+        caches.clear();
+    }
+
+    private NamespaceCache<K, T> getCache(String namespace, Options options) {
+        NamespaceCache<K, T> cache = caches.get(namespace);
+        return Objects.nonNull(cache) ? cache : caches.computeIfAbsent(namespace, ns -> new NamespaceCache<>(options.maximumSize));
+    }
+
+    private static long expireAt(long now, long expireAfterWriteNanos) {
+        return expireAfterWriteNanos > 0 ? now + expireAfterWriteNanos : Long.MAX_VALUE;
+    }
+
+    /**
+     * 缓存配置
+     */
+    private static class Options {
+
+        private final long maximumSize;
+        private final long expireAfterWriteNanos;
+        private final long negativeExpireAfterWriteNanos;
+
+        Options(long maximumSize, long expireAfterWriteNanos, long negativeExpireAfterWriteNanos) {
+            Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+            this.maximumSize = maximumSize;
+            this.expireAfterWriteNanos = expireAfterWriteNanos;
+            this.negativeExpireAfterWriteNanos = negativeExpireAfterWriteNanos;
+        }
+
+    }
+
+    /**
+     * 一个命名空间下的缓存，所有方法都应当在持有该对象的锁时调用
+     */
+    private static class NamespaceCache<K, T> {
+
+        private final Map<K, Node<K, T>> data = new HashMap<>();
+        private final FrequencySketch sketch;
+        private final AccessOrderDeque<K, T> window = new AccessOrderDeque<>();
+        private final AccessOrderDeque<K, T> probation = new AccessOrderDeque<>();
+        private final AccessOrderDeque<K, T> protect = new AccessOrderDeque<>();
+        private final long maximumSize;
+        private final long maximumWindowSize;
+        private final long maximumProtectedSize;
+
+        NamespaceCache(long maximumSize) {
+            this.maximumSize = maximumSize;
+            this.maximumWindowSize = Math.max(1L, maximumSize / 100);
+            this.maximumProtectedSize = (maximumSize - maximumWindowSize) * 4 / 5;
+            this.sketch = new FrequencySketch(maximumSize);
+        }
+
+        synchronized Map<K, T> getAllPresent(Collection<K> keys, long now) {
+            Map<K, T> results = new HashMap<>(keys.size());
+            for (K key : keys) {
+                if (Objects.isNull(key)) {
+                    continue;
+                }
+                // 未命中的key同样需要记录访问频率，以便其在写入后能够与已有的数据源竞争
+                sketch.increment(spread(key.hashCode()));
+                Node<K, T> node = data.get(key);
+                if (Objects.isNull(node)) {
+                    continue;
+                }
+                if (node.expireAt - now <= 0) {
+                    remove(node);
+                    continue;
+                }
+                onAccess(node);
+                results.put(key, node.value);
+            }
+            return results;
+        }
+
+        void put(K key, T value, long expireAt) {
+            Node<K, T> node = data.get(key);
+            if (Objects.nonNull(node)) {
+                node.value = value;
+                node.expireAt = expireAt;
+                onAccess(node);
+                return;
+            }
+            node = new Node<>(key, spread(key.hashCode()), value, expireAt);
+            data.put(key, node);
+            window.addLast(node);
+            node.queue = window;
+            evict();
+        }
+
+        /**
+         * 数据源被访问后，根据其所在的队列调整位置
+         */
+        private void onAccess(Node<K, T> node) {
+            if (node.queue == probation) {
+                probation.remove(node);
+                protect.addLast(node);
+                node.queue = protect;
+                // 保护队列超出容量时，将最久未访问的数据源降级回试用队列
+                while (protect.size > maximumProtectedSize) {
+                    Node<K, T> demoted = protect.pollFirst();
+                    probation.addLast(demoted);
+                    demoted.queue = probation;
+                }
+            } else {
+                node.queue.moveToLast(node);
+            }
+        }
+
+        /**
+         * 将超出窗口容量的数据源移入试用队列，并在总数超出容量时淘汰访问频率较低的数据源
+         */
+        private void evict() {
+            Node<K, T> candidate = null;
+            while (window.size > maximumWindowSize) {
+                Node<K, T> node = window.pollFirst();
+                probation.addLast(node);
+                node.queue = probation;
+                candidate = Objects.isNull(candidate) ? node : candidate;
+            }
+            while (data.size() > maximumSize) {
+                Node<K, T> victim = probation.first;
+                if (Objects.isNull(candidate) || Objects.isNull(victim) || candidate == victim) {
+                    Node<K, T> evicted = Objects.nonNull(victim) ? victim : window.first;
+                    remove(Objects.nonNull(evicted) ? evicted : protect.first);
+                    candidate = null;
+                    continue;
+                }
+                // 候选者的访问频率不高于受害者时，淘汰候选者，否则淘汰受害者
+                Node<K, T> next = candidate.next;
+                if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    remove(victim);
+                } else {
+                    remove(candidate);
+                    candidate = next;
+                }
+            }
+        }
+
+        private void remove(Node<K, T> node) {
+            data.remove(node.key);
+            node.queue.remove(node);
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+
+    }
+
+    /**
+     * 缓存节点，值为null时表示“数据源不存在”
+     */
+    private static class Node<K, T> {
+
+        private final K key;
+        private final int hash;
+        private T value;
+        private long expireAt;
+        private AccessOrderDeque<K, T> queue;
+        private Node<K, T> prev;
+        private Node<K, T> next;
+
+        Node(K key, int hash, T value, long expireAt) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+    }
+
+    /**
+     * 按访问顺序排列的双向链表，队首为最久未访问的节点
+     */
+    private static class AccessOrderDeque<K, T> {
+
+        private Node<K, T> first;
+        private Node<K, T> last;
+        private long size;
+
+        void addLast(Node<K, T> node) {
+            node.prev = last;
+            node.next = null;
+            if (Objects.isNull(last)) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        Node<K, T> pollFirst() {
+            Node<K, T> node = first;
+            remove(node);
+            return node;
+        }
+
+        void moveToLast(Node<K, T> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node<K, T> node) {
+            if (Objects.isNull(node.prev)) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (Objects.isNull(node.next)) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+    }
+
+}
@@ -1,20 +1,23 @@
 package io.github.createsequence.crane.core.container;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.convert.Convert;
 import cn.hutool.core.util.ClassUtil;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.cache.SourceCache;
 import io.github.createsequence.crane.core.helper.ObjectUtils;
+import io.github.createsequence.crane.core.helper.TypeConverters;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
 import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * 容器基类，用于提供针对“使用key获取数据源并操作”的模板代码
@@ -27,7 +30,29 @@ import java.util.Set;
 @RequiredArgsConstructor
 public abstract class BaseKeyContainer<K> implements Container {
 
+    /**
+     * 各子类是否重写了已废弃的{@link #getTargetIds}与{@link #writeToTargets(Map, Object, AssembleOperation)}，
+     * 若已重写，则处理时仍调用重写的方法
+     */
+    private static final ClassValue<LegacyHooks> LEGACY_HOOKS = new ClassValue<LegacyHooks>() {
+        @Override
+        protected LegacyHooks computeValue(Class<?> type) {
+            return new LegacyHooks(
+                ReflexUtils.isOverridden(type, BaseKeyContainer.class, "getTargetIds", Multimap.class),
+                ReflexUtils.isOverridden(type, BaseKeyContainer.class, "writeToTargets", Map.class, Object.class, AssembleOperation.class)
+            );
+        }
+    };
+
     protected final Class<K> keyType;
+    private final LegacyHooks legacyHooks = LEGACY_HOOKS.get(getClass());
+
+    /**
+     * 数据源缓存，不为空时仅有未命中缓存的key值会被用于获取数据源
+     */
+    @Setter
+    @Nullable
+    private volatile SourceCache<K, Object> sourceCache;
 
     protected BaseKeyContainer() {
         this.keyType = getKeyType();
@@ -38,23 +63,127 @@ public abstract class BaseKeyContainer<K> implements Container {
         if (Objects.isNull(operations) || operations.isEmpty()) {
             return;
         }
-        // 获取key值
-        Set<K> keys = getTargetIds(operations);
-        if (CollUtil.isEmpty(keys)) {
+        // 一次性获取全部key值，key值按下标记录以便写入时复用
+        List<Map.Entry<AssembleOperation, ?>> entries = new ArrayList<>(operations.entries());
+        Object[] keys = legacyHooks.readsKeys ? null : new Object[entries.size()];
+        if (Objects.nonNull(keys)) {
+            for (int i = 0; i < keys.length; i++) {
+                Map.Entry<AssembleOperation, ?> entry = entries.get(i);
+                keys[i] = readKey(entry.getKey(), entry.getValue());
+            }
+        }
+        // 根据key值获取数据源
+        Map<K, ?> sources = getSourcesQuietly(toKeySet(operations, keys));
+        if (CollUtil.isEmpty(sources)) {
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            write(sources, entries.get(i), keys, i);
+        }
+    }
+
+    @Override
+    public void process(Multimap<AssembleOperation, ?> operations, ForkJoinPool forkJoinPool) {
+        if (Objects.isNull(operations) || operations.isEmpty()) {
             return;
         }
+        List<Map.Entry<AssembleOperation, ?>> entries = new ArrayList<>(operations.entries());
+        Object[] keys = legacyHooks.readsKeys ? null : new Object[entries.size()];
+        // 并行获取key值
+        if (Objects.nonNull(keys)) {
+            forkJoinPool.submit(() -> IntStream.range(0, keys.length).parallel()
+                .forEach(i -> keys[i] = readKey(entries.get(i).getKey(), entries.get(i).getValue()))
+            ).join();
+        }
         // 根据key值获取数据源
-        Map<K, ?> sources = ObjectUtils.trySupply(
+        Map<K, ?> sources = getSourcesQuietly(toKeySet(operations, keys));
+        if (CollUtil.isEmpty(sources)) {
+            return;
+        }
+        // 并行写入数据源
+        forkJoinPool.submit(() -> IntStream.range(0, entries.size()).parallel()
+            .forEach(i -> write(sources, entries.get(i), keys, i))
+        ).join();
+    }
+
+    /**
+     * 读取并转换待处理对象的key值，处理时每个待处理对象的key值仅会被读取一次，
+     * 并在写入数据源时通过{@link #writeToTargets}的key参数复用
+     *
+     * @param operation 装配配置
+     * @param target 待处理对象
+     * @return K
+     * @author huangchengxing
+     * @date 2022/7/26 16:40
+     */
+    @Nullable
+    protected K readKey(@Nonnull AssembleOperation operation, Object target) {
+        return parseKey(operation.getAssembler().getKey(target, operation));
+    }
+
+    /**
+     * 对已经获取的key值去重，若子类重写了{@link #getTargetIds}，则通过该方法获取
+     */
+    @SuppressWarnings("unchecked")
+    private Set<K> toKeySet(Multimap<AssembleOperation, ?> operations, @Nullable Object[] keys) {
+        if (Objects.isNull(keys)) {
+            return getTargetIds(operations);
+        }
+        Set<K> keySet = new HashSet<>(keys.length);
+        for (Object key : keys) {
+            if (Objects.nonNull(key)) {
+                keySet.add((K) key);
+            }
+        }
+        return keySet;
+    }
+
+    /**
+     * 将数据源写入对象，若未预先读取key值，或子类重写了{@link #writeToTargets(Map, Object, AssembleOperation)}，则通过该方法写入
+     */
+    private void write(Map<K, ?> sources, Map.Entry<AssembleOperation, ?> entry, @Nullable Object[] keys, int index) {
+        if (Objects.isNull(keys) || legacyHooks.writesTargets) {
+            writeToTargets(sources, entry.getValue(), entry.getKey());
+        } else {
+            writeToTargets(sources, entry.getValue(), entry.getKey(), keys[index]);
+        }
+    }
+
+    /**
+     * 根据key值获取数据源，若获取失败则返回null
+     *
+     * @param keys key值
+     * @return java.util.Map<K,?>
+     * @author huangchengxing
+     * @date 2022/7/16 14:31
+     */
+    @Nullable
+    protected Map<K, ?> getSourcesQuietly(@Nonnull Set<K> keys) {
+        if (CollUtil.isEmpty(keys)) {
+            return null;
+        }
+        // 依次从作用域内记录的数据源、数据源缓存中获取，均未命中时才实际获取数据源，没有命名空间时统一使用默认命名空间
+        Multimap<String, K> namespacesAndKeys = HashMultimap.create(1, keys.size());
+        namespacesAndKeys.putAll(SourceCache.DEFAULT_NAMESPACE, keys);
+        Map<String, Map<K, Object>> sources = CachedSourceLoader.getSources(this, sourceCache, namespacesAndKeys, missedNamespacesAndKeys -> {
+            Map<K, ?> loaded = loadSourcesQuietly(new HashSet<>(missedNamespacesAndKeys.get(SourceCache.DEFAULT_NAMESPACE)));
+            return Objects.isNull(loaded) ? null : Collections.singletonMap(SourceCache.DEFAULT_NAMESPACE, Collections.unmodifiableMap(loaded));
+        });
+        return Objects.isNull(sources) ? null : sources.get(SourceCache.DEFAULT_NAMESPACE);
+    }
+
+    /**
+     * 根据key值实际获取数据源，若获取失败则返回null
+     */
+    @Nullable
+    private Map<K, ?> loadSourcesQuietly(Set<K> keys) {
+        return ObjectUtils.trySupply(
             () -> getSources(keys),
             x -> {
                 log.warn("容器[{}]获取数据源获取失败，key[{}]", this.getClass(), keys);
                 x.printStackTrace();
             }
         );
-        if (CollUtil.isEmpty(sources)) {
-            return;
-        }
-        operations.forEach((op, t) -> writeToTargets(sources, t, op));
     }
 
     /**
@@ -65,13 +194,33 @@ public abstract class BaseKeyContainer<K> implements Container {
      * @param operation 装配配置
      * @author huangchengxing
      * @date 2022/4/18 0:16
+     * @deprecated 处理时默认复用已经读取的key值调用{@link #writeToTargets(Map, Object, AssembleOperation, Object)}，
+     * 仅当子类重写了该方法或{@link #getTargetIds}时才会调用该方法，此时每个待处理对象的key值将被重复读取。
+     * 需要自定义key值的读取或数据源的写入时，应当重写{@link #readKey}或{@link #writeToTargets(Map, Object, AssembleOperation, Object)}
      */
+    @Deprecated
     protected void writeToTargets(@Nonnull Map<K, ?> sources, @Nullable Object target, @Nonnull AssembleOperation operation) {
         if (Objects.isNull(target)) {
             return;
         }
-        Object key = operation.getAssembler().getKey(target, operation);
-        Object source = sources.get(parseKey(key));
+        writeToTargets(sources, target, operation, readKey(operation, target));
+    }
+
+    /**
+     * 将数据源写入对象
+     *
+     * @param sources 数据源
+     * @param target 待处理对象
+     * @param operation 装配配置
+     * @param key 已经获取并转换的key值
+     * @author huangchengxing
+     * @date 2022/7/23 10:20
+     */
+    protected void writeToTargets(@Nonnull Map<K, ?> sources, @Nullable Object target, @Nonnull AssembleOperation operation, @Nullable Object key) {
+        if (Objects.isNull(target) || Objects.isNull(key)) {
+            return;
+        }
+        Object source = sources.get(key);
         if (Objects.nonNull(source)) {
             ObjectUtils.tryAction(
                 () -> operation.getAssembler().execute(target, source, operation),
@@ -98,13 +247,16 @@ public abstract class BaseKeyContainer<K> implements Container {
      * @return java.util.Set<K>
      * @author huangchengxing
      * @date 2022/3/21 12:17
+     * @deprecated 处理时默认通过{@link #readKey}逐个读取key值，以便写入数据源时复用，
+     * 仅当子类重写了该方法时才会调用该方法，此时写入数据源时将通过{@link #writeToTargets(Map, Object, AssembleOperation)}重新读取key值。
+     * 需要自定义key值的读取时，应当重写{@link #readKey}
      */
+    @Deprecated
     @Nonnull
     protected Set<K> getTargetIds(@Nonnull Multimap<AssembleOperation, ?> operations) {
         Set<K> results = new HashSet<>();
         operations.forEach((op, t) -> {
-            Object key = op.getAssembler().getKey(t, op);
-            K actualKey = parseKey(key);
+            K actualKey = readKey(op, t);
             if (Objects.nonNull(actualKey)) {
                 results.add(actualKey);
             }
@@ -132,7 +284,16 @@ public abstract class BaseKeyContainer<K> implements Container {
      */
     @Nullable
     protected K parseKey(@Nullable Object key) {
-        return Convert.convert(keyType, key);
+        return TypeConverters.convert(keyType, key);
+    }
+
+    /**
+     * 子类是否重写了已废弃的方法
+     */
+    @RequiredArgsConstructor
+    private static class LegacyHooks {
+        private final boolean readsKeys;
+        private final boolean writesTargets;
     }
 
 }
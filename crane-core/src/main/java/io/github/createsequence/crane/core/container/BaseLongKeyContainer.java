@@ -0,0 +1,120 @@
+package io.github.createsequence.crane.core.container;
+
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.helper.LongObjectHashMap;
+import io.github.createsequence.crane.core.helper.ObjectUtils;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>针对long类型key的{@link BaseKeyContainer}。
+ *
+ * <p>key值读取后直接以基本类型保存在数组中，去重后以long数组的形式传递给{@link #getSources(long[])}，
+ * 数据源同样通过以基本类型long为key的{@link LongObjectHashMap}返回，
+ * 因此整个处理过程中不需要将key装箱为{@link Long}，也不需要经过{@link cn.hutool.core.convert.Convert}进行类型转换。<br />
+ * key字段为int、short等其他整数类型时，将被直接拓宽为long类型处理，
+ * 带有小数部分或超出long范围的key值将被视为无效，对应的对象不会被装配。
+ *
+ * <p>注意，该容器不支持{@link BaseKeyContainer}的{@link io.github.createsequence.crane.core.cache.SourceCache}，
+ * 也不会读取{@link io.github.createsequence.crane.core.cache.SourceScope}中的缓存，
+ * 需要缓存数据源时，应当使用{@link BaseKeyContainer}或在{@link #getSources(long[])}中自行处理。
+ *
+ * @author huangchengxing
+ * @date 2022/07/23 15:10
+ * @see BaseKeyContainer
+ * @see LongObjectHashMap
+ */
+@Slf4j
+public abstract class BaseLongKeyContainer implements Container {
+
+    @Override
+    public void process(Multimap<AssembleOperation, ?> operations) {
+        if (Objects.isNull(operations) || operations.isEmpty()) {
+            return;
+        }
+        // 一次性获取全部key值，key值按下标记录以便写入时复用
+        LongKeys keys = LongKeys.read(operations);
+        // 根据key值获取数据源
+        LongObjectHashMap<?> sources = getSourcesQuietly(keys.distinct());
+        if (Objects.isNull(sources) || sources.isEmpty()) {
+            return;
+        }
+        keys.forEach((target, operation, key) -> writeToTargets(sources, target, operation, key));
+    }
+
+    @Override
+    public void process(Multimap<AssembleOperation, ?> operations, ForkJoinPool forkJoinPool) {
+        if (Objects.isNull(operations) || operations.isEmpty()) {
+            return;
+        }
+        // 并行获取key值
+        LongKeys keys = LongKeys.read(operations, forkJoinPool);
+        // 根据key值获取数据源
+        LongObjectHashMap<?> sources = getSourcesQuietly(keys.distinct());
+        if (Objects.isNull(sources) || sources.isEmpty()) {
+            return;
+        }
+        // 并行写入数据源
+        keys.forEach((target, operation, key) -> writeToTargets(sources, target, operation, key), forkJoinPool);
+    }
+
+    /**
+     * 根据key值获取数据源，若获取失败则返回null
+     *
+     * @param keys 不重复的key值
+     * @return io.github.createsequence.crane.core.helper.LongObjectHashMap<?>
+     * @author huangchengxing
+     * @date 2022/7/23 15:20
+     */
+    @Nullable
+    protected LongObjectHashMap<?> getSourcesQuietly(@Nonnull long[] keys) {
+        if (keys.length == 0) {
+            return null;
+        }
+        return ObjectUtils.trySupply(
+            () -> getSources(keys),
+            x -> log.warn("容器[{}]获取数据源获取失败，key[{}]，错误信息：{}", this.getClass(), Arrays.toString(keys), x.getMessage())
+        );
+    }
+
+    /**
+     * 将数据源写入对象
+     *
+     * @param sources 数据源
+     * @param target 待处理对象
+     * @param operation 装配配置
+     * @param key key值
+     * @author huangchengxing
+     * @date 2022/7/23 15:20
+     */
+    protected void writeToTargets(@Nonnull LongObjectHashMap<?> sources, @Nullable Object target, @Nonnull AssembleOperation operation, long key) {
+        if (Objects.isNull(target)) {
+            return;
+        }
+        Object source = sources.get(key);
+        if (Objects.nonNull(source)) {
+            ObjectUtils.tryAction(
+                () -> operation.getAssembler().execute(target, source, operation),
+                x -> log.error("字段[{}]处理失败，错误原因：{}", operation.getTargetProperty(), x.getMessage())
+            );
+        }
+    }
+
+    /**
+     * 根据装配的key字段值获取与key字段值对应的数据源对象集合
+     *
+     * @param keys 不重复的key值
+     * @return io.github.createsequence.crane.core.helper.LongObjectHashMap<?>
+     * @author huangchengxing
+     * @date 2022/7/23 15:20
+     */
+    @Nonnull
+    protected abstract LongObjectHashMap<?> getSources(@Nonnull long[] keys);
+
+}
@@ -1,19 +1,24 @@
 package io.github.createsequence.crane.core.container;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.convert.Convert;
 import cn.hutool.core.util.ClassUtil;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.cache.SourceCache;
 import io.github.createsequence.crane.core.helper.ObjectUtils;
+import io.github.createsequence.crane.core.helper.TypeConverters;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
 import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * 容器基类，用于提供针对“使用namespace和key获取数据源并操作”的模板代码
@@ -26,7 +31,36 @@ import java.util.Objects;
 @Slf4j
 public abstract class BaseNamespaceContainer<K, T> implements Container {
 
+    /**
+     * 各子类是否重写了已废弃的{@link #getNamespaceAndKeyFromTargets}与{@link #writeToTargets(Map, Object, AssembleOperation)}，
+     * 若已重写，则处理时仍调用重写的方法
+     */
+    private static final ClassValue<LegacyHooks> LEGACY_HOOKS = new ClassValue<LegacyHooks>() {
+        @Override
+        protected LegacyHooks computeValue(Class<?> type) {
+            return new LegacyHooks(
+                ReflexUtils.isOverridden(type, BaseNamespaceContainer.class, "getNamespaceAndKeyFromTargets", Multimap.class),
+                ReflexUtils.isOverridden(type, BaseNamespaceContainer.class, "writeToTargets", Map.class, Object.class, AssembleOperation.class)
+            );
+        }
+    };
+
     protected final Class<K> keyType;
+    private final LegacyHooks legacyHooks = LEGACY_HOOKS.get(getClass());
+
+    /**
+     * key合并器，不为空时将与其他线程合并获取数据源的请求
+     */
+    @Setter
+    @Nullable
+    private volatile KeyCoalescer<K, T> keyCoalescer;
+
+    /**
+     * 数据源缓存，不为空时仅有未命中缓存的key值会被用于获取数据源
+     */
+    @Setter
+    @Nullable
+    private volatile SourceCache<K, T> sourceCache;
 
     protected BaseNamespaceContainer() {
         this.keyType = getKeyType();
@@ -37,20 +71,120 @@ public abstract class BaseNamespaceContainer<K, T> implements Container {
         if (Objects.isNull(operations) || operations.isEmpty()) {
             return;
         }
-        // 获取key值与命名空间
-        Multimap<String, K> namespacesAndKeys = getNamespaceAndKeyFromTargets(operations);
-        if (namespacesAndKeys.isEmpty()) {
+        // 一次性获取全部key值与命名空间，key值按下标记录以便写入时复用
+        List<Map.Entry<AssembleOperation, ?>> entries = new ArrayList<>(operations.entries());
+        Object[] keys = legacyHooks.readsKeys ? null : new Object[entries.size()];
+        if (Objects.nonNull(keys)) {
+            for (int i = 0; i < keys.length; i++) {
+                Map.Entry<AssembleOperation, ?> entry = entries.get(i);
+                keys[i] = readKey(entry.getKey(), entry.getValue());
+            }
+        }
+        // 根据key值获取数据源
+        Map<String, Map<K, T>> sources = getSourcesQuietly(toNamespaceAndKeys(operations, entries, keys));
+        if (CollUtil.isEmpty(sources)) {
             return;
         }
+        for (int i = 0; i < entries.size(); i++) {
+            write(sources, entries.get(i), keys, i);
+        }
+    }
+
+    @Override
+    public void process(Multimap<AssembleOperation, ?> operations, ForkJoinPool forkJoinPool) {
+        if (Objects.isNull(operations) || operations.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<AssembleOperation, ?>> entries = new ArrayList<>(operations.entries());
+        Object[] keys = legacyHooks.readsKeys ? null : new Object[entries.size()];
+        // 并行获取key值
+        if (Objects.nonNull(keys)) {
+            forkJoinPool.submit(() -> IntStream.range(0, keys.length).parallel()
+                .forEach(i -> keys[i] = readKey(entries.get(i).getKey(), entries.get(i).getValue()))
+            ).join();
+        }
         // 根据key值获取数据源
-        Map<String, Map<K, T>> sources = ObjectUtils.trySupply(
-            () -> getSources(namespacesAndKeys),
-            e -> log.warn("容器[{}]获取数据源获取失败，数据[{}]，错误信息：{}", this.getClass(), namespacesAndKeys, e.getMessage())
-        );
+        Map<String, Map<K, T>> sources = getSourcesQuietly(toNamespaceAndKeys(operations, entries, keys));
         if (CollUtil.isEmpty(sources)) {
             return;
         }
-        operations.forEach((op, t) -> writeToTargets(sources, t, op));
+        // 并行写入数据源
+        forkJoinPool.submit(() -> IntStream.range(0, entries.size()).parallel()
+            .forEach(i -> write(sources, entries.get(i), keys, i))
+        ).join();
+    }
+
+    /**
+     * 读取并转换待处理对象的key值，处理时每个待处理对象的key值仅会被读取一次，
+     * 并在写入数据源时通过{@link #writeToTargets}的key参数复用
+     *
+     * @param operation 装配配置
+     * @param target 待处理对象
+     * @return K
+     * @author huangchengxing
+     * @date 2022/7/26 16:40
+     */
+    @Nullable
+    protected K readKey(@Nonnull AssembleOperation operation, Object target) {
+        return parseKey(operation.getAssembler().getKey(target, operation));
+    }
+
+    /**
+     * 按命名空间对已经获取的key值分组并去重，若子类重写了{@link #getNamespaceAndKeyFromTargets}，则通过该方法获取
+     */
+    @SuppressWarnings("unchecked")
+    private Multimap<String, K> toNamespaceAndKeys(
+        Multimap<AssembleOperation, ?> operations, List<Map.Entry<AssembleOperation, ?>> entries, @Nullable Object[] keys) {
+        if (Objects.isNull(keys)) {
+            return getNamespaceAndKeyFromTargets(operations);
+        }
+        Multimap<String, K> namespacesAndKeys = HashMultimap.create();
+        for (int i = 0; i < keys.length; i++) {
+            if (Objects.nonNull(keys[i])) {
+                namespacesAndKeys.put(entries.get(i).getKey().getNamespace(), (K) keys[i]);
+            }
+        }
+        return namespacesAndKeys;
+    }
+
+    /**
+     * 将数据源写入对象，若未预先读取key值，或子类重写了{@link #writeToTargets(Map, Object, AssembleOperation)}，则通过该方法写入
+     */
+    private void write(Map<String, Map<K, T>> sources, Map.Entry<AssembleOperation, ?> entry, @Nullable Object[] keys, int index) {
+        if (Objects.isNull(keys) || legacyHooks.writesTargets) {
+            writeToTargets(sources, entry.getValue(), entry.getKey());
+        } else {
+            writeToTargets(sources, entry.getValue(), entry.getKey(), keys[index]);
+        }
+    }
+
+    /**
+     * 根据namespace与key值获取数据源，若获取失败则返回null
+     *
+     * @param namespacesAndKeys namespace与key值
+     * @return java.util.Map<java.lang.String,java.util.Map<K,T>>
+     * @author huangchengxing
+     * @date 2022/7/16 14:31
+     */
+    @Nullable
+    protected Map<String, Map<K, T>> getSourcesQuietly(@Nonnull Multimap<String, K> namespacesAndKeys) {
+        if (namespacesAndKeys.isEmpty()) {
+            return null;
+        }
+        // 依次从作用域内记录的数据源、数据源缓存中获取，均未命中时才实际获取数据源
+        return CachedSourceLoader.getSources(this, sourceCache, namespacesAndKeys, this::loadSourcesQuietly);
+    }
+
+    /**
+     * 根据namespace与key值实际获取数据源，若获取失败则返回null
+     */
+    @Nullable
+    private Map<String, Map<K, T>> loadSourcesQuietly(Multimap<String, K> namespacesAndKeys) {
+        KeyCoalescer<K, T> coalescer = keyCoalescer;
+        return ObjectUtils.trySupply(
+            () -> Objects.isNull(coalescer) ? getSources(namespacesAndKeys) : coalescer.getSources(namespacesAndKeys, this::getSources),
+            e -> log.warn("容器[{}]获取数据源获取失败，数据[{}]，错误信息：{}", this.getClass(), namespacesAndKeys, e.getMessage())
+        );
     }
 
     /**
@@ -61,17 +195,38 @@ public abstract class BaseNamespaceContainer<K, T> implements Container {
      * @param operation 装配配置
      * @author huangchengxing
      * @date 2022/4/18 0:16
+     * @deprecated 处理时默认复用已经读取的key值调用{@link #writeToTargets(Map, Object, AssembleOperation, Object)}，
+     * 仅当子类重写了该方法或{@link #getNamespaceAndKeyFromTargets}时才会调用该方法，此时每个待处理对象的key值将被重复读取。
+     * 需要自定义key值的读取或数据源的写入时，应当重写{@link #readKey}或{@link #writeToTargets(Map, Object, AssembleOperation, Object)}
      */
+    @Deprecated
     protected void writeToTargets(@Nonnull Map<String, Map<K, T>> sources, @CheckForNull Object target, @Nonnull AssembleOperation operation) {
         if (Objects.isNull(target)) {
             return;
         }
+        writeToTargets(sources, target, operation, readKey(operation, target));
+    }
+
+    /**
+     * 将数据源写入对象
+     *
+     * @param sources 数据源
+     * @param target 待处理对象
+     * @param operation 装配配置
+     * @param key 已经获取并转换的key值
+     * @author huangchengxing
+     * @date 2022/7/22 16:10
+     */
+    protected void writeToTargets(
+        @Nonnull Map<String, Map<K, T>> sources, @CheckForNull Object target, @Nonnull AssembleOperation operation, @Nullable Object key) {
+        if (Objects.isNull(target) || Objects.isNull(key)) {
+            return;
+        }
         Map<K, ?> keyMap = sources.get(operation.getNamespace());
         if (CollUtil.isEmpty(keyMap)) {
             return;
         }
-        Object key = operation.getAssembler().getKey(target, operation);
-        Object source = keyMap.get(parseKey(key));
+        Object source = keyMap.get(key);
         if (Objects.isNull(source)) {
             return;
         }
@@ -99,13 +254,16 @@ public abstract class BaseNamespaceContainer<K, T> implements Container {
      * @return org.springframework.util.MultiValueMap<java.lang.String,K>
      * @author huangchengxing
      * @date 2022/3/21 12:17
+     * @deprecated 处理时默认通过{@link #readKey}逐个读取key值，以便写入数据源时复用，
+     * 仅当子类重写了该方法时才会调用该方法，此时写入数据源时将通过{@link #writeToTargets(Map, Object, AssembleOperation)}重新读取key值。
+     * 需要自定义key值的读取时，应当重写{@link #readKey}
      */
+    @Deprecated
     @Nonnull
     protected Multimap<String, K> getNamespaceAndKeyFromTargets(@Nonnull Multimap<AssembleOperation, ?> operations) {
         Multimap<String, K> results = HashMultimap.create();
         operations.forEach((op, t) -> {
-            Object key = op.getAssembler().getKey(t, op);
-            K actualKey = parseKey(key);
+            K actualKey = readKey(op, t);
             if (Objects.nonNull(actualKey)) {
                 results.put(op.getNamespace(), actualKey);
             }
@@ -133,7 +291,16 @@ public abstract class BaseNamespaceContainer<K, T> implements Container {
      */
     @Nullable
     protected K parseKey(@Nullable Object key) {
-        return Convert.convert(keyType, key);
+        return TypeConverters.convert(keyType, key);
+    }
+
+    /**
+     * 子类是否重写了已废弃的方法
+     */
+    @RequiredArgsConstructor
+    private static class LegacyHooks {
+        private final boolean readsKeys;
+        private final boolean writesTargets;
     }
 
 }
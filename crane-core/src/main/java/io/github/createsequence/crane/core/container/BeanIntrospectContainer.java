@@ -5,6 +5,11 @@ import io.github.createsequence.crane.core.helper.ObjectUtils;
 import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * 内省容器，用于对待处理对象本身进行操作，可以理解其数据源对象就是“自己”
  *
@@ -16,9 +21,21 @@ public class BeanIntrospectContainer implements Container {
 
     @Override
     public void process(Multimap<AssembleOperation, ?> operations) {
-        operations.forEach((op, t) -> ObjectUtils.tryAction(
+        operations.forEach(this::process);
+    }
+
+    @Override
+    public void process(Multimap<AssembleOperation, ?> operations, ForkJoinPool forkJoinPool) {
+        List<Map.Entry<AssembleOperation, ?>> entries = new ArrayList<>(operations.entries());
+        forkJoinPool.submit(() -> entries.parallelStream()
+            .forEach(e -> process(e.getKey(), e.getValue()))
+        ).join();
+    }
+
+    private void process(AssembleOperation op, Object t) {
+        ObjectUtils.tryAction(
             () -> op.getAssembler().execute(t, t, op),
             x -> log.error("字段[{}]处理失败，错误原因：{}", op.getTargetProperty(), x.getMessage())
-        ));
+        );
     }
 }
@@ -0,0 +1,128 @@
+package io.github.createsequence.crane.core.container;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.cache.SourceCache;
+import io.github.createsequence.crane.core.cache.SourceScope;
+import io.github.createsequence.crane.core.helper.ObjectUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 通过{@link SourceScope}中记录的数据源与容器的{@link SourceCache}获取数据源，
+ * 供{@link BaseKeyContainer}与{@link BaseNamespaceContainer}使用。
+ *
+ * <p>各级缓存按顺序访问，仅将全部未命中的key值用于实际获取数据源。
+ * 缓存本身读取或写入失败时仅输出日志，并视为未命中，不会影响数据源的获取。
+ *
+ * @author huangchengxing
+ * @date 2022/07/26 18:20
+ */
+@Slf4j
+class CachedSourceLoader {
+
+    private CachedSourceLoader() {
+    }
+
+    /**
+     * 依次从作用域内记录的数据源、数据源缓存中获取，均未命中时才实际获取数据源
+     *
+     * @param container 容器
+     * @param sourceCache 容器的数据源缓存
+     * @param namespacesAndKeys namespace与key值
+     * @param loader 实际获取数据源的方法，获取失败时返回null
+     * @return 数据源，未配置缓存且获取失败时返回null
+     */
+    @Nullable
+    static <K, T> Map<String, Map<K, T>> getSources(
+        @Nonnull Container container, @Nullable SourceCache<K, T> sourceCache,
+        @Nonnull Multimap<String, K> namespacesAndKeys, @Nonnull Function<Multimap<String, K>, Map<String, Map<K, T>>> loader) {
+        List<SourceCache<K, T>> caches = new ArrayList<>(2);
+        SourceCache<K, T> scopedCache = SourceScope.getCache(container);
+        if (Objects.nonNull(scopedCache)) {
+            caches.add(scopedCache);
+        }
+        if (Objects.nonNull(sourceCache)) {
+            caches.add(sourceCache);
+        }
+        return caches.isEmpty() ? loader.apply(namespacesAndKeys) : getSourcesThroughCaches(container, caches, namespacesAndKeys, loader);
+    }
+
+    /**
+     * 按顺序从各级缓存中获取数据源，仅将全部未命中的key值用于实际获取数据源。<br />
+     * 从后一级缓存命中的结果将被写入前面各级缓存，实际获取到的结果将被写入全部缓存，获取失败时仅返回已命中的部分
+     */
+    private static <K, T> Map<String, Map<K, T>> getSourcesThroughCaches(
+        Container container, List<SourceCache<K, T>> caches,
+        Multimap<String, K> namespacesAndKeys, Function<Multimap<String, K>, Map<String, Map<K, T>>> loader) {
+        Map<String, Map<K, T>> results = new HashMap<>(namespacesAndKeys.keySet().size());
+        Multimap<String, K> missedNamespacesAndKeys = namespacesAndKeys;
+        for (int i = 0; i < caches.size() && !missedNamespacesAndKeys.isEmpty(); i++) {
+            SourceCache<K, T> cache = caches.get(i);
+            List<SourceCache<K, T>> upperCaches = caches.subList(0, i);
+            Multimap<String, K> stillMissed = HashMultimap.create();
+            missedNamespacesAndKeys.asMap().forEach((namespace, keys) -> {
+                Map<K, T> cached = getAllPresentQuietly(container, cache, namespace, keys);
+                Map<K, T> hits = results.computeIfAbsent(namespace, ns -> new HashMap<>(keys.size()));
+                List<K> absentKeys = new ArrayList<>();
+                cached.forEach((key, source) -> {
+                    if (Objects.nonNull(source)) {
+                        hits.put(key, source);
+                    } else {
+                        absentKeys.add(key);
+                    }
+                });
+                keys.stream().filter(key -> !cached.containsKey(key)).forEach(key -> stillMissed.put(namespace, key));
+                if (!cached.isEmpty()) {
+                    upperCaches.forEach(c -> putAllQuietly(container, c, namespace, hits, absentKeys));
+                }
+            });
+            missedNamespacesAndKeys = stillMissed;
+        }
+        if (missedNamespacesAndKeys.isEmpty()) {
+            return results;
+        }
+
+        // 获取未命中的数据源并写入缓存，获取失败时不缓存
+        Map<String, Map<K, T>> loaded = loader.apply(missedNamespacesAndKeys);
+        if (Objects.isNull(loaded)) {
+            return results;
+        }
+        missedNamespacesAndKeys.asMap().forEach((namespace, keys) -> {
+            Map<K, T> sources = loaded.getOrDefault(namespace, Collections.emptyMap());
+            List<K> absentKeys = keys.stream()
+                .filter(key -> Objects.isNull(sources.get(key)))
+                .collect(Collectors.toList());
+            caches.forEach(c -> putAllQuietly(container, c, namespace, sources, absentKeys));
+            results.computeIfAbsent(namespace, ns -> new HashMap<>(sources.size())).putAll(sources);
+        });
+        return results;
+    }
+
+    /**
+     * 从缓存中获取数据源，若获取失败则视为全部未命中
+     */
+    private static <K, T> Map<K, T> getAllPresentQuietly(Container container, SourceCache<K, T> cache, String namespace, Collection<K> keys) {
+        Map<K, T> cached = ObjectUtils.trySupply(
+            () -> cache.getAllPresent(namespace, keys),
+            e -> log.warn("容器[{}]从缓存[{}]获取数据源失败，命名空间[{}]，错误信息：{}", container.getClass(), cache.getClass(), namespace, e.getMessage())
+        );
+        return Objects.isNull(cached) ? Collections.emptyMap() : cached;
+    }
+
+    /**
+     * 将数据源写入缓存，若写入失败则忽略
+     */
+    private static <K, T> void putAllQuietly(Container container, SourceCache<K, T> cache, String namespace, Map<K, T> sources, Collection<K> absentKeys) {
+        ObjectUtils.tryAction(
+            () -> cache.putAll(namespace, sources, absentKeys),
+            e -> log.warn("容器[{}]向缓存[{}]写入数据源失败，命名空间[{}]，错误信息：{}", container.getClass(), cache.getClass(), namespace, e.getMessage())
+        );
+    }
+
+}
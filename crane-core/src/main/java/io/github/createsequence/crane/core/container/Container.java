@@ -6,6 +6,8 @@ import io.github.createsequence.crane.core.operator.interfaces.Assembler;
 import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
 import io.github.createsequence.crane.core.parser.interfaces.Operation;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * 装配容器
  *
@@ -39,4 +41,18 @@ public interface Container extends Orderly {
      */
     void process(Multimap<AssembleOperation, ?> operations);
 
+    /**
+     * 根据指定装配操作配置处理待处理对象，允许在指定的{@link ForkJoinPool}中并行的完成key值的获取与数据源的写入。<br />
+     * 默认直接调用{@link #process(Multimap)}，实现类应当保证即使并行处理，每次调用时也仅获取一次数据源。
+     *
+     * @param operations 待处理对象与待处理的装配操作配置
+     * @param forkJoinPool 用于并行处理的线程池
+     * @author huangchengxing
+     * @date 2022/7/16 14:20
+     * @see io.github.createsequence.crane.core.executor.ParallelUnorderedOperationExecutor
+     */
+    default void process(Multimap<AssembleOperation, ?> operations, ForkJoinPool forkJoinPool) {
+        process(operations);
+    }
+
 }
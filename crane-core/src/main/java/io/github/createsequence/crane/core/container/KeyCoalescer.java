@@ -0,0 +1,219 @@
+package io.github.createsequence.crane.core.container;
+
+import cn.hutool.core.lang.Assert;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * key合并器，用于将并发调用中对同一命名空间的数据源获取请求合并为一次批量获取
+ *
+ * <p>当线程请求获取某个命名空间的数据源时，若该命名空间不存在正在等待的批次，则创建一个新批次并成为该批次的发起者：
+ * <ul>
+ *     <li>若该命名空间当前没有正在进行的获取，则发起者立刻使用自己的key值获取数据源，不做任何等待；</li>
+ *     <li>否则，在上一次获取完成前，其他线程对该命名空间的请求都将把key值合并到该批次中并等待其完成，
+ *     直到上一次获取完成、批次中的key值数量达到{@link #maxBatchSize}，或等待时间超过{@link #window}时，
+ *     发起者再使用批次中的全部key值获取一次数据源，并将结果返回给所有参与该批次的线程；</li>
+ * </ul>
+ * 因此在没有竞争时不会增加任何延迟，而在竞争激烈时，同一时间内每个命名空间至多只会有少量正在进行的获取。<br />
+ * 每个批次中的key值数量不会超过{@link #maxBatchSize}，超出的key值将被放入下一个批次，
+ * 因此一次请求的key值数量较多时，可能会被拆分为多次获取。
+ *
+ * <p>合并器内部保存了按命名空间划分的批次，因此一个合并器实例只应当被一个容器使用。
+ *
+ * @param <K> key类型
+ * @param <T> 数据源类型
+ * @author huangchengxing
+ * @date 2022/07/20 10:12
+ * @see BaseNamespaceContainer#setKeyCoalescer
+ */
+public class KeyCoalescer<K, T> {
+
+    private final long window;
+    private final int maxBatchSize;
+
+    /**
+     * 正在等待的批次
+     */
+    private final Map<String, Batch<K, T>> waitingBatches = new HashMap<>();
+
+    /**
+     * 最近一个已经结束等待，正在获取数据源的批次
+     */
+    private final Map<String, Batch<K, T>> loadingBatches = new HashMap<>();
+
+    /**
+     * 创建一个key合并器
+     *
+     * @param window 批次的最大等待时间
+     * @param unit 时间单位
+     * @param maxBatchSize 批次的最大key数量
+     */
+    public KeyCoalescer(long window, TimeUnit unit, int maxBatchSize) {
+        Assert.isTrue(window >= 0, "window must not be negative");
+        Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be greater than 0");
+        this.window = unit.toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * 获取数据源，若其他线程正在获取相同命名空间的数据源，则将key值合并到同一批次中一起获取
+     *
+     * @param namespaceAndKeys 命名空间与key值
+     * @param loader 数据源的实际获取方法
+     * @return java.util.Map<java.lang.String,java.util.Map<K,T>>
+     * @author huangchengxing
+     * @date 2022/7/20 10:30
+     */
+    @Nonnull
+    public Map<String, Map<K, T>> getSources(
+        @Nonnull Multimap<String, K> namespaceAndKeys,
+        @Nonnull Function<Multimap<String, K>, Map<String, Map<K, T>>> loader) {
+        Map<String, List<Batch<K, T>>> joinedBatches = new HashMap<>(namespaceAndKeys.keySet().size());
+        Map<String, List<Batch<K, T>>> ownBatches = new LinkedHashMap<>();
+        synchronized (waitingBatches) {
+            namespaceAndKeys.asMap().forEach((namespace, keys) -> {
+                List<Batch<K, T>> joined = joinedBatches.computeIfAbsent(namespace, ns -> new ArrayList<>(1));
+                Iterator<K> iterator = keys.iterator();
+                while (iterator.hasNext()) {
+                    Batch<K, T> batch = waitingBatches.get(namespace);
+                    if (Objects.isNull(batch)) {
+                        batch = new Batch<>(namespace, System.nanoTime() + window, loadingBatches.get(namespace));
+                        waitingBatches.put(namespace, batch);
+                        ownBatches.computeIfAbsent(namespace, ns -> new ArrayList<>(1)).add(batch);
+                    }
+                    // 批次已满时，剩余的key值将放入下一个批次
+                    while (iterator.hasNext() && batch.keys.size() < maxBatchSize) {
+                        batch.keys.add(iterator.next());
+                    }
+                    // 没有正在进行的获取时不必等待
+                    if (batch.keys.size() >= maxBatchSize || Objects.isNull(batch.previous)) {
+                        close(batch);
+                    }
+                    joined.add(batch);
+                }
+            });
+        }
+        // 每次获取中，每个命名空间至多包含一个批次
+        for (List<Batch<K, T>> round = poll(ownBatches); !round.isEmpty(); round = poll(ownBatches)) {
+            load(round, loader);
+        }
+
+        Map<String, Map<K, T>> results = new HashMap<>(joinedBatches.size());
+        joinedBatches.forEach((namespace, batches) -> {
+            if (batches.size() == 1) {
+                results.put(namespace, batches.get(0).result.join());
+                return;
+            }
+            Map<K, T> sources = new HashMap<>();
+            batches.forEach(batch -> sources.putAll(batch.result.join()));
+            results.put(namespace, sources);
+        });
+        return results;
+    }
+
+    /**
+     * 从每个命名空间中各取出一个批次
+     */
+    private List<Batch<K, T>> poll(Map<String, List<Batch<K, T>>> batches) {
+        List<Batch<K, T>> round = new ArrayList<>(batches.size());
+        batches.values().forEach(namespaceBatches -> {
+            if (!namespaceBatches.isEmpty()) {
+                round.add(namespaceBatches.remove(0));
+            }
+        });
+        return round;
+    }
+
+    /**
+     * 结束批次的等待，此后的请求将加入新的批次
+     */
+    private void close(Batch<K, T> batch) {
+        if (batch.closed) {
+            return;
+        }
+        batch.closed = true;
+        batch.previous = null;
+        waitingBatches.remove(batch.namespace, batch);
+        loadingBatches.put(batch.namespace, batch);
+        batch.ready.complete(null);
+    }
+
+    /**
+     * 等待发起的批次结束，然后一次性获取这些批次的数据源
+     */
+    private void load(List<Batch<K, T>> batches, Function<Multimap<String, K>, Map<String, Map<K, T>>> loader) {
+        for (Batch<K, T> batch : batches) {
+            awaitQuietly(batch);
+            synchronized (waitingBatches) {
+                close(batch);
+            }
+        }
+        Multimap<String, K> namespaceAndKeys = HashMultimap.create();
+        batches.forEach(batch -> namespaceAndKeys.putAll(batch.namespace, batch.keys));
+        try {
+            Map<String, Map<K, T>> sources = loader.apply(namespaceAndKeys);
+            batches.forEach(batch -> batch.result.complete(
+                Objects.isNull(sources) ? Collections.emptyMap() : sources.getOrDefault(batch.namespace, Collections.emptyMap())
+            ));
+        } catch (Throwable ex) {
+            batches.forEach(batch -> batch.result.completeExceptionally(ex));
+        } finally {
+            synchronized (waitingBatches) {
+                batches.forEach(batch -> loadingBatches.remove(batch.namespace, batch));
+            }
+        }
+    }
+
+    /**
+     * 等待批次结束，直到上一次获取完成、批次已满或超过等待时间
+     */
+    private static void awaitQuietly(Batch<?, ?> batch) {
+        Batch<?, ?> previous = batch.previous;
+        long remaining = batch.deadline - System.nanoTime();
+        if (Objects.isNull(previous) || remaining <= 0) {
+            return;
+        }
+        try {
+            CompletableFuture.anyOf(batch.ready, previous.result).get(remaining, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            // 被中断时立刻获取数据源，保证其他参与该批次的线程不会一直等待
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            // 上一次获取失败或等待超时，立刻获取数据源
+        }
+    }
+
+    /**
+     * 一个命名空间下等待合并获取的key值
+     */
+    private static class Batch<K, T> {
+
+        private final String namespace;
+        private final long deadline;
+        private final Set<K> keys = new LinkedHashSet<>();
+
+        /**
+         * 创建批次时正在进行的获取，批次结束等待后即被清空
+         */
+        private volatile Batch<K, T> previous;
+        private final CompletableFuture<Void> ready = new CompletableFuture<>();
+        private final CompletableFuture<Map<K, T>> result = new CompletableFuture<>();
+        private boolean closed;
+
+        Batch(String namespace, long deadline, Batch<K, T> previous) {
+            this.namespace = namespace;
+            this.deadline = deadline;
+            this.previous = previous;
+        }
+
+    }
+
+}
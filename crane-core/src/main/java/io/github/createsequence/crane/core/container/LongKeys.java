@@ -0,0 +1,207 @@
+package io.github.createsequence.crane.core.container;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.text.CharSequenceUtil;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.helper.LongObjectHashMap;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 一次处理中读取的全部long类型key值，供{@link BaseLongKeyContainer}与{@link BaseLongNamespaceContainer}使用。<br />
+ * 每个待处理对象的key值仅会被读取一次，并按下标记录，以便写入数据源时复用。
+ *
+ * <p>key值需要能够无损地转为long类型，带有小数部分或超出long范围的数字，
+ * 以及无法解析为整数的字符串，都将被视为无效的key值，对应的待处理对象不会被装配。
+ *
+ * @author huangchengxing
+ * @date 2022/07/23 15:00
+ */
+class LongKeys {
+
+    private final List<Map.Entry<AssembleOperation, ?>> entries;
+    private final long[] keys;
+    private final boolean[] present;
+
+    private LongKeys(Multimap<AssembleOperation, ?> operations) {
+        this.entries = new ArrayList<>(operations.entries());
+        this.keys = new long[entries.size()];
+        this.present = new boolean[keys.length];
+    }
+
+    /**
+     * 读取全部待处理对象的key值
+     *
+     * @param operations 操作与待处理对象
+     * @return key值
+     */
+    static LongKeys read(Multimap<AssembleOperation, ?> operations) {
+        LongKeys results = new LongKeys(operations);
+        for (int i = 0; i < results.keys.length; i++) {
+            results.read(i);
+        }
+        return results;
+    }
+
+    /**
+     * 并行读取全部待处理对象的key值
+     *
+     * @param operations 操作与待处理对象
+     * @param forkJoinPool 线程池
+     * @return key值
+     */
+    static LongKeys read(Multimap<AssembleOperation, ?> operations, ForkJoinPool forkJoinPool) {
+        LongKeys results = new LongKeys(operations);
+        forkJoinPool.submit(() -> IntStream.range(0, results.keys.length).parallel().forEach(results::read)).join();
+        return results;
+    }
+
+    /**
+     * 获取有效且不重复的key值
+     *
+     * @return 排序后的不重复key值
+     */
+    long[] distinct() {
+        long[] validKeys = new long[keys.length];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (present[i]) {
+                validKeys[count++] = keys[i];
+            }
+        }
+        return LongObjectHashMap.distinct(validKeys, count);
+    }
+
+    /**
+     * 按命名空间对有效的key值分组并去重
+     *
+     * @return 命名空间与排序后的不重复key值
+     */
+    Map<String, long[]> distinctByNamespace() {
+        Map<String, KeyBuffer> buffers = new HashMap<>(4);
+        for (int i = 0; i < keys.length; i++) {
+            if (present[i]) {
+                buffers.computeIfAbsent(entries.get(i).getKey().getNamespace(), n -> new KeyBuffer()).add(keys[i]);
+            }
+        }
+        Map<String, long[]> results = new HashMap<>(buffers.size());
+        buffers.forEach((namespace, buffer) -> results.put(namespace, LongObjectHashMap.distinct(buffer.keys, buffer.size)));
+        return results;
+    }
+
+    /**
+     * 遍历全部具有有效key值的待处理对象
+     *
+     * @param consumer 待处理对象、装配配置与key值
+     */
+    void forEach(KeyConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (present[i]) {
+                consumer.accept(entries.get(i).getValue(), entries.get(i).getKey(), keys[i]);
+            }
+        }
+    }
+
+    /**
+     * 并行遍历全部具有有效key值的待处理对象
+     *
+     * @param consumer 待处理对象、装配配置与key值
+     * @param forkJoinPool 线程池
+     */
+    void forEach(KeyConsumer consumer, ForkJoinPool forkJoinPool) {
+        forkJoinPool.submit(() -> IntStream.range(0, keys.length).parallel()
+            .filter(i -> present[i])
+            .forEach(i -> consumer.accept(entries.get(i).getValue(), entries.get(i).getKey(), keys[i]))
+        ).join();
+    }
+
+    private void read(int index) {
+        AssembleOperation operation = entries.get(index).getKey();
+        Object key = operation.getAssembler().getKey(entries.get(index).getValue(), operation);
+        // 绝大多数情况下key值本身就是整数，此时直接拆箱，避免经过类型转换器
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            keys[index] = ((Number) key).longValue();
+            present[index] = true;
+            return;
+        }
+        Long actualKey = parse(key);
+        if (Objects.nonNull(actualKey)) {
+            keys[index] = actualKey;
+            present[index] = true;
+        }
+    }
+
+    @Nullable
+    private static Long parse(@Nullable Object key) {
+        if (Objects.isNull(key)) {
+            return null;
+        }
+        if (key instanceof Number) {
+            BigDecimal decimal = toDecimal(key.toString());
+            return Objects.isNull(decimal) ? null : toLongExact(decimal);
+        }
+        if (key instanceof CharSequence) {
+            String str = CharSequenceUtil.trim((CharSequence) key);
+            if (CharSequenceUtil.isEmpty(str)) {
+                return null;
+            }
+            try {
+                return Long.parseLong(str);
+            } catch (NumberFormatException e) {
+                // 不是十进制数字时交由类型转换器处理
+                BigDecimal decimal = toDecimal(str);
+                return Objects.isNull(decimal) ? Convert.toLong(str, null) : toLongExact(decimal);
+            }
+        }
+        return Convert.toLong(key, null);
+    }
+
+    @Nullable
+    private static BigDecimal toDecimal(String str) {
+        try {
+            return new BigDecimal(str);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 带有小数部分或超出long范围时返回null
+     */
+    @Nullable
+    private static Long toLongExact(BigDecimal decimal) {
+        try {
+            return decimal.longValueExact();
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 待处理对象、装配配置与key值的消费者
+     */
+    @FunctionalInterface
+    interface KeyConsumer {
+        void accept(Object target, AssembleOperation operation, long key);
+    }
+
+    /**
+     * 按命名空间收集key值的缓冲区
+     */
+    private static class KeyBuffer {
+        private long[] keys = new long[16];
+        private int size;
+        void add(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size << 1);
+            }
+            keys[size++] = key;
+        }
+    }
+
+}
@@ -15,6 +15,7 @@ import io.github.createsequence.crane.core.helper.reflex.AsmReflexUtils;
 import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.core.annotation.AnnotatedElementUtils;
@@ -25,7 +26,15 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -49,6 +58,19 @@ import java.util.stream.Stream;
  * 当出现复数数据源对一个key值时将会抛出异常。此时装配器根据key获得到的值为数据源对象本身。<br />
  * 当指定为{@link MappingType#ONE_TO_MORE}时，容器将按key分组，此时装配器根据key获得到的值为数据源对象集合。
  *
+ * <p>若{@link MethodSourceBean.Method#batchSize()}大于0，则key数量超过该值时，将按该值拆分为多批分别调用方法，
+ * 若{@link MethodSourceBean.Method#parallel()}为true，则各批次将通过{@link #setExecutor}指定的线程池并行调用，
+ * 未指定线程池时仍依次调用。由于方法通常会进行数据库查询或远程调用等阻塞操作，因此不会使用{@link ForkJoinPool#commonPool()}。
+ *
+ * <p>若通过{@link #setExecutor}指定了线程池，则一次获取多个命名空间的数据源时，各命名空间对应的方法也将并行调用，
+ * 未指定线程池时则按命名空间依次调用。<br />
+ * 并行调用时，当前线程不会直接等待提交到线程池的任务，而是先执行其中尚未被线程池开始执行的任务，仅等待已经开始执行的任务。
+ * 因此即使线程池中的线程都已被占用，或当前线程本身就是该线程池中的线程
+ * （比如同一个线程池也被用于{@link io.github.createsequence.crane.core.executor.AsyncUnorderedOperationExecutor}），
+ * 也不会因等待排队中的任务而死锁，此时各任务将退化为在当前线程中依次调用。<br />
+ * 任意命名空间或批次调用失败时，将抛出该异常，尚未开始执行的任务将不再执行，
+ * 但已经开始执行的方法调用不会被中断，而是继续执行至完成，其结果将被丢弃。
+ *
  * @author huangchengxing
  * @date 2022/03/31 21:40
  * @see MethodSourceBean
@@ -61,6 +83,13 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
     public final Map<String, MethodSource> methodCache = new HashMap<>();
     private final BeanPropertyFactory beanPropertyFactory;
 
+    /**
+     * 用于并行调用方法的线程池，为空时按命名空间与批次依次调用方法
+     */
+    @Setter
+    @Nullable
+    private volatile Executor executor;
+
     /**
      * 注销已注册方法数据源
      *
@@ -108,6 +137,25 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
     public void registerMethod(
         Object target, Method targetMethod, String namespace,
         Class<?> sourceType, String sourceKey, MappingType mappingType) {
+        registerMethod(target, targetMethod, namespace, sourceType, sourceKey, mappingType, 0, false);
+    }
+
+    /**
+     * 注册方法数据源
+     *
+     * @param target 方法数据源
+     * @param targetMethod 调用的方法
+     * @param namespace 命名空间
+     * @param sourceType 数据源对象类型
+     * @param sourceKey 数据源key字段
+     * @param mappingType 数据映射类型
+     * @param batchSize 单次调用方法时传入的最大key数量，小于等于0时不拆分
+     * @param parallel 拆分为多批调用方法时，是否并行调用
+     * @since 0.6.1
+     */
+    public void registerMethod(
+        Object target, Method targetMethod, String namespace,
+        Class<?> sourceType, String sourceKey, MappingType mappingType, int batchSize, boolean parallel) {
         // 非空校验
         Assert.notNull(target, "target must not null");
         Assert.notNull(targetMethod, "targetMethod must not null");
@@ -117,7 +165,7 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
         Assert.notNull(mappingType, "mappingType must not null");
         // 注册
         Class<?> targetClass = target.getClass();
-        registerSource(target, targetClass, targetMethod, namespace, sourceType, sourceKey, mappingType);
+        registerSource(target, targetClass, targetMethod, namespace, sourceType, sourceKey, mappingType, batchSize, parallel);
     }
 
     /**
@@ -132,6 +180,24 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
     public <S> void registerMethod(
         Function<Collection<?>, Collection<? extends S>> targetMethod,
         String namespace, Class<S> sourceType, String sourceKey, MappingType mappingType) {
+        registerMethod(targetMethod, namespace, sourceType, sourceKey, mappingType, 0, false);
+    }
+
+    /**
+     * 注册lambda表达式作为方法数据源
+     *
+     * @param targetMethod 表达式
+     * @param namespace 命名空间
+     * @param sourceType 数据源对象类型
+     * @param sourceKey 数据源key字段
+     * @param mappingType 数据映射类型
+     * @param batchSize 单次调用表达式时传入的最大key数量，小于等于0时不拆分
+     * @param parallel 拆分为多批调用表达式时，是否并行调用
+     * @since 0.6.1
+     */
+    public <S> void registerMethod(
+        Function<Collection<?>, Collection<? extends S>> targetMethod,
+        String namespace, Class<S> sourceType, String sourceKey, MappingType mappingType, int batchSize, boolean parallel) {
         // 非空校验
         Assert.notNull(targetMethod, "targetMethod must not null");
         Assert.notNull(namespace, "namespace must not null");
@@ -145,7 +211,7 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
         };
         beanPropertyFactory.getProperty(sourceType, sourceKey)
             .ifPresent(property -> {
-                MethodSource cache = MethodSource.fromLambda(mappingType, namespace, lambdaInvoker, property);
+                MethodSource cache = MethodSource.fromLambda(mappingType, namespace, lambdaInvoker, property, batchSize, parallel);
                 methodCache.put(namespace, cache);
                 log.info("注册数据源方法[{}]: {}, 映射类型：[{}]", namespace, targetMethod, mappingType.name());
             });
@@ -157,14 +223,14 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
     private void registerSource(
         Object target, Class<?> targetClass, Method targetMethod,
         String namespace,
-        Class<?> sourceType, String sourceKey, MappingType mappingType) {
+        Class<?> sourceType, String sourceKey, MappingType mappingType, int batchSize, boolean parallel) {
         checkMethod(targetMethod, namespace);
         beanPropertyFactory.getProperty(sourceType, sourceKey)
             .ifPresent(property -> {
                 MethodSource cache = MethodSource.fromMethodObject(
                     mappingType, target, namespace,
                     AsmReflexUtils.findMethod(targetClass, targetMethod, true), property,
-                    targetMethod.getParameterTypes().length == 0
+                    targetMethod.getParameterTypes().length == 0, batchSize, parallel
                 );
                 methodCache.put(namespace, cache);
                 log.info("注册数据源方法[{}]: {}, 映射类型：[{}]", namespace, targetMethod.getName(), mappingType.name());
@@ -190,19 +256,103 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
     @Nonnull
     @Override
     protected Map<String, Map<Object, Object>> getSources(@Nonnull Multimap<String, Object> namespaceAndKeys) {
-        Map<String, Map<Object, Object>> results = new HashMap<>(namespaceAndKeys.size());
+        List<Map.Entry<MethodSource, Collection<Object>>> methodAndKeys = new ArrayList<>(namespaceAndKeys.keySet().size());
         namespaceAndKeys.asMap().forEach((namespace, keys) -> {
             MethodSource method = methodCache.get(namespace);
-            if (Objects.isNull(method)) {
+            if (Objects.nonNull(method)) {
+                methodAndKeys.add(new AbstractMap.SimpleImmutableEntry<>(method, keys));
+            }
+        });
+        Executor currentExecutor = executor;
+        if (Objects.isNull(currentExecutor) || methodAndKeys.size() < 2) {
+            Map<String, Map<Object, Object>> results = new HashMap<>(methodAndKeys.size());
+            methodAndKeys.forEach(e -> getSources(e.getKey(), e.getValue(), currentExecutor, results));
+            return results;
+        }
+
+        // 并行调用各命名空间的方法
+        Map<String, Map<Object, Object>> results = new ConcurrentHashMap<>(methodAndKeys.size());
+        List<Supplier<Void>> tasks = methodAndKeys.stream()
+            .map(e -> (Supplier<Void>) () -> {
+                getSources(e.getKey(), e.getValue(), currentExecutor, results);
+                return null;
+            })
+            .collect(Collectors.toList());
+        invokeAll(tasks, currentExecutor);
+        return results;
+    }
+
+    /**
+     * 调用方法获取数据源，并按key值分组后放入结果集
+     */
+    private static void getSources(
+        MethodSource method, Collection<Object> keys, @Nullable Executor executor, Map<String, Map<Object, Object>> results) {
+        Collection<Object> sources = method.getSources(keys, executor);
+        if (CollUtil.isNotEmpty(sources)) {
+            results.put(method.getNamespace(), method.getMappingType().mapping(sources, method::getSourceKeyPropertyValue));
+        }
+    }
+
+    /**
+     * 并行执行任务并按顺序返回结果。<br />
+     * 除第一个任务外的任务都将被提交到线程池，然后由当前线程依次执行尚未被线程池开始执行的任务，
+     * 最后仅等待已经在线程池中开始执行的任务完成，因此不会因线程池中的线程不足而死锁。<br />
+     * 若有任务执行失败，则尚未开始执行的任务将不再执行，已经开始执行的任务不会被中断，然后抛出该异常
+     */
+    private static <T> List<T> invokeAll(List<Supplier<T>> suppliers, Executor executor) {
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        List<ClaimableTask<T>> tasks = suppliers.stream()
+            .map(supplier -> new ClaimableTask<>(supplier, failure))
+            .collect(Collectors.toList());
+        for (int i = 1; i < tasks.size(); i++) {
+            try {
+                executor.execute(tasks.get(i));
+            } catch (RejectedExecutionException e) {
+                // 线程池拒绝的任务由当前线程执行
+                break;
+            }
+        }
+        tasks.forEach(ClaimableTask::run);
+
+        // 等待全部任务完成，或任意任务失败
+        CompletableFuture<?>[] results = tasks.stream().map(task -> task.result).toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(results), failure).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        return tasks.stream().map(task -> task.result.join()).collect(Collectors.toList());
+    }
+
+    /**
+     * 仅会被执行一次的任务，由提交任务的线程或线程池中的线程中先获取到该任务的一方执行，
+     * 若执行前已有其他任务失败，则不再执行
+     */
+    @RequiredArgsConstructor
+    private static class ClaimableTask<T> implements Runnable {
+
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Supplier<T> supplier;
+        private final CompletableFuture<Void> failure;
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
                 return;
             }
-            Collection<Object> sources = method.getSources(keys);
-            if (CollUtil.isEmpty(sources)) {
+            if (failure.isDone()) {
+                result.cancel(false);
                 return;
             }
-            results.put(namespace, method.getMappingType().mapping(sources, method::getSourceKeyPropertyValue));
-        });
-        return results;
+            try {
+                result.complete(supplier.get());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+                failure.completeExceptionally(e);
+            }
+        }
+
     }
 
     /**
@@ -221,18 +371,55 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
         private final MethodInvoker methodInvoker;
         private final BeanProperty sourceKeyProperty;
         private final boolean isNotArgMethod;
+        @Getter
+        private final int batchSize;
+        @Getter
+        private final boolean parallel;
 
-        static MethodSource fromLambda(MappingType mappingType, String namespace, MethodInvoker invoker, BeanProperty property) {
-            return new MethodSource(mappingType, null, namespace, invoker, property, false);
+        static MethodSource fromLambda(
+            MappingType mappingType, String namespace, MethodInvoker invoker, BeanProperty property, int batchSize, boolean parallel) {
+            return new MethodSource(mappingType, null, namespace, invoker, property, false, batchSize, parallel);
         }
 
         static MethodSource fromMethodObject(
-            MappingType mappingType, Object target, String namespace, MethodInvoker invoker, BeanProperty property, boolean isNotArgMethod) {
-            return new MethodSource(mappingType, target, namespace, invoker, property, isNotArgMethod);
+            MappingType mappingType, Object target, String namespace, MethodInvoker invoker, BeanProperty property,
+            boolean isNotArgMethod, int batchSize, boolean parallel) {
+            return new MethodSource(mappingType, target, namespace, invoker, property, isNotArgMethod, batchSize, parallel);
         }
 
-        @SuppressWarnings("unchecked")
         public Collection<Object> getSources(Collection<Object> keys) {
+            return getSources(keys, null);
+        }
+
+        /**
+         * 调用方法获取数据源，若key数量超过{@link #batchSize}，则拆分为多批分别调用
+         *
+         * @param keys key值
+         * @param executor 并行调用时使用的线程池，为空时依次调用各批次
+         * @return java.util.Collection<java.lang.Object>
+         * @author huangchengxing
+         * @date 2022/7/26 10:20
+         */
+        public Collection<Object> getSources(Collection<Object> keys, @Nullable Executor executor) {
+            if (isNotArgMethod || batchSize <= 0 || keys.size() <= batchSize) {
+                return invoke(keys);
+            }
+            List<List<Object>> batches = CollUtil.split(keys, batchSize);
+            if (!parallel || Objects.isNull(executor)) {
+                List<Object> results = new ArrayList<>();
+                batches.forEach(batch -> CollUtil.addAll(results, invoke(batch)));
+                return results;
+            }
+            List<Supplier<Collection<Object>>> tasks = batches.stream()
+                .map(batch -> (Supplier<Collection<Object>>) () -> invoke(batch))
+                .collect(Collectors.toList());
+            List<Object> results = new ArrayList<>();
+            invokeAll(tasks, executor).forEach(sources -> CollUtil.addAll(results, sources));
+            return results;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Collection<Object> invoke(Collection<Object> keys) {
             Object result = isNotArgMethod ?
                 methodInvoker.invoke(target) : methodInvoker.invoke(target, keys);
             return (Collection<Object>)result;
@@ -299,7 +486,8 @@ public class MethodSourceContainer extends BaseNamespaceContainer<Object, Object
             container.registerMethod(
                 target, method,
                 annotation.namespace(),
-                annotation.sourceType(), annotation.sourceKey(), annotation.mappingType()
+                annotation.sourceType(), annotation.sourceKey(), annotation.mappingType(),
+                annotation.batchSize(), annotation.parallel()
             );
         }
 
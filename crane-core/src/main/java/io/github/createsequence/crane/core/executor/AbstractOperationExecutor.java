@@ -10,10 +10,10 @@ import io.github.createsequence.crane.core.parser.interfaces.OperationConfigurat
 import org.springframework.util.CollectionUtils;
 
 import javax.annotation.Nonnull;
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -21,6 +21,7 @@ import java.util.stream.StreamSupport;
  * 抽象操作执行器
  *
  * <p>{@link OperationExecutor}初步实现，提供基本的装配与装卸操作的收集处理。
+ * 每个类操作配置在指定操作组下对应的执行计划{@link ExecutionPlan}仅会编译一次，并被缓存以便重复使用。
  * 实现类必须实现{@link #execute(GlobalConfiguration, MultiValueTableMap)}方法
  *
  * @author huangchengxing
@@ -28,32 +29,111 @@ import java.util.stream.StreamSupport;
  */
 public abstract class AbstractOperationExecutor implements OperationExecutor {
 
+    /**
+     * 执行计划缓存，key为类操作配置与操作组
+     */
+    private final PlanCache<OperationConfiguration, ExecutionPlan> planCache;
+
+    protected AbstractOperationExecutor() {
+        this(PlanCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    protected AbstractOperationExecutor(int maximumPlanCacheSize) {
+        this.planCache = new PlanCache<>(maximumPlanCacheSize);
+    }
+
     @Override
     public void execute(Iterable<?> targets, OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations = collectOperations(targets, configuration, groups);
+        if (Objects.nonNull(pendingOperations)) {
+            execute(configuration.getGlobalConfiguration(), pendingOperations);
+        }
+    }
+
+    @Override
+    public CompletionStage<Void> executeAsync(Iterable<?> targets, OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        return CompletableFuture.supplyAsync(() -> collectOperations(targets, configuration, groups), Runnable::run)
+            .thenCompose(pendingOperations -> Objects.isNull(pendingOperations) ?
+                CompletableFuture.completedFuture(null) : executeAsync(configuration.getGlobalConfiguration(), pendingOperations)
+            );
+    }
+
+    @Nullable
+    private MultiValueTableMap<Container, AssembleOperation, Object> collectOperations(
+        Iterable<?> targets, OperationConfiguration configuration, Set<Class<?>> groups) {
         if (CollUtil.isEmpty(targets) || Objects.isNull(configuration) || CollUtil.isEmpty(groups)) {
-            return;
+            return null;
         }
         List<Object> targetsList = StreamSupport.stream(targets.spliterator(), false)
             .collect(Collectors.toList());
         // 分组收集待进行的操作配置
+        return collectOperations(targetsList, getExecutionPlan(configuration, groups));
+    }
+
+    /**
+     * 获取类操作配置在指定操作组下的执行计划，若缓存中不存在，则先编译并缓存
+     *
+     * @param configuration 类操作配置
+     * @param groups 操作组
+     * @return io.github.createsequence.crane.core.executor.ExecutionPlan
+     * @author huangchengxing
+     * @date 2022/7/15 11:02
+     */
+    @Nonnull
+    protected ExecutionPlan getExecutionPlan(@Nonnull OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        return planCache.get(configuration, groups, ExecutionPlan::compile);
+    }
+
+    /**
+     * 根据执行计划，收集待处理对象及其嵌套对象上需要进行的装配操作
+     *
+     * @param targets 待处理对象
+     * @param plan 执行计划
+     * @return io.github.createsequence.crane.core.helper.MultiValueTableMap<io.github.createsequence.crane.core.container.Container,io.github.createsequence.crane.core.parser.interfaces.AssembleOperation,java.lang.Object>
+     * @author huangchengxing
+     * @date 2022/7/16 15:02
+     */
+    @Nonnull
+    protected MultiValueTableMap<Container, AssembleOperation, Object> collectOperations(
+        @Nonnull List<Object> targets, @Nonnull ExecutionPlan plan) {
         MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations = new MultiValueTableMap<>();
-        collectOperations(targetsList, configuration, groups, pendingOperations);
-        // 执行
-        execute(configuration.getGlobalConfiguration(), pendingOperations);
+        collectOperations(targets, plan, pendingOperations, new HashMap<>());
+        return pendingOperations;
     }
 
-    private void collectOperations(
-        Collection<Object> targets,
-        OperationConfiguration configuration,
-        Set<Class<?>> targetGroups,
-        MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
-        if (CollectionUtils.isEmpty(targets)) {
+    /**
+     * 根据执行计划，收集待处理对象及其嵌套对象上需要进行的装配操作。<br />
+     * 同一对象实例在同一类操作配置下仅会被收集一次，因此被大量引用的嵌套对象只需读取key与写入数据一次，
+     * 且对象间存在循环引用时也不会无限递归。
+     *
+     * @param targets 待处理对象
+     * @param plan 执行计划
+     * @param pendingOperations 待执行操作
+     * @param visitedTargets 各类操作配置下已经收集过的对象
+     * @author huangchengxing
+     * @date 2022/7/16 15:02
+     */
+    protected void collectOperations(
+        @Nonnull Collection<Object> targets, @Nonnull ExecutionPlan plan,
+        @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations,
+        @Nonnull Map<OperationConfiguration, Set<Object>> visitedTargets) {
+        if (CollectionUtils.isEmpty(targets) || plan.isEmpty()) {
+            return;
+        }
+        // 按引用去重，跳过已经收集过的对象
+        Set<Object> visited = visitedTargets.computeIfAbsent(
+            plan.getConfiguration(), c -> Collections.newSetFromMap(new IdentityHashMap<>())
+        );
+        List<Object> unvisitedTargets = targets.stream()
+            .filter(visited::add)
+            .collect(Collectors.toList());
+        if (unvisitedTargets.isEmpty()) {
             return;
         }
         // 处理普通待装配字段
-        processAssembleOperations(targets, configuration, targetGroups, pendingOperations);
+        processAssembleOperations(unvisitedTargets, plan, pendingOperations);
         // 处理待装卸的嵌套字段
-        processDisassembleOperations(targets, configuration, targetGroups, pendingOperations);
+        processDisassembleOperations(unvisitedTargets, plan, pendingOperations, visitedTargets);
     }
 
     /**
@@ -66,52 +146,101 @@ public abstract class AbstractOperationExecutor implements OperationExecutor {
      */
     protected abstract void execute(@Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations);
 
+    /**
+     * 异步执行操作，默认在当前线程中同步执行{@link #execute(GlobalConfiguration, MultiValueTableMap)}
+     *
+     * @param globalConfiguration 全局配置
+     * @param pendingOperations 待执行的操作
+     * @return java.util.concurrent.CompletionStage<java.lang.Void>
+     * @author huangchengxing
+     * @date 2022/7/18 9:52
+     */
+    protected CompletionStage<Void> executeAsync(
+        @Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        return CompletableFuture.runAsync(() -> execute(globalConfiguration, pendingOperations), Runnable::run);
+    }
+
     /**
      * 处理装配操作
      *
      * @param targets 待处理对象
-     * @param configuration 配置类型
+     * @param plan 执行计划
      * @param pendingOperations 待执行操作
      * @author huangchengxing
      * @date 2022/4/17 20:38
      */
     protected void processAssembleOperations(
-        @Nonnull Collection<Object> targets,
-        @Nonnull OperationConfiguration configuration, Set<Class<?>> targetGroups,
+        @Nonnull Collection<Object> targets, @Nonnull ExecutionPlan plan,
         @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
-
-        List<AssembleOperation> operations = configuration.getAssembleOperations();
-        if (CollectionUtils.isEmpty(operations)) {
-            return;
-        }
-        operations.stream()
-            .filter(op -> CollUtil.containsAny(targetGroups, op.getGroups()))
-            .forEach(op -> pendingOperations.putValAll(op.getContainer(), op, targets));
+        plan.getAssembleOperations().forEach((container, operations) -> operations
+            .forEach(op -> pendingOperations.putValAll(container, op, targets))
+        );
     }
 
     /**
      * 处理装卸操作
      *
      * @param targets 待处理对象
-     * @param configuration 配置类型
+     * @param plan 执行计划
      * @param pendingOperations 待执行操作
+     * @param visitedTargets 各类操作配置下已经收集过的对象
      * @author huangchengxing
      * @date 2022/4/17 20:37
      */
     protected void processDisassembleOperations(
-        @Nonnull Collection<?> targets,
-        @Nonnull OperationConfiguration configuration,
-        Set<Class<?>> targetGroups,
-        @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        @Nonnull Collection<?> targets, @Nonnull ExecutionPlan plan,
+        @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations,
+        @Nonnull Map<OperationConfiguration, Set<Object>> visitedTargets) {
+        processDisassembleSteps(targets, plan.getDisassembleSteps(), plan.getGroups(), pendingOperations, visitedTargets);
+    }
 
-        List<DisassembleOperation> disassembleOperations = configuration.getDisassembleOperations();
-        if (CollectionUtils.isEmpty(disassembleOperations)) {
-            return;
+    /**
+     * 按指定的装卸步骤处理装卸操作
+     *
+     * @param targets 待处理对象
+     * @param steps 装卸步骤
+     * @param groups 操作组
+     * @param pendingOperations 待执行操作
+     * @param visitedTargets 各类操作配置下已经收集过的对象
+     * @author huangchengxing
+     * @date 2022/7/21 16:20
+     */
+    protected void processDisassembleSteps(
+        @Nonnull Collection<?> targets, @Nonnull Collection<ExecutionPlan.DisassembleStep> steps, @Nonnull Set<Class<?>> groups,
+        @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations,
+        @Nonnull Map<OperationConfiguration, Set<Object>> visitedTargets) {
+        for (ExecutionPlan.DisassembleStep step : steps) {
+            // 动态装卸操作需要根据实际获得的对象确定执行计划
+            if (step.isDynamic()) {
+                DisassembleOperation.collect(step.getOperation(), targets).asMap().forEach((config, values) ->
+                    collectOperations(values, getExecutionPlan(config, groups), pendingOperations, visitedTargets)
+                );
+                continue;
+            }
+            List<Object> values = disassemble(targets, step.getOperation());
+            collectOperations(values, step.getTargetPlan(), pendingOperations, visitedTargets);
         }
-        for (DisassembleOperation operation : disassembleOperations) {
-            DisassembleOperation.collect(operation, targets).asMap()
-                .forEach((config, values) -> collectOperations(values, config, targetGroups, pendingOperations));
+    }
+
+    /**
+     * 根据装卸操作，获取待处理对象中需要装卸的嵌套对象
+     *
+     * @param targets 待处理对象
+     * @param operation 装卸操作
+     * @return java.util.List<java.lang.Object>
+     * @author huangchengxing
+     * @date 2022/7/21 14:10
+     */
+    @Nonnull
+    protected List<Object> disassemble(@Nonnull Collection<?> targets, @Nonnull DisassembleOperation operation) {
+        List<Object> values = new ArrayList<>();
+        for (Object target : targets) {
+            Collection<?> disassembled = operation.getDisassembler().execute(target, operation);
+            if (CollUtil.isNotEmpty(disassembled)) {
+                values.addAll(disassembled);
+            }
         }
+        return values;
     }
 
 }
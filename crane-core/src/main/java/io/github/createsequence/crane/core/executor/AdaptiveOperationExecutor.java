@@ -0,0 +1,163 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.lang.Assert;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.cache.SourceScope;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.helper.MultiValueTableMap;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>自适应的无序{@link OperationExecutor}实现。
+ *
+ * <p>执行器会记录每个容器最近的处理耗时与处理的操作数量，并在每次执行前据此估算本次各容器的耗时：
+ * <ul>
+ *     <li>若仅需访问一个容器，或估算的并行收益，即全部容器耗时之和减去其中最大者，小于{@link #parallelThresholdNanos}，
+ *     则与{@link UnorderedOperationExecutor}一样直接在当前线程中依次处理；</li>
+ *     <li>否则与{@link AsyncUnorderedOperationExecutor}一样，将各容器的处理任务提交到线程池中并行处理；</li>
+ * </ul>
+ * 因此，对于仅访问内存中数据的枚举或键值容器等耗时很低的情况，可以避免切换线程带来的额外开销，
+ * 而对于需要访问远程数据源的情况，又可以通过并行处理减少总耗时。<br />
+ * 从未处理过的容器估算耗时为0，因此首次执行时总是在当前线程中处理。
+ *
+ * @author huangchengxing
+ * @date 2022/07/19 15:30
+ * @see UnorderedOperationExecutor
+ * @see AsyncUnorderedOperationExecutor
+ */
+public class AdaptiveOperationExecutor extends AbstractOperationExecutor {
+
+    /**
+     * 默认的并行处理阈值
+     */
+    public static final long DEFAULT_PARALLEL_THRESHOLD_MICROS = 200L;
+
+    private final ExecutorService executorService;
+    private final long parallelThresholdNanos;
+    private final Map<Container, LatencyStatistics> statistics = new ConcurrentHashMap<>();
+
+    public AdaptiveOperationExecutor(ExecutorService executorService) {
+        this(executorService, DEFAULT_PARALLEL_THRESHOLD_MICROS, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * 创建一个执行器
+     *
+     * @param executorService 并行处理时使用的线程池
+     * @param parallelThreshold 并行处理阈值，当估算的并行收益不小于该值时才会并行处理
+     * @param unit 时间单位
+     */
+    public AdaptiveOperationExecutor(ExecutorService executorService, long parallelThreshold, TimeUnit unit) {
+        Assert.notNull(executorService, "executorService must not be null");
+        this.executorService = executorService;
+        this.parallelThresholdNanos = unit.toNanos(parallelThreshold);
+    }
+
+    @Override
+    protected void execute(@Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        if (isParallelPreferred(pendingOperations)) {
+            executeParallel(pendingOperations).join();
+        } else {
+            executeInline(pendingOperations);
+        }
+    }
+
+    @Override
+    protected CompletionStage<Void> executeAsync(
+        @Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        if (isParallelPreferred(pendingOperations)) {
+            return executeParallel(pendingOperations);
+        }
+        return super.executeAsync(globalConfiguration, pendingOperations);
+    }
+
+    /**
+     * 根据各容器的估算耗时，判断本次执行是否应当并行处理
+     *
+     * @param pendingOperations 待执行的操作
+     * @return boolean
+     * @author huangchengxing
+     * @date 2022/7/19 15:42
+     */
+    protected boolean isParallelPreferred(@Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        if (pendingOperations.asMap().size() < 2) {
+            return false;
+        }
+        long total = 0L;
+        long max = 0L;
+        for (Map.Entry<Container, Multimap<AssembleOperation, Object>> entry : pendingOperations.asMap().entrySet()) {
+            LatencyStatistics latency = statistics.get(entry.getKey());
+            long estimated = Objects.isNull(latency) ? 0L : latency.estimate(entry.getValue().size());
+            total += estimated;
+            max = Math.max(max, estimated);
+        }
+        return total - max >= parallelThresholdNanos;
+    }
+
+    private void executeInline(MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        pendingOperations.asMap().entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(e -> process(e.getKey(), e.getValue()));
+    }
+
+    private CompletableFuture<Void> executeParallel(MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        CompletableFuture<?>[] sortedTasks = pendingOperations.asMap().entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .map(e -> CompletableFuture.runAsync(SourceScope.wrap(() -> process(e.getKey(), e.getValue())), executorService))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(sortedTasks);
+    }
+
+    private void process(Container container, Multimap<AssembleOperation, Object> operations) {
+        long start = System.nanoTime();
+        try {
+            container.process(operations);
+        } finally {
+            statistics.computeIfAbsent(container, c -> new LatencyStatistics())
+                .record(System.nanoTime() - start, operations.size());
+        }
+    }
+
+    /**
+     * 容器处理耗时统计，使用指数加权移动平均值记录最近的处理耗时与处理的操作数量
+     */
+    private static class LatencyStatistics {
+
+        private static final double ALPHA = 0.2D;
+
+        private double averageNanos = -1D;
+        private double averageOperations = -1D;
+
+        synchronized void record(long nanos, int operations) {
+            if (averageNanos < 0) {
+                averageNanos = nanos;
+                averageOperations = operations;
+                return;
+            }
+            averageNanos += ALPHA * (nanos - averageNanos);
+            averageOperations += ALPHA * (operations - averageOperations);
+        }
+
+        /**
+         * 估算处理指定数量的操作所需的耗时，当操作数量超过平均值时按比例放大
+         */
+        synchronized long estimate(int operations) {
+            if (averageNanos < 0) {
+                return 0L;
+            }
+            double ratio = averageOperations > 0 ? operations / averageOperations : 1D;
+            return (long) (averageNanos * Math.max(1D, ratio));
+        }
+
+    }
+
+}
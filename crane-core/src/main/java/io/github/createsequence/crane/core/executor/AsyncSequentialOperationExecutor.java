@@ -0,0 +1,138 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.collection.CollUtil;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.cache.SourceScope;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.helper.GroupMask;
+import io.github.createsequence.crane.core.helper.Orderly;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * <p>有序的{@link OperationExecutor}异步实现。
+ *
+ * <p>处理时按照每种数据对应的类操作配置分组，并根据同一操作配置中{@link AssembleOperation#getOrder()}的大小，
+ * 将操作划分为若干层，排序值相同的操作位于同一层，且彼此之间不存在依赖。<br />
+ * 随后，不同操作配置中位于同一层且使用同一容器的操作将被合并为一个批次，
+ * 每个批次仅依赖于其操作配置在上一层中的批次，因此：
+ * <ul>
+ *     <li>没有依赖关系的批次将被并行执行；</li>
+ *     <li>存在依赖关系的批次将严格按照排序值先后执行；</li>
+ * </ul>
+ * 当大部分操作都未指定排序值时，其效果接近于{@link AsyncUnorderedOperationExecutor}，
+ * 而当存在排序要求时，又能保证与{@link SequentialOperationExecutor}一致的执行顺序。
+ *
+ * <b>注意：由于装卸操作总是发生于装配操作前，故无法保证{@link AssembleOperation}与{@link DisassembleOperation}之间的执行顺序</b>
+ *
+ * @author huangchengxing
+ * @date 2022/07/12 10:21
+ * @see SequentialOperationExecutor
+ * @see AsyncUnorderedOperationExecutor
+ */
+@RequiredArgsConstructor
+public class AsyncSequentialOperationExecutor extends SequentialOperationExecutor {
+
+    private final ExecutorService executorService;
+
+    @Override
+    protected void execute(@Nonnull Set<Class<?>> targetGroups, @Nonnull Multimap<OperationConfiguration, Object> collectedConfigurations) {
+        executeAsync(targetGroups, collectedConfigurations).toCompletableFuture().join();
+    }
+
+    @Override
+    protected CompletionStage<Void> executeAsync(
+        @Nonnull Set<Class<?>> targetGroups, @Nonnull Multimap<OperationConfiguration, Object> collectedConfigurations) {
+        List<Map<Container, Stage>> layers = new ArrayList<>();
+        collectedConfigurations.asMap().forEach((configuration, targets) ->
+            addToLayers(layers, configuration, targets, targetGroups)
+        );
+        if (layers.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // 按层提交任务，每个批次仅在其依赖的全部批次完成后执行
+        Map<Stage, CompletableFuture<Void>> submitted = new IdentityHashMap<>();
+        for (Map<Container, Stage> layer : layers) {
+            layer.values().stream()
+                .sorted(Comparator.comparing(Stage::getContainer))
+                .forEach(stage -> submitted.put(stage, submit(stage, submitted)));
+        }
+        return CompletableFuture.allOf(submitted.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    private CompletableFuture<Void> submit(Stage stage, Map<Stage, CompletableFuture<Void>> submitted) {
+        Runnable task = SourceScope.wrap(() -> stage.getContainer().process(stage.getOperations()));
+        if (stage.getDependencies().isEmpty()) {
+            return CompletableFuture.runAsync(task, executorService);
+        }
+        CompletableFuture<?>[] dependencies = stage.getDependencies().stream()
+            .map(submitted::get)
+            .toArray(CompletableFuture<?>[]::new);
+        return CompletableFuture.allOf(dependencies).thenRunAsync(task, executorService);
+    }
+
+    /**
+     * 将操作配置中的装配操作按排序值分层，并合并到对应层中使用相同容器的批次
+     *
+     * @param layers 已有的分层
+     * @param configuration 操作配置
+     * @param targets 操作配置对应的待处理对象
+     * @param targetGroups 操作组
+     * @author huangchengxing
+     * @date 2022/7/12 10:35
+     */
+    private void addToLayers(
+        List<Map<Container, Stage>> layers, OperationConfiguration configuration,
+        Collection<Object> targets, Set<Class<?>> targetGroups) {
+        if (CollUtil.isEmpty(configuration.getAssembleOperations()) || CollUtil.isEmpty(targets)) {
+            return;
+        }
+        // 按排序值将操作分层
+        long targetGroupMask = GroupMask.of(targetGroups);
+        Map<Integer, List<AssembleOperation>> operationsByOrder = configuration.getAssembleOperations().stream()
+            .filter(op -> GroupMask.containsAny(targetGroupMask, targetGroups, op.getGroupMask(), op.getGroups()))
+            .collect(Collectors.groupingBy(Orderly::getActualOrder, TreeMap::new, Collectors.toList()));
+
+        int layerIndex = 0;
+        Collection<Stage> previousStages = Collections.emptyList();
+        for (List<AssembleOperation> operations : operationsByOrder.values()) {
+            if (layers.size() <= layerIndex) {
+                layers.add(new LinkedHashMap<>());
+            }
+            Map<Container, Stage> layer = layers.get(layerIndex);
+            Set<Stage> currentStages = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (AssembleOperation operation : operations) {
+                Stage stage = layer.computeIfAbsent(operation.getContainer(), Stage::new);
+                stage.getOperations().putAll(operation, targets);
+                stage.getDependencies().addAll(previousStages);
+                currentStages.add(stage);
+            }
+            previousStages = currentStages;
+            layerIndex++;
+        }
+    }
+
+    /**
+     * 一个批次，表示同一层中使用同一容器完成的全部装配操作
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class Stage {
+        private final Container container;
+        private final Multimap<AssembleOperation, Object> operations = ArrayListMultimap.create();
+        private final Set<Stage> dependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+}
@@ -1,42 +1,304 @@
 package io.github.createsequence.crane.core.executor;
 
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.cache.SourceScope;
 import io.github.createsequence.crane.core.container.Container;
 import io.github.createsequence.crane.core.helper.MultiValueTableMap;
 import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
 import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
 import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
-import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
+import java.util.Objects;
+import java.util.concurrent.*;
 
 /**
  * {@link OperationExecutor}异步无序实现
  *
  * <p>处理时按照每个操作的容器分组，因此将不严格按照{@link AssembleOperation#getOrder()}或{@link DisassembleOperation#getOrder()}
  * 的大小顺序执行处理。<br />
- * 一次执行中，每个容器仅需被访问一次。
+ * 一次执行中，每个容器仅需被访问一次。<br />
+ * 通过{@link #executeAsync}执行时，调用线程仅负责收集操作，不会等待容器完成处理。
+ *
+ * <p>允许通过{@link #setTimeout}与{@link #setContainerTimeout}为单次调用或指定容器设置处理时限，
+ * 时限从任务提交时开始计算，同时存在时以较短者为准。<br />
+ * 当容器未能在时限内完成处理时，将中断其处理线程并触发{@link ContainerListener#onTimeout}，
+ * 然后根据{@link TimeoutPolicy}决定是忽略该容器继续返回，还是以{@link TimeoutException}结束本次调用。<br />
+ * 设置了时限的容器将通过{@link ContainerWriteGate}写入数据源，因此即使容器在超时后忽略中断继续执行，
+ * 也不会在调用返回后再向待处理对象写入任何字段。
+ *
+ * <p>容器的处理任务将在提交任务的线程的{@link SourceScope}中执行，因此同样会复用作用域中已经获取过的数据源。
+ *
+ * <p>允许通过{@link #setContainerBulkhead}限制指定容器在所有调用中同时进行的处理任务数量，
+ * 避免响应缓慢的容器占满线程池，进而影响其他容器的处理。
  *
  * @author huangchengxing
  * @date 2022/03/31 19:45
  */
-@RequiredArgsConstructor
+@Slf4j
 public class AsyncUnorderedOperationExecutor extends AbstractOperationExecutor {
 
     private final ExecutorService executorService;
+    private final ScheduledExecutorService timeoutScheduler;
+
+    /**
+     * 容器处理时限，单位毫秒
+     */
+    private final Map<Container, Long> containerTimeouts = new ConcurrentHashMap<>();
+
+    /**
+     * 容器舱壁
+     */
+    private final Map<Container, ContainerBulkhead> containerBulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * 单次调用的处理时限，单位毫秒，小于等于0时表示不限制
+     */
+    private volatile long timeoutMillis = 0L;
+
+    /**
+     * 超时后的处理策略
+     */
+    @Setter
+    private volatile TimeoutPolicy timeoutPolicy = TimeoutPolicy.PARTIAL;
+
+    /**
+     * 容器处理监听器，容器超时，或因舱壁已满、线程池拒绝执行而被拒绝处理时通过该监听器通知
+     */
+    @Setter
+    private volatile ContainerListener containerListener = new LoggingContainerListener();
+
+    public AsyncUnorderedOperationExecutor(ExecutorService executorService) {
+        this(executorService, null);
+    }
+
+    /**
+     * 创建一个执行器
+     *
+     * @param executorService 用于执行容器处理任务的线程池
+     * @param timeoutScheduler 用于检查处理时限的调度器，为空时将在首次需要时使用内部共享的调度器
+     */
+    public AsyncUnorderedOperationExecutor(ExecutorService executorService, ScheduledExecutorService timeoutScheduler) {
+        this.executorService = executorService;
+        this.timeoutScheduler = timeoutScheduler;
+    }
+
+    /**
+     * 设置单次调用的处理时限，小于等于0时表示不限制
+     *
+     * @param timeout 时限
+     * @param unit 时间单位
+     * @author huangchengxing
+     * @date 2022/7/18 14:20
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * 设置指定容器的处理时限，小于等于0时表示不限制
+     *
+     * @param container 容器
+     * @param timeout 时限
+     * @param unit 时间单位
+     * @author huangchengxing
+     * @date 2022/7/18 14:20
+     */
+    public void setContainerTimeout(Container container, long timeout, TimeUnit unit) {
+        long millis = unit.toMillis(timeout);
+        if (millis > 0) {
+            containerTimeouts.put(container, millis);
+        } else {
+            containerTimeouts.remove(container);
+        }
+    }
+
+    /**
+     * 限制指定容器在所有调用中同时进行的处理任务数量，超出部分将进入等待队列，
+     * 等待队列已满或线程池拒绝执行时将被直接忽略，并通过{@link ContainerListener#onRejected}通知
+     *
+     * @param container 容器
+     * @param maxConcurrentCalls 最大并发任务数
+     * @param maxQueueSize 最大等待任务数，为0时表示超出并发数的任务将直接被忽略
+     * @author huangchengxing
+     * @date 2022/7/19 10:40
+     * @see ContainerBulkhead
+     */
+    public void setContainerBulkhead(Container container, int maxConcurrentCalls, int maxQueueSize) {
+        containerBulkheads.put(container, new ContainerBulkhead(maxConcurrentCalls, maxQueueSize));
+    }
 
-    @SuppressWarnings("unchecked")
     @Override
     protected void execute(@Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
-        CompletableFuture<Void>[] sortedTasks = pendingOperations.asMap().entrySet()
+        executeAsync(globalConfiguration, pendingOperations).toCompletableFuture().join();
+    }
+
+    @Override
+    protected CompletionStage<Void> executeAsync(
+        @Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        CompletableFuture<?>[] sortedTasks = pendingOperations.asMap().entrySet()
             .stream()
             .sorted(Map.Entry.comparingByKey())
-            .map(e -> CompletableFuture.runAsync(() -> e.getKey().process(e. getValue()), executorService))
+            .map(e -> submit(e.getKey(), e.getValue()))
             .toArray(CompletableFuture[]::new);
-        CompletableFuture.allOf(sortedTasks).join();
+        return CompletableFuture.allOf(sortedTasks);
+    }
+
+    private CompletableFuture<Void> submit(Container container, Multimap<AssembleOperation, Object> operations) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        long timeout = getTimeoutMillis(container);
+        // 有时限的容器通过写入闸门写入数据源，保证超时后不会再写入
+        ContainerWriteGate gate = timeout > 0 ? new ContainerWriteGate() : null;
+        ContainerTask task = new ContainerTask(container, operations, result, gate);
+        ContainerBulkhead bulkhead = containerBulkheads.get(container);
+        if (Objects.isNull(bulkhead)) {
+            executorService.execute(task);
+        } else if (!bulkhead.submit(task, executorService, () -> reject(container, operations, result))) {
+            reject(container, operations, result);
+            return result;
+        }
+
+        if (Objects.isNull(gate)) {
+            return result;
+        }
+        ScheduledFuture<?> timeoutCheck = getTimeoutScheduler().schedule(() -> {
+            // 仅当任务尚未完成时才关闭闸门，此后容器不会再写入任何字段，然后中断任务、通知监听器，并根据策略结束该任务
+            if (result.isDone() || !gate.close()) {
+                return;
+            }
+            task.cancel(true);
+            try {
+                containerListener.onTimeout(container, operations, timeout);
+            } finally {
+                if (timeoutPolicy == TimeoutPolicy.FAIL) {
+                    result.completeExceptionally(new TimeoutException("container " + container.getClass().getName() + " timed out after " + timeout + "ms"));
+                } else {
+                    result.complete(null);
+                }
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        result.whenComplete((r, ex) -> timeoutCheck.cancel(false));
+        return result;
     }
 
+    /**
+     * 容器的处理任务被舱壁或线程池拒绝，通知监听器后忽略该容器
+     */
+    private void reject(Container container, Multimap<AssembleOperation, Object> operations, CompletableFuture<Void> result) {
+        try {
+            containerListener.onRejected(container, operations);
+        } finally {
+            result.complete(null);
+        }
+    }
+
+    private long getTimeoutMillis(Container container) {
+        long containerTimeout = containerTimeouts.getOrDefault(container, 0L);
+        if (containerTimeout <= 0) {
+            return timeoutMillis;
+        }
+        return timeoutMillis <= 0 ? containerTimeout : Math.min(containerTimeout, timeoutMillis);
+    }
+
+    private ScheduledExecutorService getTimeoutScheduler() {
+        return Objects.nonNull(timeoutScheduler) ? timeoutScheduler : SharedTimeoutScheduler.INSTANCE;
+    }
+
+    /**
+     * 容器处理任务，任务结束或被取消时完成对应的{@link CompletableFuture}，
+     * 若任务已经因超时关闭了写入闸门，则由超时检查负责完成
+     */
+    private static class ContainerTask extends FutureTask<Void> {
+
+        private final CompletableFuture<Void> result;
+        @Nullable
+        private final ContainerWriteGate gate;
+
+        ContainerTask(
+            Container container, Multimap<AssembleOperation, Object> operations,
+            CompletableFuture<Void> result, @Nullable ContainerWriteGate gate) {
+            // 在提交任务的线程的数据源作用域中处理
+            super(SourceScope.wrap(() -> {
+                if (Objects.isNull(gate)) {
+                    container.process(operations);
+                } else if (!gate.isClosed()) {
+                    container.process(gate.guard(operations));
+                    gate.finish();
+                }
+            }), null);
+            this.result = result;
+            this.gate = gate;
+        }
+
+        @Override
+        protected void done() {
+            if (Objects.nonNull(gate) && gate.isClosed()) {
+                return;
+            }
+            if (isCancelled()) {
+                result.complete(null);
+                return;
+            }
+            try {
+                get();
+                result.complete(null);
+            } catch (ExecutionException ex) {
+                result.completeExceptionally(ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(ex);
+            }
+        }
+
+    }
+
+    /**
+     * 超时后的处理策略
+     */
+    public enum TimeoutPolicy {
+
+        /**
+         * 忽略超时的容器，其余容器的处理结果照常返回
+         */
+        PARTIAL,
+
+        /**
+         * 以{@link TimeoutException}结束本次调用
+         */
+        FAIL
+
+    }
+
+    /**
+     * 默认的容器处理监听器，仅输出日志
+     */
+    private static class LoggingContainerListener implements ContainerListener {
+
+        @Override
+        public void onTimeout(Container container, Multimap<AssembleOperation, ?> operations, long timeoutMillis) {
+            log.warn("容器[{}]未能在[{}]毫秒内完成处理，本次装配的[{}]个字段将被忽略", container.getClass(), timeoutMillis, operations.size());
+        }
+
+        @Override
+        public void onRejected(Container container, Multimap<AssembleOperation, ?> operations) {
+            log.warn("容器[{}]的处理任务被拒绝，本次装配的[{}]个字段将被忽略", container.getClass(), operations.size());
+        }
+
+    }
+
+    /**
+     * 未指定调度器时使用的共享调度器，仅在首次使用时创建
+     */
+    private static class SharedTimeoutScheduler {
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "crane-timeout-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
 }
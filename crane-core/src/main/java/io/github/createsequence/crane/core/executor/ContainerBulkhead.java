@@ -0,0 +1,165 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.lang.Assert;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+
+/**
+ * 容器舱壁，用于限制一个容器同时进行的处理任务数量
+ *
+ * <p>当正在执行的任务数量达到{@link #maxConcurrentCalls}时，新提交的任务将进入等待队列，
+ * 直到有任务完成后再依次提交到线程池。等待中的任务不会占用线程池中的线程，
+ * 因此一个响应缓慢的容器最多只会占用{@link #maxConcurrentCalls}个线程。<br />
+ * 若等待队列中的任务数量也已达到{@link #maxQueueSize}，则新提交的任务将被直接拒绝。<br />
+ * 线程池拒绝执行任务时同样视为拒绝，对于直接提交的任务，{@link #submit}将返回false，
+ * 对于从等待队列中提交的任务，将调用提交时指定的拒绝处理。
+ *
+ * @author huangchengxing
+ * @date 2022/07/19 10:15
+ * @see AsyncUnorderedOperationExecutor
+ */
+@Slf4j
+public class ContainerBulkhead {
+
+    /**
+     * 最大并发任务数
+     */
+    @Getter
+    private final int maxConcurrentCalls;
+
+    /**
+     * 最大等待任务数，为0时表示超出并发数的任务将直接被拒绝
+     */
+    @Getter
+    private final int maxQueueSize;
+
+    private final Deque<WaitingTask> waitingTasks = new ArrayDeque<>();
+    private int runningCalls = 0;
+
+    public ContainerBulkhead(int maxConcurrentCalls, int maxQueueSize) {
+        Assert.isTrue(maxConcurrentCalls > 0, "maxConcurrentCalls must be greater than 0");
+        Assert.isTrue(maxQueueSize >= 0, "maxQueueSize must not be negative");
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * 提交任务，若并发数未达上限则立刻交由线程池执行，否则进入等待队列。<br />
+     * 等待中的任务被线程池拒绝时将被取消
+     *
+     * @param task 任务
+     * @param executor 线程池
+     * @return 是否接受了该任务，若等待队列已满或线程池拒绝执行则返回false
+     * @author huangchengxing
+     * @date 2022/7/19 10:20
+     */
+    public boolean submit(RunnableFuture<?> task, Executor executor) {
+        return submit(task, executor, () -> task.cancel(false));
+    }
+
+    /**
+     * 提交任务，若并发数未达上限则立刻交由线程池执行，否则进入等待队列
+     *
+     * @param task 任务
+     * @param executor 线程池
+     * @param rejectedHandler 等待中的任务被线程池拒绝时的处理
+     * @return 是否接受了该任务，若等待队列已满或线程池拒绝执行则返回false，此时不会调用rejectedHandler
+     * @author huangchengxing
+     * @date 2022/7/27 11:00
+     */
+    public boolean submit(RunnableFuture<?> task, Executor executor, Runnable rejectedHandler) {
+        synchronized (this) {
+            if (runningCalls >= maxConcurrentCalls) {
+                if (waitingTasks.size() >= maxQueueSize) {
+                    return false;
+                }
+                waitingTasks.addLast(new WaitingTask(task, rejectedHandler));
+                return true;
+            }
+            runningCalls++;
+        }
+        if (tryExecute(task, executor)) {
+            return true;
+        }
+        release(executor);
+        return false;
+    }
+
+    /**
+     * 获取正在执行的任务数
+     *
+     * @return int
+     */
+    public synchronized int getRunningCalls() {
+        return runningCalls;
+    }
+
+    /**
+     * 获取正在等待的任务数
+     *
+     * @return int
+     */
+    public synchronized int getWaitingCalls() {
+        return waitingTasks.size();
+    }
+
+    /**
+     * 将任务提交到线程池，返回线程池是否接受了该任务
+     */
+    private boolean tryExecute(RunnableFuture<?> task, Executor executor) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    release(executor);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * 任务完成后，若有等待中的任务，则将当前任务占用的并发数转交给下一个任务，否则释放
+     */
+    private void release(Executor executor) {
+        while (true) {
+            WaitingTask next;
+            synchronized (this) {
+                next = waitingTasks.pollFirst();
+                if (next == null) {
+                    runningCalls--;
+                    return;
+                }
+            }
+            if (tryExecute(next.task, executor)) {
+                return;
+            }
+            try {
+                next.rejectedHandler.run();
+            } catch (RuntimeException ex) {
+                // 继续提交其余等待中的任务，避免并发数无法释放
+                log.warn("处理被拒绝的任务时出现异常，错误信息：{}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 等待中的任务，与其被线程池拒绝时的处理
+     */
+    @RequiredArgsConstructor
+    private static class WaitingTask {
+        private final RunnableFuture<?> task;
+        private final Runnable rejectedHandler;
+    }
+
+}
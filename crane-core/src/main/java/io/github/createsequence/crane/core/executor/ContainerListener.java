@@ -0,0 +1,43 @@
+package io.github.createsequence.crane.core.executor;
+
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+
+/**
+ * 容器处理监听器，当容器未能在限定时间内完成处理，或因舱壁已满、线程池拒绝执行而被拒绝处理时触发。<br />
+ * 超时通知在本次调用返回前同步触发，触发时超时容器已经不会再向待处理对象写入任何字段
+ *
+ * @author huangchengxing
+ * @date 2022/07/18 14:10
+ * @see AsyncUnorderedOperationExecutor
+ * @see ContainerBulkhead
+ */
+@FunctionalInterface
+public interface ContainerListener {
+
+    /**
+     * 容器处理超时
+     *
+     * @param container 容器
+     * @param operations 未完成的待处理对象与装配操作
+     * @param timeoutMillis 限定的处理时间，单位毫秒
+     * @author huangchengxing
+     * @date 2022/7/18 14:10
+     */
+    void onTimeout(Container container, Multimap<AssembleOperation, ?> operations, long timeoutMillis);
+
+    /**
+     * 容器的并发处理数与等待队列都已达上限，或线程池拒绝执行容器的处理任务，本次处理被拒绝，默认不做任何处理
+     *
+     * @param container 容器
+     * @param operations 被拒绝的待处理对象与装配操作
+     * @author huangchengxing
+     * @date 2022/7/26 14:10
+     * @see AsyncUnorderedOperationExecutor#setContainerBulkhead
+     */
+    default void onRejected(Container container, Multimap<AssembleOperation, ?> operations) {
+        // do nothing
+    }
+
+}
@@ -0,0 +1,164 @@
+package io.github.createsequence.crane.core.executor;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.operator.interfaces.OperateProcessor;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.PropertyMapping;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>容器写入闸门，用于保证容器超时后不会再向待处理对象写入数据源。
+ *
+ * <p>通过{@link #guard}包装后的装配操作，其{@link Assembler#execute}仅在闸门开启时才会实际写入，
+ * 且写入与{@link #close()}互斥，因此当{@link #close()}返回true后，容器即使仍在执行，也不会再写入任何字段。<br />
+ * 容器处理完毕后应当调用{@link #finish()}，此后闸门将不再允许被关闭，
+ * 从而保证一次处理的结果只会被判定为“按时完成”或“超时”中的一种。
+ *
+ * @author huangchengxing
+ * @date 2022/07/26 10:10
+ * @see AsyncUnorderedOperationExecutor
+ */
+class ContainerWriteGate {
+
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * 标记容器已经按时完成处理
+     *
+     * @return 若闸门已经关闭则返回false
+     */
+    synchronized boolean finish() {
+        if (closed) {
+            return false;
+        }
+        finished = true;
+        return true;
+    }
+
+    /**
+     * 关闭闸门，若正在写入则等待写入完成
+     *
+     * @return 若容器已经按时完成处理则返回false
+     */
+    synchronized boolean close() {
+        if (finished) {
+            return false;
+        }
+        closed = true;
+        return true;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 包装装配操作，使其写入受闸门控制
+     *
+     * @param operations 待处理对象与装配操作
+     * @return 包装后的待处理对象与装配操作
+     */
+    Multimap<AssembleOperation, Object> guard(Multimap<AssembleOperation, Object> operations) {
+        Multimap<AssembleOperation, Object> guarded = ArrayListMultimap.create(operations.keySet().size(), 16);
+        operations.asMap().forEach((operation, targets) -> guarded.putAll(new GuardedAssembleOperation(operation), targets));
+        return guarded;
+    }
+
+    private synchronized void write(Object target, Object source, AssembleOperation operation) {
+        if (!closed) {
+            operation.getAssembler().execute(target, source, operation);
+        }
+    }
+
+    /**
+     * 写入受闸门控制的装配操作，除写入外的方法都直接委托给原操作
+     */
+    private class GuardedAssembleOperation implements AssembleOperation, Assembler {
+
+        private final AssembleOperation delegate;
+
+        GuardedAssembleOperation(AssembleOperation delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Object target, Object source, AssembleOperation operation) {
+            write(target, source, delegate);
+        }
+
+        @Override
+        public Object getKey(Object target, AssembleOperation operation) {
+            return delegate.getAssembler().getKey(target, delegate);
+        }
+
+        @Override
+        public OperateProcessor getOperateProcessor() {
+            return delegate.getAssembler().getOperateProcessor();
+        }
+
+        @Override
+        public Assembler getAssembler() {
+            return this;
+        }
+
+        @Override
+        public OperationConfiguration getOwner() {
+            return delegate.getOwner();
+        }
+
+        @Override
+        public String getNamespace() {
+            return delegate.getNamespace();
+        }
+
+        @Override
+        public Container getContainer() {
+            return delegate.getContainer();
+        }
+
+        @Override
+        public List<PropertyMapping> getPropertyMappings() {
+            return delegate.getPropertyMappings();
+        }
+
+        @Override
+        public Set<Class<?>> getGroups() {
+            return delegate.getGroups();
+        }
+
+        @Override
+        public long getGroupMask() {
+            return delegate.getGroupMask();
+        }
+
+        @Override
+        public Field getTargetProperty() {
+            return delegate.getTargetProperty();
+        }
+
+        @Override
+        public Set<String> getTargetPropertyAliases() {
+            return delegate.getTargetPropertyAliases();
+        }
+
+        @Override
+        public int getOrder() {
+            return delegate.getOrder();
+        }
+
+        @Override
+        public int getActualOrder() {
+            return delegate.getActualOrder();
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.collection.CollUtil;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.helper.GroupMask;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.DynamicDisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.PropertyMapping;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * 执行计划
+ *
+ * <p>表示一个类操作配置在指定操作组下，需要进行的全部装配与装卸操作。其中包括：
+ * <ul>
+ *     <li>已经按操作组过滤，并按容器分组的装配操作；</li>
+ *     <li>装卸操作，以及装卸后获得的对象对应的执行计划；</li>
+ * </ul>
+ * 执行计划在编译后即不可变，因此同一类操作配置与操作组对应的执行计划可以被缓存并重复使用。<br />
+ * 由于{@link DynamicDisassembleOperation}的目标类型只有在执行时才能确定，
+ * 因此动态装卸操作对应的执行计划为空，需要在执行时根据实际装卸获得的对象另行获取。
+ *
+ * @author huangchengxing
+ * @date 2022/07/15 10:12
+ * @see AbstractOperationExecutor
+ */
+public class ExecutionPlan {
+
+    /**
+     * 类操作配置
+     */
+    @Getter
+    private final OperationConfiguration configuration;
+
+    /**
+     * 操作组
+     */
+    @Getter
+    private final Set<Class<?>> groups;
+
+    /**
+     * 按容器分组的装配操作
+     */
+    private final Map<Container, List<AssembleOperation>> assembleOperations = new LinkedHashMap<>();
+
+    /**
+     * 装卸操作
+     */
+    private final List<DisassembleStep> disassembleSteps = new ArrayList<>();
+
+    /**
+     * 目标字段可能被装配操作写入的装卸操作
+     */
+    private final List<DisassembleStep> assembledDisassembleSteps = new ArrayList<>();
+
+    private ExecutionPlan(OperationConfiguration configuration, Set<Class<?>> groups) {
+        this.configuration = configuration;
+        this.groups = groups;
+    }
+
+    /**
+     * 获取按容器分组的装配操作
+     *
+     * @return java.util.Map<io.github.createsequence.crane.core.container.Container,java.util.List<io.github.createsequence.crane.core.parser.interfaces.AssembleOperation>>
+     */
+    public Map<Container, List<AssembleOperation>> getAssembleOperations() {
+        return Collections.unmodifiableMap(assembleOperations);
+    }
+
+    /**
+     * 获取装卸操作
+     *
+     * @return java.util.List<io.github.createsequence.crane.core.executor.ExecutionPlan.DisassembleStep>
+     */
+    public List<DisassembleStep> getDisassembleSteps() {
+        return Collections.unmodifiableList(disassembleSteps);
+    }
+
+    /**
+     * 获取目标字段可能被装配操作写入的装卸操作，这些装卸操作获得的对象需要在装配完成后才能确定
+     *
+     * @return java.util.List<io.github.createsequence.crane.core.executor.ExecutionPlan.DisassembleStep>
+     */
+    public List<DisassembleStep> getAssembledDisassembleSteps() {
+        return Collections.unmodifiableList(assembledDisassembleSteps);
+    }
+
+    /**
+     * 编译执行计划，对于静态装卸操作，将会递归编译装卸后获得的对象对应的执行计划
+     *
+     * @param configuration 类操作配置
+     * @param groups 操作组
+     * @return io.github.createsequence.crane.core.executor.ExecutionPlan
+     * @author huangchengxing
+     * @date 2022/7/15 10:30
+     */
+    @Nonnull
+    public static ExecutionPlan compile(@Nonnull OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        return compile(configuration, Collections.unmodifiableSet(new HashSet<>(groups)), new IdentityHashMap<>());
+    }
+
+    private static ExecutionPlan compile(
+        OperationConfiguration configuration, Set<Class<?>> groups, Map<OperationConfiguration, ExecutionPlan> compiled) {
+        // 嵌套对象的类型可能与当前类型相同，此时直接复用正在编译的计划
+        ExecutionPlan plan = compiled.get(configuration);
+        if (Objects.nonNull(plan)) {
+            return plan;
+        }
+        plan = new ExecutionPlan(configuration, groups);
+        compiled.put(configuration, plan);
+
+        long groupMask = GroupMask.of(groups);
+        for (AssembleOperation operation : CollUtil.emptyIfNull(configuration.getAssembleOperations())) {
+            if (GroupMask.containsAny(groupMask, groups, operation.getGroupMask(), operation.getGroups())) {
+                plan.assembleOperations.computeIfAbsent(operation.getContainer(), c -> new ArrayList<>()).add(operation);
+            }
+        }
+        for (DisassembleOperation operation : CollUtil.emptyIfNull(configuration.getDisassembleOperations())) {
+            ExecutionPlan targetPlan = DisassembleOperation.isDynamic(operation) ?
+                null : compile(operation.getTargetOperateConfiguration(), groups, compiled);
+            plan.disassembleSteps.add(new DisassembleStep(operation, targetPlan));
+        }
+        if (!plan.disassembleSteps.isEmpty()) {
+            Set<String> assembledProperties = getAssembledProperties(plan);
+            plan.disassembleSteps.stream()
+                .filter(step -> assembledProperties.contains(step.getOperation().getTargetProperty().getName()))
+                .forEach(plan.assembledDisassembleSteps::add);
+        }
+        return plan;
+    }
+
+    private static Set<String> getAssembledProperties(ExecutionPlan plan) {
+        Set<String> assembledProperties = new HashSet<>();
+        plan.assembleOperations.values().forEach(operations -> operations.forEach(operation -> {
+            // 未指定引用字段时，数据源将被写入key字段
+            for (PropertyMapping mapping : operation.getPropertyMappings()) {
+                assembledProperties.add(mapping.hasReference() ? mapping.getReference() : operation.getTargetProperty().getName());
+            }
+        }));
+        return assembledProperties;
+    }
+
+    /**
+     * 是否不需要进行任何操作
+     *
+     * @return boolean
+     * @author huangchengxing
+     * @date 2022/7/15 10:30
+     */
+    public boolean isEmpty() {
+        return assembleOperations.isEmpty() && disassembleSteps.isEmpty();
+    }
+
+    /**
+     * 一次装卸操作，以及装卸后获得的对象对应的执行计划
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class DisassembleStep {
+
+        /**
+         * 装卸操作
+         */
+        private final DisassembleOperation operation;
+
+        /**
+         * 装卸后获得的对象对应的执行计划，当装卸操作为动态装卸操作时为空
+         */
+        @Nullable
+        private final ExecutionPlan targetPlan;
+
+        /**
+         * 是否为动态装卸操作
+         *
+         * @return boolean
+         */
+        public boolean isDynamic() {
+            return Objects.isNull(targetPlan);
+        }
+
+    }
+
+}
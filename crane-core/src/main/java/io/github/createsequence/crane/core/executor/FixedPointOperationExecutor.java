@@ -0,0 +1,179 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.lang.Assert;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.helper.MultiValueTableMap;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>基于不动点迭代的{@link OperationExecutor}装饰器。
+ *
+ * <p>普通执行器在装配前就已完成装卸操作的收集，因此若某个装配操作写入的字段本身又是一个待装卸的嵌套字段，
+ * 比如根据userId装配了一个User对象，而该User对象上还需要根据deptId装配Dept对象，则新写入的对象将不会被处理。<br />
+ * 该执行器将执行过程划分为多轮：
+ * <ul>
+ *     <li>首轮与普通执行器一样，收集待处理对象及其嵌套对象上的操作，并交由被装饰的执行器执行；</li>
+ *     <li>每轮执行完毕后，重新检查本轮被装配的对象上由装配操作写入的嵌套字段，
+ *     将其中新出现的对象及其嵌套对象上的操作收集为下一轮，并同样交由被装饰的执行器执行；</li>
+ *     <li>当某一轮没有收集到任何新的对象，或者执行轮数达到{@link #maximumWaves}时结束；</li>
+ * </ul>
+ * 由于每一轮都会合并整批数据中同一层级的对象，因此每个容器在每一轮中仍然只需被访问一次，
+ * 而不必为每个对象或每种类型单独调用一次执行器。<br />
+ * 同一对象实例在整个执行过程中仅会被收集一次，因此对象间存在循环引用时也能正常结束。
+ *
+ * @author huangchengxing
+ * @date 2022/07/21 16:00
+ * @see AbstractOperationExecutor#collectOperations(Collection, ExecutionPlan, MultiValueTableMap, Map)
+ */
+@Slf4j
+public class FixedPointOperationExecutor extends AbstractOperationExecutor {
+
+    /**
+     * 默认的最大执行轮数
+     */
+    public static final int DEFAULT_MAXIMUM_WAVES = 16;
+
+    private final AbstractOperationExecutor delegate;
+    private final int maximumWaves;
+
+    public FixedPointOperationExecutor(AbstractOperationExecutor delegate) {
+        this(delegate, DEFAULT_MAXIMUM_WAVES);
+    }
+
+    /**
+     * 创建一个执行器
+     *
+     * @param delegate 用于执行每一轮操作的执行器
+     * @param maximumWaves 最大执行轮数
+     */
+    public FixedPointOperationExecutor(AbstractOperationExecutor delegate, int maximumWaves) {
+        Assert.notNull(delegate, "delegate executor must not be null");
+        Assert.isTrue(maximumWaves > 0, "maximumWaves must be greater than 0");
+        this.delegate = delegate;
+        this.maximumWaves = maximumWaves;
+    }
+
+    @Override
+    public void execute(Iterable<?> targets, OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        Wave wave = firstWave(targets, configuration, groups);
+        for (int i = 0; Objects.nonNull(wave); i++) {
+            if (i >= maximumWaves) {
+                warnUnfinished(configuration);
+                return;
+            }
+            delegate.execute(configuration.getGlobalConfiguration(), wave.pendingOperations);
+            wave = nextWave(wave);
+        }
+    }
+
+    @Override
+    public CompletionStage<Void> executeAsync(Iterable<?> targets, OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        return CompletableFuture.supplyAsync(() -> firstWave(targets, configuration, groups), Runnable::run)
+            .thenCompose(wave -> executeAsync(configuration, wave, 0));
+    }
+
+    private CompletionStage<Void> executeAsync(OperationConfiguration configuration, Wave wave, int index) {
+        if (Objects.isNull(wave)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (index >= maximumWaves) {
+            warnUnfinished(configuration);
+            return CompletableFuture.completedFuture(null);
+        }
+        return delegate.executeAsync(configuration.getGlobalConfiguration(), wave.pendingOperations)
+            .thenCompose(v -> executeAsync(configuration, nextWave(wave), index + 1));
+    }
+
+    @Override
+    protected void execute(@Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        delegate.execute(globalConfiguration, pendingOperations);
+    }
+
+    @Override
+    protected CompletionStage<Void> executeAsync(
+        @Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        return delegate.executeAsync(globalConfiguration, pendingOperations);
+    }
+
+    /**
+     * 收集首轮待执行的操作
+     */
+    @Nullable
+    private Wave firstWave(Iterable<?> targets, OperationConfiguration configuration, Set<Class<?>> groups) {
+        if (CollUtil.isEmpty(targets) || Objects.isNull(configuration) || CollUtil.isEmpty(groups)) {
+            return null;
+        }
+        List<Object> targetsList = StreamSupport.stream(targets.spliterator(), false)
+            .collect(Collectors.toList());
+        ExecutionPlan plan = getExecutionPlan(configuration, groups);
+        Wave wave = new Wave(plan.getGroups(), new MultiValueTableMap<>(), new HashMap<>());
+        collectOperations(targetsList, plan, wave.pendingOperations, wave.visitedTargets);
+        return wave.pendingOperations.asMap().isEmpty() ? null : wave;
+    }
+
+    /**
+     * 重新检查上一轮被装配的对象，收集由装配操作写入的嵌套字段中新出现的对象上的操作
+     */
+    @Nullable
+    private Wave nextWave(Wave previous) {
+        // 按类操作配置对上一轮被装配的对象分组并去重
+        Map<OperationConfiguration, Set<Object>> assembledTargets = new LinkedHashMap<>();
+        for (Multimap<AssembleOperation, Object> operations : previous.pendingOperations.asMap().values()) {
+            operations.asMap().forEach((operation, targets) -> assembledTargets
+                .computeIfAbsent(operation.getOwner(), c -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                .addAll(targets)
+            );
+        }
+
+        Wave next = new Wave(previous.groups, new MultiValueTableMap<>(), previous.visitedTargets);
+        assembledTargets.forEach((configuration, targets) -> {
+            List<ExecutionPlan.DisassembleStep> steps = getAssembledDisassembleSteps(getExecutionPlan(configuration, previous.groups));
+            if (!steps.isEmpty()) {
+                processDisassembleSteps(targets, steps, previous.groups, next.pendingOperations, next.visitedTargets);
+            }
+        });
+        return next.pendingOperations.asMap().isEmpty() ? null : next;
+    }
+
+    /**
+     * 获取执行计划中，目标字段可能被装配操作写入的装卸步骤
+     *
+     * @param plan 执行计划
+     * @return java.util.List<io.github.createsequence.crane.core.executor.ExecutionPlan.DisassembleStep>
+     * @author huangchengxing
+     * @date 2022/7/21 16:30
+     */
+    @Nonnull
+    protected List<ExecutionPlan.DisassembleStep> getAssembledDisassembleSteps(@Nonnull ExecutionPlan plan) {
+        return plan.getAssembledDisassembleSteps();
+    }
+
+    private void warnUnfinished(OperationConfiguration configuration) {
+        log.warn("类[{}]的操作在执行[{}]轮后仍有新的嵌套对象待处理，剩余对象将被忽略", configuration.getTargetClass(), maximumWaves);
+    }
+
+    /**
+     * 一轮待执行的操作
+     */
+    @RequiredArgsConstructor
+    private static class Wave {
+        private final Set<Class<?>> groups;
+        private final MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations;
+        private final Map<OperationConfiguration, Set<Object>> visitedTargets;
+    }
+
+}
@@ -9,6 +9,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * 执行器
@@ -44,4 +46,34 @@ public interface OperationExecutor {
         execute(targets, operationConfiguration, ArrayUtil.isNotEmpty(groups) ? CollUtil.newHashSet(groups) : Collections.singleton(DefaultGroup.class));
     }
 
+    /**
+     * 异步执行操作，返回的{@link CompletionStage}将在全部操作完成后完成，若执行过程中出现异常，则以该异常完成。<br />
+     * 默认在当前线程中同步执行，支持异步处理的执行器应当重写该方法，保证调用线程不会因等待容器获取数据源而阻塞。
+     *
+     * @param targets 目标实例
+     * @param operationConfiguration 目标类操作配置
+     * @param groups 操作的组，若组为空则将不操作任何数据
+     * @return java.util.concurrent.CompletionStage<java.lang.Void>
+     * @author huangchengxing
+     * @date 2022/7/18 9:40
+     */
+    default CompletionStage<Void> executeAsync(Iterable<?> targets, OperationConfiguration operationConfiguration, @Nonnull Set<Class<?>> groups) {
+        return CompletableFuture.runAsync(() -> execute(targets, operationConfiguration, groups), Runnable::run);
+    }
+
+    /**
+     * 异步执行操作
+     *
+     * @param targets 目标实例
+     * @param operationConfiguration 目标类操作配置
+     * @param groups 操作的组，若组为空则默认操作{@link DefaultGroup}
+     * @return java.util.concurrent.CompletionStage<java.lang.Void>
+     * @author huangchengxing
+     * @date 2022/7/18 9:40
+     * @see #executeAsync(Iterable, OperationConfiguration, Set)
+     */
+    default CompletionStage<Void> executeAsync(Iterable<?> targets, OperationConfiguration operationConfiguration, @Nullable Class<?>... groups) {
+        return executeAsync(targets, operationConfiguration, ArrayUtil.isNotEmpty(groups) ? CollUtil.newHashSet(groups) : Collections.singleton(DefaultGroup.class));
+    }
+
 }
@@ -0,0 +1,153 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.lang.Assert;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.helper.MultiValueTableMap;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * <p>无序的{@link OperationExecutor}并行实现，适用于单次需要处理大量对象的场景。
+ *
+ * <p>处理时，待处理对象将被拆分为若干个大小不超过{@link #chunkSize}的分块，
+ * 并在{@link ForkJoinPool}中并行的完成各分块中的装卸操作与装配操作的收集，最后再按容器合并。<br />
+ * 收集过程中，若某一层嵌套对象的数量超过{@link #chunkSize}，该层对象的装卸也将在{@link ForkJoinPool}中并行完成。<br />
+ * 合并后，每个容器仍然仅需被访问一次，但是key值的获取与数据源的写入将通过{@link Container#process(Multimap, ForkJoinPool)}
+ * 在{@link ForkJoinPool}中并行完成。<br />
+ * 当待处理对象或某一容器的待处理操作数量不超过{@link #chunkSize}时，将直接在当前线程中处理。
+ *
+ * <p>与{@link UnorderedOperationExecutor}相同，处理时将不严格按照{@link AssembleOperation#getOrder()}
+ * 或{@link DisassembleOperation#getOrder()}的大小顺序执行处理。
+ *
+ * <b>注意：由于同一对象上的不同字段可能在不同线程中被写入，因此应当保证自定义的{@link io.github.createsequence.crane.core.operator.interfaces.Assembler}是线程安全的</b>
+ *
+ * @author huangchengxing
+ * @date 2022/07/16 15:10
+ * @see UnorderedOperationExecutor
+ */
+public class ParallelUnorderedOperationExecutor extends AbstractOperationExecutor {
+
+    /**
+     * 默认的分块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final ForkJoinPool forkJoinPool;
+    private final int chunkSize;
+
+    public ParallelUnorderedOperationExecutor(ForkJoinPool forkJoinPool) {
+        this(forkJoinPool, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelUnorderedOperationExecutor(ForkJoinPool forkJoinPool, int chunkSize) {
+        this(forkJoinPool, chunkSize, PlanCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public ParallelUnorderedOperationExecutor(ForkJoinPool forkJoinPool, int chunkSize, int maximumPlanCacheSize) {
+        super(maximumPlanCacheSize);
+        Assert.isTrue(chunkSize > 0, "chunkSize must be greater than 0");
+        this.forkJoinPool = forkJoinPool;
+        this.chunkSize = chunkSize;
+    }
+
+    @Nonnull
+    @Override
+    protected MultiValueTableMap<Container, AssembleOperation, Object> collectOperations(
+        @Nonnull List<Object> targets, @Nonnull ExecutionPlan plan) {
+        if (targets.size() <= chunkSize) {
+            return super.collectOperations(targets, plan);
+        }
+        MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations = forkJoinPool.invoke(new CollectTask(targets, plan));
+        // 不同分块中可能收集到相同的嵌套对象，因此合并后需要再按引用去重
+        pendingOperations.asMap().values().forEach(ParallelUnorderedOperationExecutor::deduplicate);
+        return pendingOperations;
+    }
+
+    private static void deduplicate(Multimap<AssembleOperation, Object> operations) {
+        for (AssembleOperation operation : new ArrayList<>(operations.keySet())) {
+            Collection<Object> targets = operations.get(operation);
+            Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>(targets.size()));
+            List<Object> distinctTargets = targets.stream()
+                .filter(visited::add)
+                .collect(Collectors.toList());
+            if (distinctTargets.size() < targets.size()) {
+                operations.replaceValues(operation, distinctTargets);
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    protected List<Object> disassemble(@Nonnull Collection<?> targets, @Nonnull DisassembleOperation operation) {
+        if (targets.size() <= chunkSize) {
+            return super.disassemble(targets, operation);
+        }
+        // 较大的嵌套层级中的对象将在线程池中并行装卸，并保持原有顺序
+        Supplier<List<Object>> task = () -> targets.parallelStream()
+            .map(t -> operation.getDisassembler().execute(t, operation))
+            .filter(CollUtil::isNotEmpty)
+            .flatMap(Collection::stream)
+            .collect(Collectors.toList());
+        return isInPool() ? task.get() : forkJoinPool.submit(task::get).join();
+    }
+
+    private boolean isInPool() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == forkJoinPool;
+    }
+
+    @Override
+    protected void execute(@Nonnull GlobalConfiguration globalConfiguration, @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations) {
+        pendingOperations.asMap().entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(e -> process(e.getKey(), e.getValue()));
+    }
+
+    private void process(Container container, Multimap<AssembleOperation, Object> operations) {
+        if (operations.size() <= chunkSize) {
+            container.process(operations);
+        } else {
+            container.process(operations, forkJoinPool);
+        }
+    }
+
+    /**
+     * 收集分块中的待处理对象的装配操作，若分块大于{@link #chunkSize}，则对半拆分后并行收集
+     */
+    @RequiredArgsConstructor
+    private class CollectTask extends RecursiveTask<MultiValueTableMap<Container, AssembleOperation, Object>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Object> targets;
+        private final ExecutionPlan plan;
+
+        @Override
+        protected MultiValueTableMap<Container, AssembleOperation, Object> compute() {
+            int size = targets.size();
+            if (size <= chunkSize) {
+                return ParallelUnorderedOperationExecutor.super.collectOperations(targets, plan);
+            }
+            int middle = size >>> 1;
+            CollectTask right = new CollectTask(targets.subList(middle, size), plan);
+            right.fork();
+            MultiValueTableMap<Container, AssembleOperation, Object> result = new CollectTask(targets.subList(0, middle), plan).compute();
+            result.putAll(right.join());
+            return result;
+        }
+
+    }
+
+}
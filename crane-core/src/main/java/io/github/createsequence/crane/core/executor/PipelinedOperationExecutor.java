@@ -0,0 +1,151 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.lang.Assert;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.helper.MultiValueTableMap;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>流水线式的{@link AsyncUnorderedOperationExecutor}。
+ *
+ * <p>普通执行器需要先完整的遍历待处理对象及其全部嵌套对象，收集完所有操作后才开始访问容器，
+ * 因此对于嵌套层级较深的数据，遍历对象图的耗时与容器获取数据源的耗时是串行叠加的。<br />
+ * 该执行器按层级遍历对象图，每收集完一层对象上的装配操作，就立刻将其按容器分组并提交到线程池中处理，
+ * 然后才在调用线程中读取这一层对象的嵌套对象并继续收集下一层，使得容器的数据源获取与更深层级的遍历能够同时进行。
+ *
+ * <p>由于每一层都会单独提交一次，每个容器在一次执行中可能被访问多次，访问次数至多等于嵌套层级数。<br />
+ * 处理时限与舱壁等设置对每一层的提交分别生效。
+ *
+ * <b>注意：遍历下一层与处理上一层的装配操作是同时进行的，因此装配操作的引用字段不能同时作为装卸操作的目标字段，
+ * 否则执行时将抛出{@link IllegalArgumentException}，此类配置应当使用{@link FixedPointOperationExecutor}处理</b>
+ *
+ * @author huangchengxing
+ * @date 2022/07/22 10:15
+ * @see AsyncUnorderedOperationExecutor
+ */
+public class PipelinedOperationExecutor extends AsyncUnorderedOperationExecutor {
+
+    public PipelinedOperationExecutor(ExecutorService executorService) {
+        super(executorService);
+    }
+
+    public PipelinedOperationExecutor(ExecutorService executorService, ScheduledExecutorService timeoutScheduler) {
+        super(executorService, timeoutScheduler);
+    }
+
+    @Override
+    public void execute(Iterable<?> targets, OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        executeAsync(targets, configuration, groups).toCompletableFuture().join();
+    }
+
+    @Override
+    public CompletionStage<Void> executeAsync(Iterable<?> targets, OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        if (CollUtil.isEmpty(targets) || Objects.isNull(configuration) || CollUtil.isEmpty(groups)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<Object> targetsList = StreamSupport.stream(targets.spliterator(), false)
+            .collect(Collectors.toList());
+        Map<ExecutionPlan, List<Object>> level = new LinkedHashMap<>();
+        level.put(getExecutionPlan(configuration, groups), targetsList);
+
+        List<CompletableFuture<Void>> submittedLevels = new ArrayList<>();
+        Map<OperationConfiguration, Set<Object>> visitedTargets = new HashMap<>();
+        try {
+            while (!level.isEmpty()) {
+                MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations = new MultiValueTableMap<>();
+                Map<ExecutionPlan, List<Object>> collected = collectLevel(level, pendingOperations, visitedTargets);
+                // 当前层级的装配操作收集完毕后立刻提交，然后再读取嵌套对象并继续收集下一层
+                if (!pendingOperations.asMap().isEmpty()) {
+                    submittedLevels.add(executeAsync(configuration.getGlobalConfiguration(), pendingOperations).toCompletableFuture());
+                }
+                level = disassembleLevel(collected);
+            }
+        } catch (RuntimeException ex) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+        return CompletableFuture.allOf(submittedLevels.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * 收集一层对象上的装配操作，并返回其中尚未被收集过的对象
+     *
+     * @param level 当前层级的对象，按执行计划分组
+     * @param pendingOperations 当前层级待执行的操作
+     * @param visitedTargets 各类操作配置下已经收集过的对象
+     * @return java.util.Map<io.github.createsequence.crane.core.executor.ExecutionPlan,java.util.List<java.lang.Object>>
+     * @author huangchengxing
+     * @date 2022/7/22 10:30
+     */
+    @Nonnull
+    protected Map<ExecutionPlan, List<Object>> collectLevel(
+        @Nonnull Map<ExecutionPlan, List<Object>> level,
+        @Nonnull MultiValueTableMap<Container, AssembleOperation, Object> pendingOperations,
+        @Nonnull Map<OperationConfiguration, Set<Object>> visitedTargets) {
+        Map<ExecutionPlan, List<Object>> collected = new LinkedHashMap<>();
+        level.forEach((plan, targets) -> {
+            if (plan.isEmpty()) {
+                return;
+            }
+            Assert.isTrue(
+                plan.getAssembledDisassembleSteps().isEmpty(),
+                "the assembled properties of [{}] cannot be disassembled by the pipelined executor", plan.getConfiguration().getTargetClass()
+            );
+            // 按引用去重，跳过已经收集过的对象
+            Set<Object> visited = visitedTargets.computeIfAbsent(
+                plan.getConfiguration(), c -> Collections.newSetFromMap(new IdentityHashMap<>())
+            );
+            List<Object> unvisitedTargets = targets.stream()
+                .filter(visited::add)
+                .collect(Collectors.toList());
+            if (!unvisitedTargets.isEmpty()) {
+                processAssembleOperations(unvisitedTargets, plan, pendingOperations);
+                collected.put(plan, unvisitedTargets);
+            }
+        });
+        return collected;
+    }
+
+    /**
+     * 对一层对象进行装卸，获得其嵌套对象组成的下一层
+     *
+     * @param collected 当前层级中已经收集过装配操作的对象，按执行计划分组
+     * @return java.util.Map<io.github.createsequence.crane.core.executor.ExecutionPlan,java.util.List<java.lang.Object>>
+     * @author huangchengxing
+     * @date 2022/7/26 15:10
+     */
+    @Nonnull
+    protected Map<ExecutionPlan, List<Object>> disassembleLevel(@Nonnull Map<ExecutionPlan, List<Object>> collected) {
+        Map<ExecutionPlan, List<Object>> nextLevel = new LinkedHashMap<>();
+        collected.forEach((plan, targets) -> {
+            for (ExecutionPlan.DisassembleStep step : plan.getDisassembleSteps()) {
+                // 动态装卸操作需要根据实际获得的对象确定执行计划
+                if (step.isDynamic()) {
+                    DisassembleOperation.collect(step.getOperation(), targets).asMap().forEach((config, values) ->
+                        nextLevel.computeIfAbsent(getExecutionPlan(config, plan.getGroups()), p -> new ArrayList<>()).addAll(values)
+                    );
+                    continue;
+                }
+                List<Object> values = disassemble(targets, step.getOperation());
+                if (!values.isEmpty()) {
+                    nextLevel.computeIfAbsent(step.getTargetPlan(), p -> new ArrayList<>()).addAll(values);
+                }
+            }
+        });
+        return nextLevel;
+    }
+
+}
@@ -0,0 +1,73 @@
+package io.github.createsequence.crane.core.executor;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * 执行计划缓存，key为类操作配置与操作组。<br />
+ * 同一类操作配置与操作组对应的执行计划是确定的，因此执行器可以在生成后缓存，并在后续执行时直接复用。
+ *
+ * @param <C> 类操作配置类型，可以是单个类操作配置，也可以是一组类操作配置
+ * @param <P> 执行计划类型
+ * @author huangchengxing
+ * @date 2022/07/27 16:00
+ * @see AbstractOperationExecutor
+ * @see SequentialOperationExecutor
+ */
+class PlanCache<C, P> {
+
+    /**
+     * 执行计划缓存的默认最大容量
+     */
+    static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private final Cache<PlanKey, P> cache;
+
+    PlanCache(int maximumSize) {
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    /**
+     * 获取类操作配置在指定操作组下的执行计划，若缓存中不存在，则先生成并缓存。<br />
+     * 生成时传入的操作组为不可变的副本，以免调用方修改操作组后影响已缓存的key。
+     *
+     * @param configurations 类操作配置，应当保证后续不会被修改
+     * @param groups 操作组
+     * @param planFactory 根据类操作配置与操作组生成执行计划
+     * @return P
+     * @author huangchengxing
+     * @date 2022/7/27 16:00
+     */
+    @Nonnull
+    P get(@Nonnull C configurations, @Nonnull Set<Class<?>> groups, @Nonnull BiFunction<C, Set<Class<?>>, P> planFactory) {
+        P plan = cache.getIfPresent(new PlanKey(configurations, groups));
+        if (Objects.isNull(plan)) {
+            Set<Class<?>> copiedGroups = Collections.unmodifiableSet(new HashSet<>(groups));
+            plan = planFactory.apply(configurations, copiedGroups);
+            cache.put(new PlanKey(configurations, copiedGroups), plan);
+        }
+        return plan;
+    }
+
+    /**
+     * 执行计划缓存的key
+     */
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class PlanKey {
+        private final Object configurations;
+        private final Set<Class<?>> groups;
+    }
+
+}
@@ -2,19 +2,26 @@ package io.github.createsequence.crane.core.executor;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.stream.StreamUtil;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
 import io.github.createsequence.crane.core.container.Container;
 import io.github.createsequence.crane.core.helper.CounterSet;
+import io.github.createsequence.crane.core.helper.GroupMask;
+import io.github.createsequence.crane.core.helper.ObjectUtils;
 import io.github.createsequence.crane.core.helper.Orderly;
 import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
 import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
 import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
-import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.util.CollectionUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +30,8 @@ import java.util.stream.Collectors;
  * <p>处理时按照每种数据对应的类操作配置分组，因此会按照统一配操作配置中的
  * {@link AssembleOperation#getOrder()}或{@link DisassembleOperation#getOrder()}的大小顺序执行处理。<br />
  * 因此，一次执行中一个相同的容器可能会被访问多次。<br />
+ * 对于同一组类操作配置与操作组，访问容器的顺序与每次访问要完成的操作都是确定的，
+ * 因此执行器会将其作为执行计划缓存，后续执行时直接按计划访问容器。<br />
  *
  * <b>注意：由于装卸操作总是发生于装配操作前，故无法保证{@link AssembleOperation}与{@link DisassembleOperation}之间的执行顺序</b>
  *
@@ -31,60 +40,125 @@ import java.util.stream.Collectors;
  */
 public class SequentialOperationExecutor implements OperationExecutor {
 
+    /**
+     * 执行计划缓存，key为类操作配置与操作组
+     */
+    private final PlanCache<Set<OperationConfiguration>, Plan> planCache;
+
+    public SequentialOperationExecutor() {
+        this(PlanCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public SequentialOperationExecutor(int maximumPlanCacheSize) {
+        this.planCache = new PlanCache<>(maximumPlanCacheSize);
+    }
+
     @Override
     public void execute(Iterable<?> targets, OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        Multimap<OperationConfiguration, Object> collectedConfigurations = collectOperationConfigurations(targets, configuration, groups);
+        if (Objects.nonNull(collectedConfigurations)) {
+            execute(groups, collectedConfigurations);
+        }
+    }
+
+    @Override
+    public CompletionStage<Void> executeAsync(Iterable<?> targets, OperationConfiguration configuration, @Nonnull Set<Class<?>> groups) {
+        return CompletableFuture.supplyAsync(() -> collectOperationConfigurations(targets, configuration, groups), Runnable::run)
+            .thenCompose(collectedConfigurations -> Objects.isNull(collectedConfigurations) ?
+                CompletableFuture.completedFuture(null) : executeAsync(groups, collectedConfigurations)
+            );
+    }
+
+    @Nullable
+    private Multimap<OperationConfiguration, Object> collectOperationConfigurations(
+        Iterable<?> targets, OperationConfiguration configuration, Set<Class<?>> groups) {
         if (CollUtil.isEmpty(targets) || Objects.isNull(configuration) || CollUtil.isEmpty(groups)) {
-            return;
+            return null;
         }
         List<Object> targetsList = StreamUtil.of(targets).collect(Collectors.toList());
-
         // 解析配置
-        Multimap<OperationConfiguration, Object> collectedConfigurations = collectOperationConfigurations(
-            targetsList, configuration, LinkedListMultimap.create()
-        );
-
-        execute(groups, collectedConfigurations);
+        return collectOperationConfigurations(targetsList, configuration, LinkedListMultimap.create());
     }
 
     protected void execute(@Nonnull Set<Class<?>> targetGroups, @Nonnull Multimap<OperationConfiguration, Object> collectedConfigurations) {
-        // TODO 优化算法，提高执行效率
-        // 获取操作配置，并按类配置分别将全部的操作配置与待处理数据装入桶中，然后对同一桶中的操作按sort排序
-        Set<Bucket> buckets = collectedConfigurations.asMap().entrySet()
-            .stream()
-            .filter(e -> CollUtil.isNotEmpty(e.getKey().getAssembleOperations()))
-            .map(e -> new Bucket(e.getKey().getAssembleOperations(), e.getValue(), targetGroups))
-            .collect(Collectors.toSet());
-
-        Multimap<Container, Bucket> batch = LinkedListMultimap.create();
-        while (CollUtil.isNotEmpty(buckets)) {
+        // 获取执行计划，然后按计划依次访问容器
+        Plan plan = getPlan(targetGroups, collectedConfigurations.keySet());
+        for (Round round : plan.getRounds()) {
+            Multimap<AssembleOperation, Object> processData = ArrayListMultimap.create();
+            round.getOperations().forEach((configuration, operations) -> {
+                Collection<Object> targets = collectedConfigurations.get(configuration);
+                operations.forEach(op -> processData.putAll(op, targets));
+            });
+            if (!processData.isEmpty()) {
+                round.getContainer().process(processData);
+            }
+        }
+    }
+
+    /**
+     * 异步执行操作，默认在当前线程中同步执行{@link #execute(Set, Multimap)}
+     *
+     * @param targetGroups 操作组
+     * @param collectedConfigurations 类操作配置与对应的待处理对象
+     * @return java.util.concurrent.CompletionStage<java.lang.Void>
+     * @author huangchengxing
+     * @date 2022/7/18 10:05
+     */
+    protected CompletionStage<Void> executeAsync(
+        @Nonnull Set<Class<?>> targetGroups, @Nonnull Multimap<OperationConfiguration, Object> collectedConfigurations) {
+        return CompletableFuture.runAsync(() -> execute(targetGroups, collectedConfigurations), Runnable::run);
+    }
+
+    /**
+     * 获取一组类操作配置在指定操作组下的执行计划，若缓存中不存在，则先生成并缓存
+     *
+     * @param targetGroups 操作组
+     * @param configurations 类操作配置
+     * @return io.github.createsequence.crane.core.executor.SequentialOperationExecutor.Plan
+     * @author huangchengxing
+     * @date 2022/7/14 16:20
+     */
+    @Nonnull
+    protected Plan getPlan(@Nonnull Set<Class<?>> targetGroups, @Nonnull Set<OperationConfiguration> configurations) {
+        return planCache.get(new HashSet<>(configurations), targetGroups, (c, groups) -> createPlan(groups, c));
+    }
+
+    /**
+     * 生成执行计划
+     *
+     * <p>将每个类操作配置中的操作按排序值放入各自的桶中，每一轮选出最多桶的队列头所使用的容器，
+     * 并取出所有桶队列头中连续使用该容器的操作作为本轮要执行的操作，直到全部桶都为空为止。
+     *
+     * @param targetGroups 操作组
+     * @param configurations 类操作配置
+     * @return io.github.createsequence.crane.core.executor.SequentialOperationExecutor.Plan
+     * @author huangchengxing
+     * @date 2022/7/14 16:20
+     */
+    @Nonnull
+    protected Plan createPlan(@Nonnull Set<Class<?>> targetGroups, @Nonnull Set<OperationConfiguration> configurations) {
+        List<Bucket> buckets = configurations.stream()
+            .filter(conf -> CollUtil.isNotEmpty(conf.getAssembleOperations()))
+            .map(conf -> new Bucket(conf, targetGroups))
+            .filter(Bucket::isNotEmpty)
+            .collect(Collectors.toList());
+
+        List<Round> rounds = new ArrayList<>();
+        while (!buckets.isEmpty()) {
             // 找出本轮最匹配的容器
-            Container maxContainer = (Container) new CounterSet<>()
+            Container maxContainer = new CounterSet<Container>()
                 .plusAll(buckets, Bucket::peekContainerOfFirstOperation)
                 .getMax();
             // 获取每个桶的队列头符合匹配该容器的操作，直到桶的队列头的操作不匹配该容器为止
-            List<Bucket> matchedOperation = buckets.stream()
-                .map(b -> b.getOperations(maxContainer))
-                .filter(Bucket::isNotEmpty)
-                .collect(Collectors.toList());
-            batch.putAll(maxContainer, matchedOperation);
-
-            // 移除处理完毕的容器
-            buckets = buckets.stream().filter(Bucket::isNotEmpty).collect(Collectors.toSet());
+            Map<OperationConfiguration, List<AssembleOperation>> matchedOperations = new LinkedHashMap<>();
+            buckets.forEach(b -> ObjectUtils.acceptIfFalse(
+                b.pollOperations(maxContainer), List::isEmpty, ops -> matchedOperations.put(b.getConfiguration(), ops)
+            ));
+            rounds.add(new Round(maxContainer, matchedOperations));
+            // 移除处理完毕的桶
+            buckets.removeIf(Bucket::isEmpty);
         }
-
-        batch.asMap().forEach(((container, bucketList) -> {
-            List<Object> targets = bucketList.stream()
-                .map(Bucket::getTargets)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-            List<AssembleOperation> operations = bucketList.stream()
-                .map(Bucket::getOperations)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-            Multimap<AssembleOperation, Object> processData = LinkedListMultimap.create();
-            operations.forEach(op -> processData.putAll(op, targets));
-            container.process(processData);
-        }));
+        return new Plan(Collections.unmodifiableList(rounds));
     }
 
     /**
@@ -102,11 +176,40 @@ public class SequentialOperationExecutor implements OperationExecutor {
         @Nonnull Collection<Object> targets,
         @Nonnull OperationConfiguration configuration,
         @Nonnull Multimap<OperationConfiguration, Object> collectedConfigurations) {
+        return collectOperationConfigurations(targets, configuration, collectedConfigurations, new HashMap<>());
+    }
+
+    /**
+     * 解析并收集待处理对象，以及待处理对象中的嵌套对象所对应的操作配置。<br />
+     * 同一对象实例在同一类操作配置下仅会被收集一次。
+     *
+     * @param targets 待处理对象
+     * @param configuration 待处理对象的操作配置
+     * @param collectedConfigurations 已收集的操作配置
+     * @param visitedTargets 各类操作配置下已经收集过的对象
+     * @return com.google.common.collect.Multimap<io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration,java.lang.Object>
+     * @author huangchengxing
+     * @date 2022/7/21 10:15
+     */
+    @Nonnull
+    protected Multimap<OperationConfiguration, Object> collectOperationConfigurations(
+        @Nonnull Collection<Object> targets,
+        @Nonnull OperationConfiguration configuration,
+        @Nonnull Multimap<OperationConfiguration, Object> collectedConfigurations,
+        @Nonnull Map<OperationConfiguration, Set<Object>> visitedTargets) {
         // 若无待操作数据则结束解析
         if (CollectionUtils.isEmpty(targets)) {
             return collectedConfigurations;
         }
-        targets.forEach(t -> collectedConfigurations.put(configuration, t));
+        // 按引用去重，跳过已经收集过的对象
+        Set<Object> visited = visitedTargets.computeIfAbsent(configuration, c -> Collections.newSetFromMap(new IdentityHashMap<>()));
+        targets = targets.stream()
+            .filter(visited::add)
+            .collect(Collectors.toList());
+        if (targets.isEmpty()) {
+            return collectedConfigurations;
+        }
+        collectedConfigurations.putAll(configuration, targets);
 
         // 若无嵌套字段则结束解析
         List<DisassembleOperation> disassembleOperations = configuration.getDisassembleOperations();
@@ -117,46 +220,61 @@ public class SequentialOperationExecutor implements OperationExecutor {
         // 若存在嵌套字段递归解析
         for (DisassembleOperation operation : disassembleOperations) {
             DisassembleOperation.collect(operation, targets).asMap()
-                .forEach((config, values) -> collectOperationConfigurations(values, config, collectedConfigurations));
+                .forEach((config, values) -> collectOperationConfigurations(values, config, collectedConfigurations, visitedTargets));
         }
         return collectedConfigurations;
     }
 
-    @Data
+    /**
+     * 执行计划，由按顺序执行的多轮容器访问组成
+     */
+    @Getter
+    @RequiredArgsConstructor
+    protected static class Plan {
+        private final List<Round> rounds;
+    }
+
+    /**
+     * 一轮容器访问，包括要访问的容器，以及各类操作配置中本轮要通过该容器完成的操作
+     */
+    @Getter
+    @RequiredArgsConstructor
+    protected static class Round {
+        private final Container container;
+        private final Map<OperationConfiguration, List<AssembleOperation>> operations;
+    }
+
+    /**
+     * 生成执行计划时使用的桶，存放一个类操作配置中尚未被分配到任意一轮的操作
+     */
+    @Getter
     private static class Bucket {
-        private final List<AssembleOperation> operations;
-        private final Collection<Object> targets;
-        private final Set<Class<?>> targetGroups;
+        private final OperationConfiguration configuration;
+        private final Deque<AssembleOperation> operations;
 
-        public Bucket(List<AssembleOperation> operations, Collection<Object> targets, Set<Class<?>> targetGroups) {
-            this.operations = operations.stream()
-                .filter(op -> CollUtil.containsAny(targetGroups, op.getGroups()))
+        public Bucket(OperationConfiguration configuration, Set<Class<?>> targetGroups) {
+            this.configuration = configuration;
+            long targetGroupMask = GroupMask.of(targetGroups);
+            this.operations = configuration.getAssembleOperations().stream()
+                .filter(op -> GroupMask.containsAny(targetGroupMask, targetGroups, op.getGroupMask(), op.getGroups()))
                 .sorted(Orderly::compareTo)
-                .collect(Collectors.toList());
-            this.targets = targets;
-            this.targetGroups = targetGroups;
+                .collect(Collectors.toCollection(ArrayDeque::new));
         }
 
         public Container peekContainerOfFirstOperation() {
-            return isEmpty() ? null : CollUtil.getFirst(operations).getContainer();
+            return isEmpty() ? null : operations.getFirst().getContainer();
         }
 
-        public Bucket getOperations(Container container) {
+        public List<AssembleOperation> pollOperations(Container container) {
             List<AssembleOperation> matched = new ArrayList<>();
-            Iterator<AssembleOperation> iterator = operations.iterator();
-            while (iterator.hasNext()) {
-                AssembleOperation curr = iterator.next();
-                if (!Objects.equals(curr.getContainer(), container)) {
-                    break;
-                }
-                matched.add(curr);
-                iterator.remove();
+            while (!operations.isEmpty() && Objects.equals(operations.getFirst().getContainer(), container)) {
+                matched.add(operations.removeFirst());
             }
-            return new Bucket(matched, targets, targetGroups);
+            return matched;
         }
 
         public boolean isEmpty() {
-            return CollectionUtils.isEmpty(operations);
+            return operations.isEmpty();
         }
 
         public boolean isNotEmpty() {
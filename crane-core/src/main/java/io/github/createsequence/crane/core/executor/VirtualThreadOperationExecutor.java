@@ -0,0 +1,131 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.lang.Assert;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>基于虚拟线程的{@link AsyncUnorderedOperationExecutor}。
+ *
+ * <p>当运行在JDK21及以上版本时，每个容器的处理任务都将在一个新的虚拟线程中执行，
+ * 因此即使容器需要进行阻塞的数据库或远程调用，也无需再根据数据源的数量与响应时间调整线程池大小。<br />
+ * 当运行在更低版本的JDK时，将退化为使用一个固定大小的平台线程池。
+ *
+ * <p>由于项目本身基于JDK1.8编译，因此虚拟线程池是在运行时通过{@link MethodHandle}创建的。
+ * 执行器不再使用时，应当调用{@link #shutdown()}关闭其内部线程池。
+ *
+ * @author huangchengxing
+ * @date 2022/07/20 15:20
+ * @see AsyncUnorderedOperationExecutor
+ */
+@Slf4j
+public class VirtualThreadOperationExecutor extends AsyncUnorderedOperationExecutor {
+
+    /**
+     * 无法使用虚拟线程时，默认的平台线程池大小
+     */
+    public static final int DEFAULT_FALLBACK_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 4;
+
+    private final ExecutorService executorService;
+
+    /**
+     * 是否正在使用虚拟线程
+     */
+    @Getter
+    private final boolean virtualThreadEnabled;
+
+    public VirtualThreadOperationExecutor() {
+        this(DEFAULT_FALLBACK_POOL_SIZE);
+    }
+
+    /**
+     * 创建一个执行器
+     *
+     * @param fallbackPoolSize 无法使用虚拟线程时，平台线程池的大小
+     */
+    public VirtualThreadOperationExecutor(int fallbackPoolSize) {
+        this(createExecutorService(fallbackPoolSize));
+    }
+
+    private VirtualThreadOperationExecutor(ExecutorService executorService) {
+        super(executorService);
+        this.executorService = executorService;
+        this.virtualThreadEnabled = !(executorService instanceof ThreadPoolExecutor);
+    }
+
+    /**
+     * 关闭内部线程池
+     *
+     * @author huangchengxing
+     * @date 2022/7/20 15:40
+     */
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     *
+     * @return boolean
+     * @author huangchengxing
+     * @date 2022/7/20 15:40
+     */
+    public static boolean isVirtualThreadSupported() {
+        return Objects.nonNull(VirtualThreadExecutorFactory.FACTORY);
+    }
+
+    private static ExecutorService createExecutorService(int fallbackPoolSize) {
+        ExecutorService virtualThreadExecutor = VirtualThreadExecutorFactory.create();
+        if (Objects.nonNull(virtualThreadExecutor)) {
+            return virtualThreadExecutor;
+        }
+        Assert.isTrue(fallbackPoolSize > 0, "fallbackPoolSize must be greater than 0");
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+            fallbackPoolSize, fallbackPoolSize, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "crane-executor-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * 用于通过{@code Executors#newVirtualThreadPerTaskExecutor}创建虚拟线程池，若当前JDK不支持则为空
+     */
+    private static class VirtualThreadExecutorFactory {
+
+        private static final MethodHandle FACTORY = findFactory();
+
+        private static MethodHandle findFactory() {
+            try {
+                return MethodHandles.publicLookup().findStatic(
+                    Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class)
+                );
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        static ExecutorService create() {
+            if (Objects.isNull(FACTORY)) {
+                return null;
+            }
+            try {
+                return (ExecutorService) FACTORY.invoke();
+            } catch (Throwable e) {
+                log.warn("虚拟线程池创建失败，将使用平台线程池代替，错误信息：{}", e.getMessage());
+                return null;
+            }
+        }
+
+    }
+
+}
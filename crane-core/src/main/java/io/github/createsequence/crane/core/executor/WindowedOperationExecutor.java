@@ -0,0 +1,132 @@
+package io.github.createsequence.crane.core.executor;
+
+import cn.hutool.core.lang.Assert;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>基于窗口的{@link OperationExecutor}装饰器，用于流式的处理数量庞大或数量未知的数据。
+ *
+ * <p>处理时，每次仅从待处理数据中读取至多{@link #windowSize}个对象作为一个窗口，
+ * 并交由被装饰的执行器处理，处理完毕后再将该窗口交给下游，然后继续读取下一个窗口。<br />
+ * 因此，无论待处理数据有多少，同一时间内仅需持有一个窗口中的对象及其操作配置，
+ * 适用于处理数据库游标、{@link Stream}等无法或不应一次性全部加载到内存中的数据。
+ *
+ * <p>由于每个窗口会单独调用一次被装饰执行器，因此数据源的获取次数将与窗口数量成正比，
+ * 窗口大小应当根据单次获取数据源的代价与可用内存综合考虑。
+ *
+ * @author huangchengxing
+ * @date 2022/07/17 10:12
+ */
+public class WindowedOperationExecutor implements OperationExecutor {
+
+    /**
+     * 默认的窗口大小
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+
+    private final OperationExecutor delegate;
+    private final int windowSize;
+
+    public WindowedOperationExecutor(OperationExecutor delegate) {
+        this(delegate, DEFAULT_WINDOW_SIZE);
+    }
+
+    public WindowedOperationExecutor(OperationExecutor delegate, int windowSize) {
+        Assert.notNull(delegate, "delegate executor must not be null");
+        Assert.isTrue(windowSize > 0, "windowSize must be greater than 0");
+        this.delegate = delegate;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public void execute(Iterable<?> targets, OperationConfiguration operationConfiguration, @Nonnull Set<Class<?>> groups) {
+        if (Objects.isNull(targets)) {
+            return;
+        }
+        execute(targets.iterator(), operationConfiguration, groups, window -> {});
+    }
+
+    /**
+     * 按窗口处理数据，每个窗口处理完毕后交由下游处理
+     *
+     * @param targets 待处理数据
+     * @param operationConfiguration 目标类操作配置
+     * @param groups 操作的组，若组为空则将不操作任何数据
+     * @param downstream 下游操作
+     * @author huangchengxing
+     * @date 2022/7/17 10:20
+     */
+    public <T> void execute(
+        Iterator<T> targets, OperationConfiguration operationConfiguration,
+        @Nonnull Set<Class<?>> groups, @Nonnull Consumer<? super List<T>> downstream) {
+        if (Objects.isNull(targets)) {
+            return;
+        }
+        new WindowIterator<>(targets, operationConfiguration, groups).forEachRemaining(downstream);
+    }
+
+    /**
+     * 按窗口处理数据，并返回一个惰性的流。<br />
+     * 仅当流被消费时，才会读取并处理下一个窗口。流关闭时，将一并关闭原始流。
+     *
+     * @param targets 待处理数据
+     * @param operationConfiguration 目标类操作配置
+     * @param groups 操作的组，若组为空则将不操作任何数据
+     * @return java.util.stream.Stream<T>
+     * @author huangchengxing
+     * @date 2022/7/17 10:20
+     */
+    public <T> Stream<T> execute(
+        Stream<T> targets, OperationConfiguration operationConfiguration, @Nonnull Set<Class<?>> groups) {
+        if (Objects.isNull(targets)) {
+            return Stream.empty();
+        }
+        Iterator<List<T>> windows = new WindowIterator<>(targets.iterator(), operationConfiguration, groups);
+        Spliterator<List<T>> spliterator = Spliterators.spliteratorUnknownSize(windows, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false)
+            .flatMap(List::stream)
+            .onClose(targets::close);
+    }
+
+    /**
+     * 每次读取并处理一个窗口的迭代器
+     */
+    private class WindowIterator<T> implements Iterator<List<T>> {
+
+        private final Iterator<T> targets;
+        private final OperationConfiguration configuration;
+        private final Set<Class<?>> groups;
+
+        WindowIterator(Iterator<T> targets, OperationConfiguration configuration, Set<Class<?>> groups) {
+            this.targets = targets;
+            this.configuration = configuration;
+            this.groups = groups;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return targets.hasNext();
+        }
+
+        @Override
+        public List<T> next() {
+            if (!targets.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<T> window = new ArrayList<>(windowSize);
+            while (window.size() < windowSize && targets.hasNext()) {
+                window.add(targets.next());
+            }
+            delegate.execute(window, configuration, groups);
+            return window;
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package io.github.createsequence.crane.core.helper;
+
+import cn.hutool.core.collection.CollUtil;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>操作组掩码工具类。
+ *
+ * <p>每个操作组在首次使用时会被分配一个唯一的整数id，一组操作组可以据此表示为一个long类型的位掩码，
+ * 从而将判断两组操作组是否存在交集的操作，简化为一次按位与运算。<br />
+ * 掩码的前63位分别对应id为0至62的操作组，当操作组数量超过63个时，id更大的操作组统一使用最高位表示。
+ * 若两个掩码仅在最高位存在交集，则需要再通过{@link CollUtil#containsAny}比较原始的操作组集合。<br />
+ * 操作组的id通过{@link ClassValue}记录，因此不会阻止操作组所在的类加载器被卸载。
+ *
+ * @author huangchengxing
+ * @date 2022/07/22 14:10
+ */
+public final class GroupMask {
+
+    /**
+     * 溢出位，表示掩码中存在id大于等于63的操作组
+     */
+    public static final long OVERFLOW_BIT = 1L << 63;
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final ClassValue<Integer> GROUP_IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_ID.getAndIncrement();
+        }
+    };
+
+    private GroupMask() {
+    }
+
+    /**
+     * 获取一组操作组对应的掩码
+     *
+     * @param groups 操作组
+     * @return long
+     * @author huangchengxing
+     * @date 2022/7/22 14:15
+     */
+    public static long of(Collection<Class<?>> groups) {
+        if (CollUtil.isEmpty(groups)) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (Class<?> group : groups) {
+            int id = GROUP_IDS.get(group);
+            mask |= id < 63 ? 1L << id : OVERFLOW_BIT;
+        }
+        return mask;
+    }
+
+    /**
+     * 判断两组操作组是否存在交集
+     *
+     * @param mask 操作组掩码
+     * @param groups 操作组
+     * @param otherMask 另一组操作组的掩码
+     * @param otherGroups 另一组操作组
+     * @return boolean
+     * @author huangchengxing
+     * @date 2022/7/22 14:15
+     */
+    public static boolean containsAny(long mask, Collection<Class<?>> groups, long otherMask, Collection<Class<?>> otherGroups) {
+        long intersection = mask & otherMask;
+        if ((intersection & ~OVERFLOW_BIT) != 0) {
+            return true;
+        }
+        return intersection != 0 && CollUtil.containsAny(groups, otherGroups);
+    }
+
+}
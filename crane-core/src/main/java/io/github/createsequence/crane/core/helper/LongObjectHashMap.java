@@ -0,0 +1,216 @@
+package io.github.createsequence.crane.core.helper;
+
+import cn.hutool.core.lang.Assert;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>以基本类型long为key的哈希表。
+ *
+ * <p>使用开放寻址法与线性探测存储键值对，key直接存放在long数组中，
+ * 因此写入与查找时不需要将key装箱为{@link Long}，也不会为每个键值对创建额外的节点对象。<br />
+ * 该哈希表不允许存放null值，写入null值将被忽略；也不支持删除，仅适用于一次性构建后只读的场景。
+ *
+ * <p>该类不是线程安全的，但构建完毕后允许多个线程同时读取。
+ *
+ * @param <V> 值类型
+ * @author huangchengxing
+ * @date 2022/07/23 14:10
+ */
+public class LongObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 创建一个哈希表
+     *
+     * @param expectedSize 预计存放的键值对数量
+     */
+    public LongObjectHashMap(int expectedSize) {
+        Assert.isTrue(expectedSize >= 0, "expectedSize must not be negative");
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * 将{@link Map}转为以long为key的哈希表，key为null或值为null的键值对将被忽略
+     *
+     * @param map 集合
+     * @return io.github.createsequence.crane.core.helper.LongObjectHashMap<V>
+     * @author huangchengxing
+     * @date 2022/7/23 14:30
+     */
+    public static <V> LongObjectHashMap<V> of(@Nullable Map<? extends Number, ? extends V> map) {
+        if (Objects.isNull(map)) {
+            return new LongObjectHashMap<>(0);
+        }
+        LongObjectHashMap<V> result = new LongObjectHashMap<>(map.size());
+        map.forEach((k, v) -> {
+            if (Objects.nonNull(k)) {
+                result.put(k.longValue(), v);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 对key数组排序并去重，返回的数组仅包含前{@code length}个元素中不重复的key
+     *
+     * @param keys key数组
+     * @param length 有效元素数量
+     * @return long[]
+     * @author huangchengxing
+     * @date 2022/7/23 14:40
+     */
+    public static long[] distinct(long[] keys, int length) {
+        if (length == 0) {
+            return new long[0];
+        }
+        long[] sorted = Arrays.copyOf(keys, length);
+        Arrays.sort(sorted);
+        int count = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[count - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+    }
+
+    /**
+     * 添加键值对
+     *
+     * @param key key
+     * @param value 值，为null时将被忽略
+     * @return 该key原本对应的值
+     * @author huangchengxing
+     * @date 2022/7/23 14:20
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(long key, @Nullable V value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        int index = indexOf(key);
+        Object previous = values[index];
+        values[index] = value;
+        if (Objects.isNull(previous)) {
+            keys[index] = key;
+            if (++size > (values.length >>> 1)) {
+                resize();
+            }
+        }
+        return (V) previous;
+    }
+
+    /**
+     * 获取key对应的值
+     *
+     * @param key key
+     * @return 值，不存在时返回null
+     * @author huangchengxing
+     * @date 2022/7/23 14:20
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[indexOf(key)];
+    }
+
+    public boolean containsKey(long key) {
+        return Objects.nonNull(values[indexOf(key)]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取全部key
+     *
+     * @return long[]
+     * @author huangchengxing
+     * @date 2022/7/23 14:20
+     */
+    public long[] keys() {
+        long[] results = new long[size];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (Objects.nonNull(values[i])) {
+                results[count++] = keys[i];
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (Objects.nonNull(values[i])) {
+                builder.append(builder.length() > 1 ? ", " : "").append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * 获取key所在的位置，若key不存在，则返回探测到的第一个空位置
+     */
+    private int indexOf(long key) {
+        int index = hash(key) & mask;
+        while (Objects.nonNull(values[index]) && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldValues.length << 1);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (Objects.nonNull(oldValues[i])) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * 获取能够容纳指定数量键值对的容量，保证装载因子不超过0.5
+     */
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1;
+        return Math.max(capacity, DEFAULT_CAPACITY);
+    }
+
+}
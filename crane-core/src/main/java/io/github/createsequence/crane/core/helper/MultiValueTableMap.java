@@ -45,6 +45,10 @@ public class MultiValueTableMap<R, C, V> {
         }
     }
 
+    public void putAll(MultiValueTableMap<R, C, V> other) {
+        other.rowMap.forEach((rowKey, colMap) -> getOrCreate(rowKey).putAll(colMap));
+    }
+
     public Map<R, Multimap<C, V>> asMap() {
         return this.rowMap;
     }
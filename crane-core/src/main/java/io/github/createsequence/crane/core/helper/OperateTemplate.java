@@ -1,19 +1,28 @@
 package io.github.createsequence.crane.core.helper;
 
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ArrayUtil;
 import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.cache.SourceScope;
 import io.github.createsequence.crane.core.executor.OperationExecutor;
+import io.github.createsequence.crane.core.executor.WindowedOperationExecutor;
 import io.github.createsequence.crane.core.parser.interfaces.OperateConfigurationParser;
 import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
 import lombok.RequiredArgsConstructor;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Collection;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * 操作辅助类，用于一步完成配置解析、配置执行操作，从而快速完成数据处理 <br />
  * 初始化后为实例指定默认的配置缓存、操作者工厂、解析器、执行器，
- * 处理数据时，根据需求自行选择重载方法以选择哪些组件使用指定配置，其余组件皆使用默认配置。
+ * 处理数据时，根据需求自行选择重载方法以选择哪些组件使用指定配置，其余组件皆使用默认配置。<br />
+ * 同步处理数据时将开启{@link SourceScope}，若调用方已经开启了作用域，则多次处理数据时将复用已经获取过的数据源。
  *
  * @author huangchengxing
  * @date 2022/04/09 23:19
@@ -49,7 +58,7 @@ public class OperateTemplate {
      * @date 2022/4/9 23:44
      */
     public void process(Object target, OperationConfiguration configuration, OperationExecutor executor, @Nullable Class<?>... groups) {
-        executor.execute(CollUtils.adaptToCollection(target), configuration, groups);
+        SourceScope.run(() -> executor.execute(CollUtils.adaptToCollection(target), configuration, groups));
     }
 
     /**
@@ -75,11 +84,9 @@ public class OperateTemplate {
             return;
         }
         // 解析配置
-        OperationConfiguration configuration = configurationCache.getOrCached(
-            parser.getClass().getName(), targetClass, parser::parse
-        );
+        OperationConfiguration configuration = getConfiguration(parser, targetClass);
         // 根据处理数据
-        executor.execute(targets, configuration, groups);
+        SourceScope.run(() -> executor.execute(targets, configuration, groups));
     }
 
     /**
@@ -119,4 +126,84 @@ public class OperateTemplate {
         process(target, defaultOperateConfigurationParser, defaultOperationExecutor, groups);
     }
 
+    /**
+     * 使用默认执行器和配置解析器异步的处理数据
+     *
+     * @param target 待处理数据
+     * @param groups 要处理的指定组，为空则默认为{@link DefaultGroup}
+     * @return java.util.concurrent.CompletionStage<java.lang.Void>
+     * @author huangchengxing
+     * @date 2022/7/18 10:20
+     * @see OperationExecutor#executeAsync(Iterable, OperationConfiguration, Class[])
+     */
+    public CompletionStage<Void> processAsync(Object target, @Nullable Class<?>... groups) {
+        return processAsync(target, defaultOperationExecutor, groups);
+    }
+
+    /**
+     * 使用默认配置解析器与指定执行器异步的处理数据
+     *
+     * @param target 待处理数据
+     * @param executor 执行器
+     * @param groups 要处理的指定组，为空则默认为{@link DefaultGroup}
+     * @return java.util.concurrent.CompletionStage<java.lang.Void>
+     * @author huangchengxing
+     * @date 2022/7/18 10:20
+     * @see OperationExecutor#executeAsync(Iterable, OperationConfiguration, Class[])
+     */
+    public CompletionStage<Void> processAsync(Object target, OperationExecutor executor, @Nullable Class<?>... groups) {
+        Class<?> targetClass = ObjectUtils.getClass(target);
+        if (Objects.isNull(targetClass)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        OperationConfiguration configuration = getConfiguration(defaultOperateConfigurationParser, targetClass);
+        return executor.executeAsync(CollUtils.adaptToCollection(target), configuration, groups);
+    }
+
+    /**
+     * 使用默认执行器和配置解析器，按窗口流式的处理数据。<br />
+     * 返回的流是惰性的，仅当其被消费时才会读取并处理下一个窗口，因此适用于处理数据库游标等数量庞大的数据。
+     *
+     * @param targets 待处理数据
+     * @param targetClass 待处理数据类型
+     * @param windowSize 窗口大小
+     * @param groups 要处理的指定组，为空则默认为{@link DefaultGroup}
+     * @return java.util.stream.Stream<T>
+     * @author huangchengxing
+     * @date 2022/7/17 10:45
+     * @see WindowedOperationExecutor
+     */
+    public <T> Stream<T> processInWindows(Stream<T> targets, Class<T> targetClass, int windowSize, @Nullable Class<?>... groups) {
+        OperationConfiguration configuration = getConfiguration(defaultOperateConfigurationParser, targetClass);
+        return new WindowedOperationExecutor(defaultOperationExecutor, windowSize)
+            .execute(targets, configuration, asGroups(groups));
+    }
+
+    /**
+     * 使用默认执行器和配置解析器，按窗口处理数据，每个窗口处理完毕后交由下游处理
+     *
+     * @param targets 待处理数据
+     * @param targetClass 待处理数据类型
+     * @param windowSize 窗口大小
+     * @param downstream 下游操作
+     * @param groups 要处理的指定组，为空则默认为{@link DefaultGroup}
+     * @author huangchengxing
+     * @date 2022/7/17 10:45
+     * @see WindowedOperationExecutor
+     */
+    public <T> void processInWindows(
+        Iterator<T> targets, Class<T> targetClass, int windowSize,
+        @Nonnull Consumer<? super List<T>> downstream, @Nullable Class<?>... groups) {
+        OperationConfiguration configuration = getConfiguration(defaultOperateConfigurationParser, targetClass);
+        new WindowedOperationExecutor(defaultOperationExecutor, windowSize)
+            .execute(targets, configuration, asGroups(groups), downstream);
+    }
+
+    private OperationConfiguration getConfiguration(OperateConfigurationParser parser, Class<?> targetClass) {
+        return configurationCache.getOrCached(parser.getClass().getName(), targetClass, parser::parse);
+    }
+
+    private static Set<Class<?>> asGroups(Class<?>... groups) {
+        return ArrayUtil.isNotEmpty(groups) ? CollUtil.newHashSet(groups) : Collections.singleton(DefaultGroup.class);
+    }
 }
@@ -0,0 +1,99 @@
+package io.github.createsequence.crane.core.helper;
+
+import cn.hutool.core.convert.BasicType;
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.convert.Converter;
+import cn.hutool.core.convert.ConverterRegistry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * <p>类型转换工具类，为每一组“实际类型-目标类型”缓存解析后的转换方法。
+ *
+ * <p>{@link Convert#convert(Class, Object)}每次调用时都需要从{@link ConverterRegistry}中查找转换器，
+ * 对于需要转换大量key值或方法参数的场景，该查找过程会被重复成千上万次。
+ * 该工具类在首次遇到某一组类型时解析对应的转换方法，之后直接复用：
+ * <ul>
+ *     <li>若实际类型与目标类型一致，或目标类型为{@link Object}，且目标类型不是集合或数组并且没有注册自定义转换器，则直接返回原值；</li>
+ *     <li>若{@link ConverterRegistry}中存在目标类型的转换器，则直接使用该转换器；</li>
+ *     <li>否则与原本一样使用{@link Convert#convert(Class, Object)}进行转换；</li>
+ * </ul>
+ * <b>注意：转换方法被解析后即被缓存，因此应当在首次转换前完成自定义转换器的注册</b>
+ *
+ * @author huangchengxing
+ * @date 2022/07/24 10:15
+ * @see Convert
+ * @see ConverterRegistry
+ */
+public final class TypeConverters {
+
+    /**
+     * 按目标类型与实际类型缓存的转换方法
+     */
+    private static final ClassValue<Map<Class<?>, Function<Object, Object>>> CONVERTERS = new ClassValue<Map<Class<?>, Function<Object, Object>>>() {
+        @Override
+        protected Map<Class<?>, Function<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private TypeConverters() {
+    }
+
+    /**
+     * 将对象转为指定类型
+     *
+     * @param targetType 目标类型，为空时直接返回原值
+     * @param value 待转换的值
+     * @return T
+     * @author huangchengxing
+     * @date 2022/7/24 10:20
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> T convert(@Nullable Class<T> targetType, @Nullable Object value) {
+        if (Objects.isNull(value) || Objects.isNull(targetType)) {
+            return (T) value;
+        }
+        return (T) getConverter(value.getClass(), targetType).apply(value);
+    }
+
+    /**
+     * 获取从实际类型转为目标类型的转换方法
+     *
+     * @param sourceType 实际类型
+     * @param targetType 目标类型
+     * @return java.util.function.Function<java.lang.Object,java.lang.Object>
+     * @author huangchengxing
+     * @date 2022/7/24 10:20
+     */
+    @Nonnull
+    public static Function<Object, Object> getConverter(@Nonnull Class<?> sourceType, @Nonnull Class<?> targetType) {
+        Map<Class<?>, Function<Object, Object>> converters = CONVERTERS.get(targetType);
+        Function<Object, Object> converter = converters.get(sourceType);
+        return Objects.nonNull(converter) ?
+            converter : converters.computeIfAbsent(sourceType, s -> resolveConverter(s, targetType));
+    }
+
+    private static Function<Object, Object> resolveConverter(Class<?> sourceType, Class<?> targetType) {
+        ConverterRegistry registry = ConverterRegistry.getInstance();
+        // 类型一致时无需转换，基本类型按其包装类型比较，集合与数组仍需要按原本的方式复制
+        boolean matched = BasicType.wrap(targetType) == sourceType || targetType == Object.class;
+        boolean copied = Collection.class.isAssignableFrom(targetType) || Map.class.isAssignableFrom(targetType) || targetType.isArray();
+        if (matched && !copied && Objects.isNull(registry.getCustomConverter(targetType))) {
+            return Function.identity();
+        }
+        Converter<Object> converter = registry.getConverter(targetType, true);
+        if (Objects.nonNull(converter)) {
+            return value -> converter.convert(value, null);
+        }
+        return value -> Convert.convert(targetType, value);
+    }
+
+}
@@ -2,6 +2,7 @@ package io.github.createsequence.crane.core.helper.invoker;
 
 import cn.hutool.core.convert.Convert;
 import cn.hutool.core.util.ArrayUtil;
+import io.github.createsequence.crane.core.helper.TypeConverters;
 import lombok.RequiredArgsConstructor;
 
 import javax.annotation.Nullable;
@@ -14,6 +15,7 @@ import java.util.Objects;
  * @date 2022/06/07 17:51
  * @since 0.5.5
  * @see Convert
+ * @see TypeConverters
  * @see MethodInvoker
  */
 @RequiredArgsConstructor
@@ -29,7 +31,7 @@ public class ParamTypeAutoConvertInvoker implements MethodInvoker {
             for (int i = 0; i < paramTypes.length; i++) {
                 Object arg = args[i];
                 Class<?> methodArgType = paramTypes[i];
-                args[i] = Convert.convert(methodArgType, arg);
+                args[i] = TypeConverters.convert(methodArgType, arg);
             }
         }
         return method.invoke(target, args);
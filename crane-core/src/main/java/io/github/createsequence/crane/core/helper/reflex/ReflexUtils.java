@@ -31,6 +31,22 @@ public class ReflexUtils {
     private ReflexUtils() {
     }
 
+    /**
+     * 判断类是否重写了指定父类中声明的方法
+     *
+     * @param targetClass 类
+     * @param declaringClass 声明该方法的父类
+     * @param methodName 方法名称
+     * @param paramTypes 参数类型
+     * @return boolean
+     * @author huangchengxing
+     * @date 2022/7/27 15:00
+     */
+    public static boolean isOverridden(Class<?> targetClass, Class<?> declaringClass, String methodName, Class<?>... paramTypes) {
+        Method method = ReflectionUtils.findMethod(targetClass, methodName, paramTypes);
+        return Objects.nonNull(method) && !Objects.equals(method.getDeclaringClass(), declaringClass);
+    }
+
     /**
      * 从类中查找指定方法
      *
@@ -10,7 +10,6 @@ import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperatio
 import io.github.createsequence.crane.core.parser.interfaces.DynamicDisassembleOperation;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.util.ClassUtils;
 
 import java.util.*;
 
@@ -34,22 +33,29 @@ public class BeanReflexDisassembler implements Disassembler {
         Object disassemblePropertyValue = operateProcessor.readFromSource(
             target, BeanPropertyMapping.ofNameOnlyProperty(operation.getTargetProperty().getName()), operation
         );
-        Deque<Object> deque = new LinkedList<>();
-        deque.add(disassemblePropertyValue);
+        if (Objects.isNull(disassemblePropertyValue)) {
+            return results;
+        }
+        Class<?> targetClass = operation.getTargetOperateConfiguration().getTargetClass();
+        Deque<Object> deque = new ArrayDeque<>();
+        deque.addLast(disassemblePropertyValue);
         while (!deque.isEmpty()) {
-            CollUtils.adaptToCollection(deque.removeFirst())
-                .stream().filter(Objects::nonNull)
-                .forEach(searchNode -> processNode(searchNode, deque, results, operation));
+            for (Object searchNode : CollUtils.adaptToCollection(deque.pollFirst())) {
+                if (Objects.nonNull(searchNode)) {
+                    processNode(searchNode, targetClass, deque, results, operation);
+                }
+            }
         }
         return results;
     }
 
-    private void processNode(Object target, Deque<Object> searchQueue, List<Object> resultList, DisassembleOperation operation) {
-        if (ClassUtils.isAssignable(Collection.class, target.getClass())) {
+    private void processNode(
+        Object target, Class<?> targetClass, Deque<Object> searchQueue, List<Object> resultList, DisassembleOperation operation) {
+        if (target instanceof Collection) {
             searchQueue.addLast(target);
             return;
         }
-        if (ClassUtils.isAssignable(operation.getTargetOperateConfiguration().getTargetClass(), target.getClass())){
+        if (targetClass.isInstance(target)) {
             resultList.add(target);
             return;
         }
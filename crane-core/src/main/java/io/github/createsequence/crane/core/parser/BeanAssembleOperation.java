@@ -1,12 +1,12 @@
 package io.github.createsequence.crane.core.parser;
 
 import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.helper.GroupMask;
 import io.github.createsequence.crane.core.operator.interfaces.Assembler;
 import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
 import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
 import io.github.createsequence.crane.core.parser.interfaces.PropertyMapping;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.Field;
 import java.util.List;
@@ -19,7 +19,6 @@ import java.util.Set;
  * @date 2022/03/01 16:07
  */
 @Getter
-@RequiredArgsConstructor
 public class BeanAssembleOperation implements AssembleOperation {
 
     private final int order;
@@ -32,4 +31,24 @@ public class BeanAssembleOperation implements AssembleOperation {
     private final List<PropertyMapping> propertyMappings;
     private final Set<Class<?>> groups;
 
+    /**
+     * 分组对应的掩码，在创建时预先计算
+     */
+    private final long groupMask;
+
+    public BeanAssembleOperation(
+        int order, OperationConfiguration owner, Field targetProperty, Set<String> targetPropertyAliases,
+        String namespace, Container container, Assembler assembler, List<PropertyMapping> propertyMappings, Set<Class<?>> groups) {
+        this.order = order;
+        this.owner = owner;
+        this.targetProperty = targetProperty;
+        this.targetPropertyAliases = targetPropertyAliases;
+        this.namespace = namespace;
+        this.container = container;
+        this.assembler = assembler;
+        this.propertyMappings = propertyMappings;
+        this.groups = groups;
+        this.groupMask = GroupMask.of(groups);
+    }
+
 }
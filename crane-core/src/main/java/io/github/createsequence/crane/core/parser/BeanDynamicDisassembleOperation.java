@@ -1,7 +1,7 @@
 package io.github.createsequence.crane.core.parser;
 
-import cn.hutool.core.collection.CollUtil;
 import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.helper.ObjectUtils;
 import io.github.createsequence.crane.core.operator.interfaces.Disassembler;
 import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
 import io.github.createsequence.crane.core.parser.interfaces.DynamicDisassembleOperation;
@@ -11,7 +11,9 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import javax.annotation.Nullable;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.Objects;
@@ -39,7 +41,7 @@ public class BeanDynamicDisassembleOperation implements DynamicDisassembleOperat
     @Override
     public OperationConfiguration getTargetOperateConfiguration(Object target) {
         Class<?> targetClass = getTargetClass(target);
-        return configurationCache.getOrCached(
+        return Objects.isNull(targetClass) ? null : configurationCache.getOrCached(
             configurationParser.getClass().getName(),
             targetClass,
             configurationParser::parse
@@ -60,16 +62,20 @@ public class BeanDynamicDisassembleOperation implements DynamicDisassembleOperat
             return null;
         }
         Class<?> targetClass = null;
-        Deque<Object> deque = CollUtil.newLinkedList(target);
+        Deque<Object> deque = new ArrayDeque<>();
+        deque.addLast(target);
         while (!deque.isEmpty()) {
-            Object targetObj = deque.removeFirst();
-            if (Objects.isNull(targetObj)) {
-                continue;
-            }
+            Object targetObj = deque.pollFirst();
             // 若是collection集合或者数组则继续遍历
             targetClass = targetObj.getClass();
-            if ((targetObj instanceof Collection) || targetClass.isArray()) {
-                CollUtil.addAll(deque, targetObj);
+            if (targetObj instanceof Collection) {
+                ((Collection<?>) targetObj).stream().filter(Objects::nonNull).forEach(deque::addLast);
+                continue;
+            }
+            if (targetClass.isArray()) {
+                for (int i = 0, len = Array.getLength(targetObj); i < len; i++) {
+                    ObjectUtils.acceptIfNotNull(Array.get(targetObj, i), deque::addLast);
+                }
                 continue;
             }
             // 若是对象，则直接取该对象类型作为目标类型
@@ -1,6 +1,7 @@
 package io.github.createsequence.crane.core.parser.interfaces;
 
 import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.helper.GroupMask;
 import io.github.createsequence.crane.core.operator.interfaces.Assembler;
 
 import java.util.List;
@@ -81,4 +82,16 @@ public interface AssembleOperation extends Operation {
      */
     Set<Class<?>> getGroups();
 
+    /**
+     * 获取分组对应的掩码
+     *
+     * @return long
+     * @author huangchengxing
+     * @date 2022/7/22 14:20
+     * @see GroupMask
+     */
+    default long getGroupMask() {
+        return GroupMask.of(getGroups());
+    }
+
 }
@@ -1,11 +1,14 @@
 package io.github.createsequence.crane.starter;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.text.CharSequenceUtil;
 import cn.hutool.core.util.ClassUtil;
 import io.github.createsequence.crane.core.annotation.MethodSourceBean;
 import io.github.createsequence.crane.core.aop.MethodResultProcessAspect;
+import io.github.createsequence.crane.core.aop.SourceScopeInterceptor;
 import io.github.createsequence.crane.core.cache.ConfigurationCache;
 import io.github.createsequence.crane.core.cache.OperationConfigurationCache;
+import io.github.createsequence.crane.core.cache.TinyLfuSourceCache;
 import io.github.createsequence.crane.core.container.*;
 import io.github.createsequence.crane.core.executor.OperationExecutor;
 import io.github.createsequence.crane.core.executor.SequentialOperationExecutor;
@@ -29,22 +32,27 @@ import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration
 import io.github.createsequence.crane.core.parser.interfaces.OperateConfigurationParser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 默认配置
@@ -196,9 +204,29 @@ public class CraneAutoConfiguration {
     @Order
     @ConditionalOnMissingBean(MethodSourceContainer.class)
     @Bean("DefaultCraneMethodSourceContainer")
-    public MethodSourceContainer methodSourceContainer(ApplicationContext applicationContext, BeanPropertyFactory beanPropertyFactory) {
+    public MethodSourceContainer methodSourceContainer(
+        ApplicationContext applicationContext, BeanPropertyFactory beanPropertyFactory, CraneAutoConfigurationProperties craneAutoConfigurationProperties) {
         logContainerRegistered(MethodSourceContainer.class);
         MethodSourceContainer container = new MethodSourceContainer(beanPropertyFactory);
+        CraneAutoConfigurationProperties.MethodSourceConfigProperties methodSourceConfig = craneAutoConfigurationProperties.getMethodSource();
+        if (methodSourceConfig.getCoalescingWindowMillis() > 0) {
+            container.setKeyCoalescer(new KeyCoalescer<>(
+                methodSourceConfig.getCoalescingWindowMillis(), TimeUnit.MILLISECONDS, methodSourceConfig.getCoalescingMaxBatchSize()
+            ));
+        }
+        if (methodSourceConfig.getCacheMaximumSize() > 0) {
+            TinyLfuSourceCache<Object, Object> sourceCache = new TinyLfuSourceCache<>(
+                methodSourceConfig.getCacheMaximumSize(), methodSourceConfig.getCacheExpireMillis(),
+                methodSourceConfig.getCacheNegativeExpireMillis(), TimeUnit.MILLISECONDS
+            );
+            methodSourceConfig.getNamespaceCaches().forEach((namespace, options) -> sourceCache.setNamespaceOptions(
+                namespace, options.getMaximumSize(), options.getExpireMillis(), options.getNegativeExpireMillis(), TimeUnit.MILLISECONDS
+            ));
+            container.setSourceCache(sourceCache);
+        }
+        if (CharSequenceUtil.isNotBlank(methodSourceConfig.getExecutorBeanName())) {
+            container.setExecutor(applicationContext.getBean(methodSourceConfig.getExecutorBeanName(), Executor.class));
+        }
         Map<String, Object> beans = applicationContext.getBeansWithAnnotation(MethodSourceBean.class);
         if (CollUtil.isNotEmpty(beans)) {
             beans.forEach((name, bean) -> container.register(bean));
@@ -258,6 +286,21 @@ public class CraneAutoConfiguration {
         return new MethodResultProcessAspect(beanFactory, configurationCache);
     }
 
+    @Order
+    @ConditionalOnProperty(prefix = "crane.source-scope", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean(name = "DefaultCraneSourceScopeAdvisor")
+    @Bean("DefaultCraneSourceScopeAdvisor")
+    public AspectJExpressionPointcutAdvisor sourceScopeAdvisor(CraneAutoConfigurationProperties craneAutoConfigurationProperties) {
+        String pointcut = craneAutoConfigurationProperties.getSourceScope().getPointcut();
+        log.info("启用数据源作用域，切点：{}", pointcut);
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression(pointcut);
+        advisor.setAdvice(new SourceScopeInterceptor());
+        // 先于其他切面开启作用域，使同一方法上的ProcessResult注解也能使用该作用域
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
     @Order
     @ConditionalOnMissingBean(OperateTemplate.class)
     @Bean("DefaultCraneOperateTemplate")
@@ -24,6 +24,10 @@ public class CraneAutoConfigurationProperties {
 
     private CacheConfigProperties cache = new CacheConfigProperties();
 
+    private MethodSourceConfigProperties methodSource = new MethodSourceConfigProperties();
+
+    private SourceScopeConfigProperties sourceScope = new SourceScopeConfigProperties();
+
     /**
      * 是否允许使用reflectasm优化反射性能
      */
@@ -65,4 +69,89 @@ public class CraneAutoConfigurationProperties {
 
     }
 
+    /**
+     * 数据源作用域配置
+     */
+    @Data
+    public static class SourceScopeConfigProperties {
+
+        /**
+         * 是否在切点匹配的方法执行期间开启数据源作用域，使期间多次处理数据时复用已经获取过的数据源
+         */
+        private boolean enabled = false;
+
+        /**
+         * 需要开启数据源作用域的方法的AspectJ切点表达式，默认为Controller中的方法，即每次请求共用一个作用域
+         */
+        private String pointcut = "@within(org.springframework.stereotype.Controller) || @within(org.springframework.web.bind.annotation.RestController)";
+
+    }
+
+    /**
+     * 方法数据源容器配置
+     */
+    @Data
+    public static class MethodSourceConfigProperties {
+
+        /**
+         * 合并并发调用中对同一命名空间的数据源获取请求时，批次的最大等待时间，单位毫秒，为0时不合并
+         */
+        private long coalescingWindowMillis = 0L;
+
+        /**
+         * 合并并发调用中对同一命名空间的数据源获取请求时，批次的最大key数量，超出时将拆分为多次获取
+         */
+        private int coalescingMaxBatchSize = 500;
+
+        /**
+         * 每个命名空间的数据源最大缓存数量，为0时不缓存，缓存按W-TinyLFU策略淘汰
+         */
+        private long cacheMaximumSize = 0L;
+
+        /**
+         * 数据源缓存的过期时间，单位毫秒，为0时不过期
+         */
+        private long cacheExpireMillis = 60000L;
+
+        /**
+         * “数据源不存在”的结果的缓存过期时间，单位毫秒，为0时不缓存该结果
+         */
+        private long cacheNegativeExpireMillis = 5000L;
+
+        /**
+         * 命名空间与为其单独设置的数据源缓存配置，仅当{@link #cacheMaximumSize}大于0时生效，未设置的命名空间使用上述默认配置
+         */
+        private Map<String, NamespaceCacheConfigProperties> namespaceCaches = new HashMap<>(4);
+
+        /**
+         * 用于并行调用方法数据源的线程池在spring容器中的bean名称，为空时按命名空间依次调用方法。<br />
+         * 调用线程会自行执行尚未被线程池开始执行的任务，因此该线程池可以与操作执行器共用
+         */
+        private String executorBeanName = "";
+
+    }
+
+    /**
+     * 单个命名空间的数据源缓存配置
+     */
+    @Data
+    public static class NamespaceCacheConfigProperties {
+
+        /**
+         * 数据源最大缓存数量
+         */
+        private long maximumSize = 1000L;
+
+        /**
+         * 数据源缓存的过期时间，单位毫秒，为0时不过期
+         */
+        private long expireMillis = 60000L;
+
+        /**
+         * “数据源不存在”的结果的缓存过期时间，单位毫秒，为0时不缓存该结果
+         */
+        private long negativeExpireMillis = 5000L;
+
+    }
+
 }
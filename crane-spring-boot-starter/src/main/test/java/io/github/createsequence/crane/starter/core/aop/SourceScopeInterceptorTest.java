@@ -0,0 +1,66 @@
+package io.github.createsequence.crane.starter.core.aop;
+
+import io.github.createsequence.crane.core.aop.SourceScopeInterceptor;
+import io.github.createsequence.crane.core.cache.SourceCache;
+import io.github.createsequence.crane.core.cache.SourceScope;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/27 10:20
+ */
+public class SourceScopeInterceptorTest {
+
+    @Test
+    public void testSourceScopeInterceptor() {
+        Object container = new Object();
+        List<SourceCache<Integer, String>> caches = new ArrayList<>();
+        RequestHandler target = new RequestHandler() {
+            @Override
+            public void handle() {
+                // 入口方法中多次开启的作用域都加入拦截器开启的作用域
+                SourceScope.run(() -> {
+                    SourceCache<Integer, String> cache = SourceScope.getCache(container);
+                    cache.putAll("user", Collections.singletonMap(1, "user1"), Collections.emptyList());
+                    caches.add(cache);
+                });
+                SourceScope.run(() -> caches.add(SourceScope.getCache(container)));
+                Assertions.assertTrue(SourceScope.isOpen());
+            }
+            @Override
+            public void other() {
+                Assertions.assertFalse(SourceScope.isOpen());
+            }
+        };
+
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression("execution(* " + RequestHandler.class.getName() + ".handle(..))");
+        advisor.setAdvice(new SourceScopeInterceptor());
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(RequestHandler.class);
+        proxyFactory.addAdvisor(advisor);
+        RequestHandler proxy = (RequestHandler) proxyFactory.getProxy();
+
+        proxy.handle();
+        Assertions.assertEquals(2, caches.size());
+        Assertions.assertSame(caches.get(0), caches.get(1));
+        Assertions.assertEquals("user1", caches.get(1).getAllPresent("user", Collections.singletonList(1)).get(1));
+        Assertions.assertFalse(SourceScope.isOpen());
+
+        // 未匹配切点的方法不开启作用域
+        proxy.other();
+    }
+
+    public interface RequestHandler {
+        void handle();
+        void other();
+    }
+
+}
@@ -0,0 +1,53 @@
+package io.github.createsequence.crane.starter.core.cache;
+
+import io.github.createsequence.crane.core.cache.GuavaSourceCache;
+import io.github.createsequence.crane.core.cache.SourceCache;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/24 15:20
+ */
+public class GuavaSourceCacheTest {
+
+    @Test
+    public void testGuavaSourceCache() {
+        SourceCache<Integer, String> cache = new GuavaSourceCache<>(100, 1, 1, TimeUnit.MINUTES);
+        Assertions.assertTrue(cache.getAllPresent("user", Arrays.asList(1, 2)).isEmpty());
+
+        // 数据源与不存在的key都将被缓存
+        cache.putAll("user", Collections.singletonMap(1, "user1"), Collections.singletonList(2));
+        Map<Integer, String> results = cache.getAllPresent("user", Arrays.asList(1, 2, 3));
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertEquals("user1", results.get(1));
+        Assertions.assertTrue(results.containsKey(2));
+        Assertions.assertNull(results.get(2));
+        Assertions.assertFalse(results.containsKey(3));
+
+        // 命名空间之间互相隔离
+        Assertions.assertTrue(cache.getAllPresent("dept", Arrays.asList(1, 2)).isEmpty());
+
+        // 新获取到的数据源将覆盖不存在的结果
+        cache.putAll("user", Collections.singletonMap(2, "user2"), Collections.emptyList());
+        Assertions.assertEquals("user2", cache.getAllPresent("user", Collections.singletonList(2)).get(2));
+
+        cache.invalidate("user");
+        Assertions.assertTrue(cache.getAllPresent("user", Arrays.asList(1, 2)).isEmpty());
+    }
+
+    @Test
+    public void testNegativeCacheDisabled() {
+        GuavaSourceCache<Integer, String> cache = new GuavaSourceCache<>(100, 1, 1, TimeUnit.MINUTES);
+        cache.setNamespaceOptions("user", 100, 1, 0, TimeUnit.MINUTES);
+        cache.putAll("user", Collections.singletonMap(1, "user1"), Collections.singletonList(2));
+        Map<Integer, String> results = cache.getAllPresent("user", Arrays.asList(1, 2));
+        Assertions.assertEquals(Collections.singletonMap(1, "user1"), results);
+    }
+
+}
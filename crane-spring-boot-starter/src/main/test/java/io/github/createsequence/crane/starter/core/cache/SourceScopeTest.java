@@ -0,0 +1,87 @@
+package io.github.createsequence.crane.starter.core.cache;
+
+import io.github.createsequence.crane.core.cache.SourceCache;
+import io.github.createsequence.crane.core.cache.SourceScope;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/25 16:30
+ */
+public class SourceScopeTest {
+
+    @Test
+    public void testSourceScope() {
+        Object container = new Object();
+        Assertions.assertFalse(SourceScope.isOpen());
+        Assertions.assertNull(SourceScope.getCache(container));
+
+        try (SourceScope scope = SourceScope.open()) {
+            SourceCache<Integer, String> cache = SourceScope.getCache(container);
+            Assertions.assertNotNull(cache);
+            cache.putAll("user", Collections.singletonMap(1, "user1"), Collections.singletonList(2));
+
+            // 嵌套开启时复用已有的作用域
+            SourceScope.run(() -> {
+                SourceCache<Integer, String> nestedCache = SourceScope.getCache(container);
+                Assertions.assertSame(cache, nestedCache);
+                Map<Integer, String> results = nestedCache.getAllPresent("user", Arrays.asList(1, 2, 3));
+                Assertions.assertEquals(2, results.size());
+                Assertions.assertEquals("user1", results.get(1));
+                Assertions.assertNull(results.get(2));
+            });
+            Assertions.assertTrue(SourceScope.isOpen());
+
+            // 不同容器的数据源互相隔离
+            SourceCache<Integer, String> otherCache = SourceScope.getCache(new Object());
+            Assertions.assertNotNull(otherCache);
+            Assertions.assertTrue(otherCache.getAllPresent("user", Arrays.asList(1, 2)).isEmpty());
+        }
+
+        Assertions.assertFalse(SourceScope.isOpen());
+        Assertions.assertNull(SourceScope.getCache(container));
+    }
+
+    @Test
+    public void testWrap() throws Exception {
+        Object container = new Object();
+        Runnable runnable = () -> {};
+        Assertions.assertSame(runnable, SourceScope.wrap(runnable));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Runnable task;
+        try (SourceScope scope = SourceScope.open()) {
+            SourceCache<Integer, String> cache = SourceScope.getCache(container);
+
+            // 包装后的任务在其他线程中使用提交任务的线程的作用域，且任务中开启的作用域不会关闭原有的作用域
+            executor.submit(SourceScope.wrap(() -> {
+                try (SourceScope nested = SourceScope.open()) {
+                    Assertions.assertSame(cache, SourceScope.getCache(container));
+                }
+                Assertions.assertTrue(SourceScope.isOpen());
+            })).get(5, TimeUnit.SECONDS);
+            Assertions.assertTrue(SourceScope.isOpen());
+            Assertions.assertSame(cache, SourceScope.getCache(container));
+
+            // 任务结束后，执行任务的线程不再持有作用域
+            Assertions.assertFalse(executor.submit(SourceScope::isOpen).get(5, TimeUnit.SECONDS));
+            task = SourceScope.wrap(() -> {
+                Assertions.assertFalse(SourceScope.isOpen());
+                Assertions.assertNull(SourceScope.getCache(container));
+            });
+        }
+
+        // 作用域关闭后才执行的任务不再使用作用域
+        executor.submit(task).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+}
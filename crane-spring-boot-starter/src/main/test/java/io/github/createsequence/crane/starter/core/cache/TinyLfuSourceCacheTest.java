@@ -0,0 +1,100 @@
+package io.github.createsequence.crane.starter.core.cache;
+
+import io.github.createsequence.crane.core.cache.SourceCache;
+import io.github.createsequence.crane.core.cache.TinyLfuSourceCache;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/25 11:30
+ */
+public class TinyLfuSourceCacheTest {
+
+    @Test
+    public void testTinyLfuSourceCache() {
+        SourceCache<Integer, String> cache = new TinyLfuSourceCache<>(100, 1, 1, TimeUnit.MINUTES);
+        cache.putAll("user", Collections.singletonMap(1, "user1"), Collections.singletonList(2));
+        Map<Integer, String> results = cache.getAllPresent("user", Arrays.asList(1, 2, 3));
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertEquals("user1", results.get(1));
+        Assertions.assertTrue(results.containsKey(2));
+        Assertions.assertNull(results.get(2));
+        Assertions.assertTrue(cache.getAllPresent("dept", Arrays.asList(1, 2)).isEmpty());
+
+        // 容量不足时淘汰数据源
+        SourceCache<Integer, String> smallCache = new TinyLfuSourceCache<>(3, 1, 1, TimeUnit.MINUTES);
+        for (int i = 0; i < 100; i++) {
+            smallCache.putAll("user", Collections.singletonMap(i, "user" + i), Collections.emptyList());
+        }
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add(i);
+        }
+        Assertions.assertTrue(smallCache.getAllPresent("user", keys).size() <= 3);
+    }
+
+    @Test
+    public void testLargeMaximumSize() {
+        // 容量很大时，频率统计器的大小也应当受到限制
+        SourceCache<Integer, String> cache = new TinyLfuSourceCache<>(Long.MAX_VALUE, 1, 1, TimeUnit.MINUTES);
+        Assertions.assertTrue(cache.getAllPresent("user", Collections.singletonList(1)).isEmpty());
+        cache.putAll("user", Collections.singletonMap(1, "user1"), Collections.emptyList());
+        Assertions.assertEquals("user1", cache.getAllPresent("user", Collections.singletonList(1)).get(1));
+    }
+
+    @Test
+    public void testNamespaceOptions() {
+        TinyLfuSourceCache<Integer, String> cache = new TinyLfuSourceCache<>(100, 1, 1, TimeUnit.MINUTES);
+        cache.putAll("user", Collections.singletonMap(1, "user1"), Collections.emptyList());
+
+        // 单独设置配置后，该命名空间已有的缓存被清空，且不再缓存“数据源不存在”的结果
+        cache.setNamespaceOptions("user", 100, 1, 0, TimeUnit.MINUTES);
+        Assertions.assertTrue(cache.getAllPresent("user", Collections.singletonList(1)).isEmpty());
+        cache.putAll("user", Collections.singletonMap(1, "user1"), Collections.singletonList(2));
+        Assertions.assertEquals(Collections.singletonMap(1, "user1"), cache.getAllPresent("user", Arrays.asList(1, 2)));
+
+        // 单独设置的容量仅对该命名空间生效
+        cache.setNamespaceOptions("dept", 3, 1, 1, TimeUnit.MINUTES);
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add(i);
+            cache.putAll("dept", Collections.singletonMap(i, "dept" + i), Collections.emptyList());
+            cache.putAll("post", Collections.singletonMap(i, "post" + i), Collections.emptyList());
+        }
+        Assertions.assertTrue(cache.getAllPresent("dept", keys).size() <= 3);
+        Assertions.assertEquals(100, cache.getAllPresent("post", keys).size());
+    }
+
+    @Test
+    public void testScanResistance() {
+        SourceCache<Integer, String> cache = new TinyLfuSourceCache<>(100, 1, 1, TimeUnit.MINUTES);
+        List<Integer> hotKeys = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            hotKeys.add(i);
+        }
+        for (int i = 0; i < 5; i++) {
+            Map<Integer, String> present = cache.getAllPresent("user", hotKeys);
+            Map<Integer, String> sources = new HashMap<>();
+            hotKeys.stream().filter(k -> !present.containsKey(k)).forEach(k -> sources.put(k, "user" + k));
+            cache.putAll("user", sources, Collections.emptyList());
+        }
+
+        // 模拟一次遍历大量数据的批量查询，热点数据源不应被挤出缓存
+        for (int start = 1000; start < 21000; start += 100) {
+            List<Integer> batch = new ArrayList<>();
+            Map<Integer, String> sources = new HashMap<>();
+            for (int i = start; i < start + 100; i++) {
+                batch.add(i);
+                sources.put(i, "user" + i);
+            }
+            cache.getAllPresent("user", batch);
+            cache.putAll("user", sources, Collections.emptyList());
+        }
+        Assertions.assertTrue(cache.getAllPresent("user", hotKeys).size() >= 45);
+    }
+
+}
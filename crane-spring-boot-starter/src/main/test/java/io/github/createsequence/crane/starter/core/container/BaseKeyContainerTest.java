@@ -0,0 +1,276 @@
+package io.github.createsequence.crane.starter.core.container;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.cache.SourceCache;
+import io.github.createsequence.crane.core.container.BaseKeyContainer;
+import io.github.createsequence.crane.core.executor.UnorderedOperationExecutor;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexDisassembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.BeanAssembleOperation;
+import io.github.createsequence.crane.core.parser.BeanDisassembleOperation;
+import io.github.createsequence.crane.core.parser.BeanOperationConfiguration;
+import io.github.createsequence.crane.core.parser.BeanPropertyMapping;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/26 17:30
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class BaseKeyContainerTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+
+    @Test
+    public void testMergeKeysFromNestedConfiguration() {
+        List<Set<Integer>> requestedKeys = new ArrayList<>();
+        BaseKeyContainer<Integer> container = new BaseKeyContainer<Integer>() {
+            @Override
+            protected Map<Integer, ?> getSources(@Nonnull Set<Integer> keys) {
+                requestedKeys.add(new HashSet<>(keys));
+                Map<Integer, String> sources = new HashMap<>();
+                keys.forEach(key -> sources.put(key, "id是" + key));
+                return sources;
+            }
+        };
+
+        // 父对象与嵌套的子对象都从同一容器获取数据源
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration childConfiguration = new BeanOperationConfiguration(globalConfiguration, Child.class, new ArrayList<>(), new ArrayList<>());
+        childConfiguration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, childConfiguration, ReflexUtils.findField(Child.class, "id"),
+            Collections.emptySet(), "user", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        childConfiguration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, childConfiguration, ReflexUtils.findField(Child.class, "id"),
+            Collections.emptySet(), "role", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("role", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Parent.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Parent.class, "id"),
+            Collections.emptySet(), "user", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getDisassembleOperations().add(new BeanDisassembleOperation(
+            0, configuration, new BeanReflexDisassembler(beanReflexOperateProcessor),
+            childConfiguration, ReflexUtils.findField(Parent.class, "child"), Collections.emptySet()
+        ));
+
+        List<Parent> parents = Arrays.asList(new Parent(1, new Child(10)), new Parent(2, new Child(1)));
+        new UnorderedOperationExecutor().execute(parents, configuration);
+
+        // 不同层级的key值合并后，容器仅被访问一次
+        Assertions.assertEquals(1, requestedKeys.size());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2, 10)), requestedKeys.get(0));
+        Assertions.assertEquals("id是1", parents.get(0).getName());
+        Assertions.assertEquals("id是10", parents.get(0).getChild().getName());
+        Assertions.assertEquals("id是10", parents.get(0).getChild().getRole());
+        Assertions.assertEquals("id是2", parents.get(1).getName());
+        Assertions.assertEquals("id是1", parents.get(1).getChild().getName());
+        Assertions.assertEquals("id是1", parents.get(1).getChild().getRole());
+    }
+
+    @Test
+    public void testFailingSourceCache() {
+        List<Set<Integer>> requestedKeys = new ArrayList<>();
+        BaseKeyContainer<Integer> container = new BaseKeyContainer<Integer>() {
+            @Override
+            protected Map<Integer, ?> getSources(@Nonnull Set<Integer> keys) {
+                requestedKeys.add(new HashSet<>(keys));
+                Map<Integer, String> sources = new HashMap<>();
+                keys.forEach(key -> sources.put(key, "id是" + key));
+                return sources;
+            }
+        };
+        // 缓存读写失败时视为未命中，仍然实际获取数据源
+        container.setSourceCache(new FailingSourceCache());
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Child.class, new ArrayList<>(), new ArrayList<>());
+        AssembleOperation assembleOperation = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Child.class, "id"),
+            Collections.emptySet(), "", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        for (int i = 0; i < 2; i++) {
+            Child child = new Child(1);
+            Multimap<AssembleOperation, Child> operations = ArrayListMultimap.create();
+            operations.put(assembleOperation, child);
+            container.process(operations);
+            Assertions.assertEquals("id是1", child.getName());
+        }
+        Assertions.assertEquals(2, requestedKeys.size());
+    }
+
+    @Test
+    public void testReadKeyOncePerTarget() {
+        BaseKeyContainer<Integer> container = new BaseKeyContainer<Integer>() {
+            @Override
+            protected Map<Integer, ?> getSources(@Nonnull Set<Integer> keys) {
+                Map<Integer, String> sources = new HashMap<>();
+                keys.forEach(key -> sources.put(key, "id是" + key));
+                return sources;
+            }
+        };
+        CountingAssembler assembler = new CountingAssembler(beanReflexOperateProcessor);
+        AssembleOperation assembleOperation = createOperation(container, assembler);
+
+        // 串行与并行处理时，每个待处理对象的key值都仅被读取一次
+        List<Child> children = Arrays.asList(new Child(1), new Child(2), new Child(1));
+        container.process(toOperations(assembleOperation, children));
+        Assertions.assertEquals(3, assembler.getKeyCount.get());
+        children.forEach(child -> Assertions.assertEquals("id是" + child.getId(), child.getName()));
+
+        assembler.getKeyCount.set(0);
+        List<Child> others = Arrays.asList(new Child(3), new Child(4), new Child(3));
+        ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+        try {
+            container.process(toOperations(assembleOperation, others), forkJoinPool);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        Assertions.assertEquals(3, assembler.getKeyCount.get());
+        others.forEach(child -> Assertions.assertEquals("id是" + child.getId(), child.getName()));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testOverriddenLegacyHooks() {
+        List<Set<Integer>> requestedKeys = new ArrayList<>();
+        List<Object> writtenTargets = new ArrayList<>();
+        BaseKeyContainer<Integer> container = new BaseKeyContainer<Integer>() {
+            @Nonnull
+            @Override
+            protected Set<Integer> getTargetIds(@Nonnull Multimap<AssembleOperation, ?> operations) {
+                Set<Integer> keys = super.getTargetIds(operations);
+                keys.add(0);
+                return keys;
+            }
+            @Override
+            protected void writeToTargets(@Nonnull Map<Integer, ?> sources, Object target, @Nonnull AssembleOperation operation) {
+                writtenTargets.add(target);
+                super.writeToTargets(sources, target, operation);
+            }
+            @Override
+            protected Map<Integer, ?> getSources(@Nonnull Set<Integer> keys) {
+                requestedKeys.add(new HashSet<>(keys));
+                Map<Integer, String> sources = new HashMap<>();
+                keys.forEach(key -> sources.put(key, "id是" + key));
+                return sources;
+            }
+        };
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        AssembleOperation assembleOperation = createOperation(container, assembler);
+
+        // 子类重写了已废弃的方法时，处理时仍然调用重写的方法
+        List<Child> children = Arrays.asList(new Child(1), new Child(2));
+        container.process(toOperations(assembleOperation, children));
+        Assertions.assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList(0, 1, 2))), requestedKeys);
+        Assertions.assertEquals(new ArrayList<>(children), writtenTargets);
+        Assertions.assertEquals("id是1", children.get(0).getName());
+        Assertions.assertEquals("id是2", children.get(1).getName());
+    }
+
+    private AssembleOperation createOperation(BaseKeyContainer<Integer> container, Assembler assembler) {
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Child.class, new ArrayList<>(), new ArrayList<>());
+        return new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Child.class, "id"),
+            Collections.emptySet(), "", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+    }
+
+    private static Multimap<AssembleOperation, Child> toOperations(AssembleOperation operation, List<Child> children) {
+        Multimap<AssembleOperation, Child> operations = ArrayListMultimap.create();
+        operations.putAll(operation, children);
+        return operations;
+    }
+
+    /**
+     * 记录key值读取次数的装配器
+     */
+    private static class CountingAssembler extends BeanReflexAssembler {
+
+        private final AtomicInteger getKeyCount = new AtomicInteger();
+
+        CountingAssembler(BeanReflexOperateProcessor operateProcessor) {
+            super(operateProcessor);
+        }
+
+        @Override
+        public Object getKey(Object target, AssembleOperation operation) {
+            getKeyCount.incrementAndGet();
+            return super.getKey(target, operation);
+        }
+
+    }
+
+    private static class FailingSourceCache implements SourceCache<Integer, Object> {
+        @Override
+        public Map<Integer, Object> getAllPresent(@Nonnull String namespace, @Nonnull Collection<Integer> keys) {
+            throw new IllegalStateException("cache unavailable");
+        }
+        @Override
+        public void putAll(@Nonnull String namespace, @Nonnull Map<Integer, Object> sources, @Nonnull Collection<Integer> absentKeys) {
+            throw new IllegalStateException("cache unavailable");
+        }
+        @Override
+        public void invalidate(@Nonnull String namespace) {
+        }
+        @Override
+        public void invalidateAll() {
+        }
+    }
+
+    @Data
+    private static class Parent {
+        private Integer id;
+        private String name;
+        private Child child;
+        public Parent(Integer id, Child child) {
+            this.id = id;
+            this.child = child;
+        }
+    }
+
+    @Data
+    private static class Child {
+        private Integer id;
+        private String name;
+        private String role;
+        public Child(Integer id) {
+            this.id = id;
+        }
+    }
+
+}
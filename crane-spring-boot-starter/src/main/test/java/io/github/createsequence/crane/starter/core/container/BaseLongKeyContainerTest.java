@@ -0,0 +1,150 @@
+package io.github.createsequence.crane.starter.core.container;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.BaseLongKeyContainer;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.LongObjectHashMap;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.BeanAssembleOperation;
+import io.github.createsequence.crane.core.parser.BeanOperationConfiguration;
+import io.github.createsequence.crane.core.parser.BeanPropertyMapping;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/23 16:30
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class BaseLongKeyContainerTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+
+    @Test
+    public void testBaseLongKeyContainer() {
+        List<long[]> requestedKeys = new ArrayList<>();
+        BaseLongKeyContainer container = new BaseLongKeyContainer() {
+            @Override
+            protected LongObjectHashMap<?> getSources(long[] keys) {
+                requestedKeys.add(keys);
+                LongObjectHashMap<String> sources = new LongObjectHashMap<>(keys.length);
+                for (long key : keys) {
+                    sources.put(key, "id是" + key);
+                }
+                return sources;
+            }
+        };
+
+        // 获取配置
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        AssembleOperation assembleOperation = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("value", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        configuration.getAssembleOperations().add(assembleOperation);
+
+        // 执行操作
+        List<Example> examples = Arrays.asList(
+            new Example(1), new Example(2), new Example(3), new Example(3), new Example(null)
+        );
+        Multimap<AssembleOperation, Example> operations = ArrayListMultimap.create();
+        examples.forEach(t -> operations.put(assembleOperation, t));
+        container.process(operations);
+
+        Assertions.assertEquals(1, requestedKeys.size());
+        Assertions.assertArrayEquals(new long[]{1L, 2L, 3L}, requestedKeys.get(0));
+        Assertions.assertEquals("id是1", examples.get(0).getValue());
+        Assertions.assertEquals("id是2", examples.get(1).getValue());
+        Assertions.assertEquals("id是3", examples.get(2).getValue());
+        Assertions.assertEquals("id是3", examples.get(3).getValue());
+        Assertions.assertNull(examples.get(4).getValue());
+    }
+
+    @Test
+    public void testInexactKeys() {
+        List<long[]> requestedKeys = new ArrayList<>();
+        BaseLongKeyContainer container = new BaseLongKeyContainer() {
+            @Override
+            protected LongObjectHashMap<?> getSources(long[] keys) {
+                requestedKeys.add(keys);
+                LongObjectHashMap<String> sources = new LongObjectHashMap<>(keys.length);
+                for (long key : keys) {
+                    sources.put(key, "id是" + key);
+                }
+                return sources;
+            }
+        };
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, ObjectKeyExample.class, new ArrayList<>(), new ArrayList<>());
+        AssembleOperation assembleOperation = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(ObjectKeyExample.class, "id"),
+            Collections.emptySet(), "", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("value", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        configuration.getAssembleOperations().add(assembleOperation);
+
+        // 能够无损转为long的key值正常处理，带有小数部分或超出long范围的key值被忽略
+        List<ObjectKeyExample> examples = Arrays.asList(
+            new ObjectKeyExample(1.5D), new ObjectKeyExample(2.0D), new ObjectKeyExample(new BigInteger("99999999999999999999")),
+            new ObjectKeyExample("3"), new ObjectKeyExample("4.5"), new ObjectKeyExample(new BigDecimal("5.00"))
+        );
+        Multimap<AssembleOperation, ObjectKeyExample> operations = ArrayListMultimap.create();
+        examples.forEach(t -> operations.put(assembleOperation, t));
+        container.process(operations);
+
+        Assertions.assertEquals(1, requestedKeys.size());
+        Assertions.assertArrayEquals(new long[]{2L, 3L, 5L}, requestedKeys.get(0));
+        Assertions.assertNull(examples.get(0).getValue());
+        Assertions.assertEquals("id是2", examples.get(1).getValue());
+        Assertions.assertNull(examples.get(2).getValue());
+        Assertions.assertEquals("id是3", examples.get(3).getValue());
+        Assertions.assertNull(examples.get(4).getValue());
+        Assertions.assertEquals("id是5", examples.get(5).getValue());
+    }
+
+    @Data
+    private static class ObjectKeyExample {
+        private Object id;
+        private String value;
+
+        public ObjectKeyExample(Object id) {
+            this.id = id;
+        }
+    }
+
+    @Data
+    private static class Example {
+        private Integer id;
+        private String value;
+
+        public Example(Integer id) {
+            this.id = id;
+        }
+    }
+
+}
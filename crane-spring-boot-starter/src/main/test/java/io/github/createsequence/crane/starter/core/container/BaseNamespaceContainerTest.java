@@ -0,0 +1,240 @@
+package io.github.createsequence.crane.starter.core.container;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.BaseNamespaceContainer;
+import io.github.createsequence.crane.core.executor.UnorderedOperationExecutor;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexDisassembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.BeanAssembleOperation;
+import io.github.createsequence.crane.core.parser.BeanDisassembleOperation;
+import io.github.createsequence.crane.core.parser.BeanOperationConfiguration;
+import io.github.createsequence.crane.core.parser.BeanPropertyMapping;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/26 17:10
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class BaseNamespaceContainerTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+
+    @Test
+    public void testMergeKeysFromNestedConfiguration() {
+        List<Multimap<String, Integer>> requestedKeys = new ArrayList<>();
+        BaseNamespaceContainer<Integer, String> container = new BaseNamespaceContainer<Integer, String>() {
+            @Override
+            protected Map<String, Map<Integer, String>> getSources(@Nonnull Multimap<String, Integer> namespaceAndKeys) {
+                requestedKeys.add(HashMultimap.create(namespaceAndKeys));
+                Map<String, Map<Integer, String>> sources = new HashMap<>();
+                namespaceAndKeys.forEach((namespace, key) -> sources.computeIfAbsent(namespace, n -> new HashMap<>()).put(key, namespace + key));
+                return sources;
+            }
+        };
+
+        // 父对象与嵌套的子对象都从同一容器的同一命名空间获取数据源
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration childConfiguration = new BeanOperationConfiguration(globalConfiguration, Child.class, new ArrayList<>(), new ArrayList<>());
+        childConfiguration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, childConfiguration, ReflexUtils.findField(Child.class, "id"),
+            Collections.emptySet(), "user", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        childConfiguration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, childConfiguration, ReflexUtils.findField(Child.class, "id"),
+            Collections.emptySet(), "role", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("role", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Parent.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Parent.class, "id"),
+            Collections.emptySet(), "user", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getDisassembleOperations().add(new BeanDisassembleOperation(
+            0, configuration, new BeanReflexDisassembler(beanReflexOperateProcessor),
+            childConfiguration, ReflexUtils.findField(Parent.class, "child"), Collections.emptySet()
+        ));
+
+        List<Parent> parents = Arrays.asList(new Parent(1, new Child(10)), new Parent(2, new Child(1)));
+        new UnorderedOperationExecutor().execute(parents, configuration);
+
+        // 不同层级的key值按命名空间合并，且容器仅被访问一次
+        Assertions.assertEquals(1, requestedKeys.size());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2, 10)), requestedKeys.get(0).get("user"));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(10, 1)), requestedKeys.get(0).get("role"));
+        Assertions.assertEquals("user1", parents.get(0).getName());
+        Assertions.assertEquals("user10", parents.get(0).getChild().getName());
+        Assertions.assertEquals("role10", parents.get(0).getChild().getRole());
+        Assertions.assertEquals("user2", parents.get(1).getName());
+        Assertions.assertEquals("user1", parents.get(1).getChild().getName());
+        Assertions.assertEquals("role1", parents.get(1).getChild().getRole());
+    }
+
+    @Test
+    public void testReadKeyOncePerTarget() {
+        BaseNamespaceContainer<Integer, String> container = new BaseNamespaceContainer<Integer, String>() {
+            @Override
+            protected Map<String, Map<Integer, String>> getSources(@Nonnull Multimap<String, Integer> namespaceAndKeys) {
+                Map<String, Map<Integer, String>> sources = new HashMap<>();
+                namespaceAndKeys.forEach((namespace, key) -> sources.computeIfAbsent(namespace, n -> new HashMap<>()).put(key, namespace + key));
+                return sources;
+            }
+        };
+        CountingAssembler assembler = new CountingAssembler(beanReflexOperateProcessor);
+        AssembleOperation userOperation = createOperation(container, assembler, "user", "name");
+        AssembleOperation roleOperation = createOperation(container, assembler, "role", "role");
+
+        // 串行与并行处理时，每个待处理对象的key值都仅被读取一次
+        List<Child> children = Arrays.asList(new Child(1), new Child(2), new Child(1));
+        container.process(toOperations(userOperation, roleOperation, children));
+        Assertions.assertEquals(6, assembler.getKeyCount.get());
+        children.forEach(child -> {
+            Assertions.assertEquals("user" + child.getId(), child.getName());
+            Assertions.assertEquals("role" + child.getId(), child.getRole());
+        });
+
+        assembler.getKeyCount.set(0);
+        List<Child> others = Arrays.asList(new Child(3), new Child(4), new Child(3));
+        ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+        try {
+            container.process(toOperations(userOperation, roleOperation, others), forkJoinPool);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        Assertions.assertEquals(6, assembler.getKeyCount.get());
+        others.forEach(child -> {
+            Assertions.assertEquals("user" + child.getId(), child.getName());
+            Assertions.assertEquals("role" + child.getId(), child.getRole());
+        });
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testOverriddenLegacyHooks() {
+        List<Multimap<String, Integer>> requestedKeys = new ArrayList<>();
+        List<Object> writtenTargets = new ArrayList<>();
+        BaseNamespaceContainer<Integer, String> container = new BaseNamespaceContainer<Integer, String>() {
+            @Nonnull
+            @Override
+            protected Multimap<String, Integer> getNamespaceAndKeyFromTargets(@Nonnull Multimap<AssembleOperation, ?> operations) {
+                Multimap<String, Integer> namespaceAndKeys = super.getNamespaceAndKeyFromTargets(operations);
+                namespaceAndKeys.put("user", 0);
+                return namespaceAndKeys;
+            }
+            @Override
+            protected void writeToTargets(@Nonnull Map<String, Map<Integer, String>> sources, Object target, @Nonnull AssembleOperation operation) {
+                writtenTargets.add(target);
+                super.writeToTargets(sources, target, operation);
+            }
+            @Override
+            protected Map<String, Map<Integer, String>> getSources(@Nonnull Multimap<String, Integer> namespaceAndKeys) {
+                requestedKeys.add(HashMultimap.create(namespaceAndKeys));
+                Map<String, Map<Integer, String>> sources = new HashMap<>();
+                namespaceAndKeys.forEach((namespace, key) -> sources.computeIfAbsent(namespace, n -> new HashMap<>()).put(key, namespace + key));
+                return sources;
+            }
+        };
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        AssembleOperation userOperation = createOperation(container, assembler, "user", "name");
+
+        // 子类重写了已废弃的方法时，处理时仍然调用重写的方法
+        List<Child> children = Arrays.asList(new Child(1), new Child(2));
+        Multimap<AssembleOperation, Child> operations = ArrayListMultimap.create();
+        operations.putAll(userOperation, children);
+        container.process(operations);
+        Assertions.assertEquals(1, requestedKeys.size());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(0, 1, 2)), new HashSet<>(requestedKeys.get(0).get("user")));
+        Assertions.assertEquals(new ArrayList<>(children), writtenTargets);
+        Assertions.assertEquals("user1", children.get(0).getName());
+        Assertions.assertEquals("user2", children.get(1).getName());
+    }
+
+    private AssembleOperation createOperation(
+        BaseNamespaceContainer<Integer, String> container, Assembler assembler, String namespace, String property) {
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Child.class, new ArrayList<>(), new ArrayList<>());
+        return new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Child.class, "id"),
+            Collections.emptySet(), namespace, container, assembler,
+            Collections.singletonList(new BeanPropertyMapping(property, "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+    }
+
+    private static Multimap<AssembleOperation, Child> toOperations(AssembleOperation userOperation, AssembleOperation roleOperation, List<Child> children) {
+        Multimap<AssembleOperation, Child> operations = ArrayListMultimap.create();
+        operations.putAll(userOperation, children);
+        operations.putAll(roleOperation, children);
+        return operations;
+    }
+
+    /**
+     * 记录key值读取次数的装配器
+     */
+    private static class CountingAssembler extends BeanReflexAssembler {
+
+        private final AtomicInteger getKeyCount = new AtomicInteger();
+
+        CountingAssembler(BeanReflexOperateProcessor operateProcessor) {
+            super(operateProcessor);
+        }
+
+        @Override
+        public Object getKey(Object target, AssembleOperation operation) {
+            getKeyCount.incrementAndGet();
+            return super.getKey(target, operation);
+        }
+
+    }
+
+    @Data
+    private static class Parent {
+        private Integer id;
+        private String name;
+        private Child child;
+        public Parent(Integer id, Child child) {
+            this.id = id;
+            this.child = child;
+        }
+    }
+
+    @Data
+    private static class Child {
+        private Integer id;
+        private String name;
+        private String role;
+        public Child(Integer id) {
+            this.id = id;
+        }
+    }
+
+}
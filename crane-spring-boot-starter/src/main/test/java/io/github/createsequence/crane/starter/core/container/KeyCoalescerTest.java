@@ -0,0 +1,114 @@
+package io.github.createsequence.crane.starter.core.container;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.KeyCoalescer;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/20 11:05
+ */
+public class KeyCoalescerTest {
+
+    @Test
+    public void testKeyCoalescer() throws Exception {
+        int concurrency = 10;
+        KeyCoalescer<Integer, String> coalescer = new KeyCoalescer<>(10, TimeUnit.SECONDS, concurrency);
+        ExecutorService executorService = Executors.newFixedThreadPool(concurrency + 1);
+        List<Set<Integer>> loadedKeys = new CopyOnWriteArrayList<>();
+        CountDownLatch firstLoading = new CountDownLatch(1);
+        CountDownLatch secondLoaded = new CountDownLatch(1);
+        Function<Multimap<String, Integer>, Map<String, Map<Integer, String>>> loader = keys -> {
+            loadedKeys.add(new HashSet<>(keys.get("user")));
+            if (loadedKeys.size() == 1) {
+                // 第一次获取完成前，其他请求都将合并到下一个批次中
+                firstLoading.countDown();
+                awaitQuietly(secondLoaded);
+            } else {
+                secondLoaded.countDown();
+            }
+            return getSources(keys);
+        };
+
+        // 没有正在进行的获取时，立刻获取数据源
+        Future<Map<String, Map<Integer, String>>> first = executorService.submit(() -> coalescer.getSources(getKeys(0), loader));
+        Assertions.assertTrue(firstLoading.await(5, TimeUnit.SECONDS));
+
+        // 其余请求合并为一个批次，批次中的key值数量达到上限时立刻获取
+        List<Future<Map<String, Map<Integer, String>>>> futures = new ArrayList<>();
+        for (int i = 1; i <= concurrency; i++) {
+            int key = i;
+            futures.add(executorService.submit(() -> coalescer.getSources(getKeys(key), loader)));
+        }
+        Assertions.assertEquals("user0", first.get(5, TimeUnit.SECONDS).get("user").get(0));
+        for (int i = 0; i < futures.size(); i++) {
+            Assertions.assertEquals("user" + (i + 1), futures.get(i).get(5, TimeUnit.SECONDS).get("user").get(i + 1));
+        }
+        executorService.shutdown();
+
+        Assertions.assertEquals(2, loadedKeys.size());
+        Assertions.assertEquals(Collections.singleton(0), loadedKeys.get(0));
+        Assertions.assertEquals(concurrency, loadedKeys.get(1).size());
+    }
+
+    @Test
+    public void testUncontendedRequest() {
+        KeyCoalescer<Integer, String> coalescer = new KeyCoalescer<>(10, TimeUnit.SECONDS, 100);
+        long start = System.nanoTime();
+        Map<String, Map<Integer, String>> results = coalescer.getSources(getKeys(1, 2), KeyCoalescerTest::getSources);
+        // 没有竞争时不等待
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        Assertions.assertEquals("user1", results.get("user").get(1));
+        Assertions.assertEquals("user2", results.get("user").get(2));
+    }
+
+    @Test
+    public void testMaxBatchSize() {
+        KeyCoalescer<Integer, String> coalescer = new KeyCoalescer<>(10, TimeUnit.SECONDS, 10);
+        List<Integer> loadedSizes = new ArrayList<>();
+        Integer[] keys = new Integer[25];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+
+        // 超出上限的key值被拆分到多个批次中获取
+        long start = System.nanoTime();
+        Map<String, Map<Integer, String>> results = coalescer.getSources(getKeys(keys), namespaceAndKeys -> {
+            loadedSizes.add(namespaceAndKeys.get("user").size());
+            return getSources(namespaceAndKeys);
+        });
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        Assertions.assertEquals(Arrays.asList(10, 10, 5), loadedSizes);
+        Assertions.assertEquals(25, results.get("user").size());
+        for (Integer key : keys) {
+            Assertions.assertEquals("user" + key, results.get("user").get(key));
+        }
+    }
+
+    private static Multimap<String, Integer> getKeys(Integer... keys) {
+        Multimap<String, Integer> namespaceAndKeys = HashMultimap.create();
+        namespaceAndKeys.putAll("user", Arrays.asList(keys));
+        return namespaceAndKeys;
+    }
+
+    private static Map<String, Map<Integer, String>> getSources(Multimap<String, Integer> namespaceAndKeys) {
+        Map<Integer, String> sources = new HashMap<>();
+        namespaceAndKeys.get("user").forEach(k -> sources.put(k, "user" + k));
+        return Collections.singletonMap("user", sources);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
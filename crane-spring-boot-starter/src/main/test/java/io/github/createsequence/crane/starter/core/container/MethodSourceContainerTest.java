@@ -30,6 +30,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * @author huangchengxing
@@ -112,6 +117,228 @@ public class MethodSourceContainerTest {
         Assertions.assertEquals(expectedGroup2, Optional.ofNullable(exampleMap.get(4)).map(Example::getExampleList).orElse(null));
     }
 
+    @Test
+    public void testBatchedMethodSource() {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        Set<String> threadNames = Collections.synchronizedSet(new HashSet<>());
+        methodSourceContainer.registerMethod(
+            ids -> {
+                batchSizes.add(ids.size());
+                threadNames.add(Thread.currentThread().getName());
+                return MethodSourceService.getExamples();
+            },
+            "exampleBatch", Example.class, "id", MappingType.ONE_TO_ONE, 3, true
+        );
+        MethodSourceContainer.MethodSource methodSource = methodSourceContainer.methodCache.get("exampleBatch");
+        Assertions.assertEquals(3, methodSource.getBatchSize());
+        Assertions.assertTrue(methodSource.isParallel());
+
+        // key数量超过批次大小时拆分调用，未指定线程池时在当前线程中依次调用
+        Collection<Object> sources = methodSource.getSources(Arrays.asList(1, 2, 3, 4, 5, 6, 7), null);
+        Assertions.assertEquals(12, sources.size());
+        Assertions.assertEquals(Arrays.asList(3, 3, 1), batchSizes);
+        Assertions.assertEquals(Collections.singleton(Thread.currentThread().getName()), threadNames);
+
+        // 指定线程池时并行调用，第一个批次由当前线程调用
+        batchSizes.clear();
+        threadNames.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(2, r -> new Thread(r, "batch-" + r.hashCode()));
+        try {
+            sources = methodSource.getSources(Arrays.asList(1, 2, 3, 4, 5, 6, 7), executor);
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(12, sources.size());
+        List<Integer> actualBatchSizes = new ArrayList<>(batchSizes);
+        Collections.sort(actualBatchSizes);
+        Assertions.assertEquals(Arrays.asList(1, 3, 3), actualBatchSizes);
+        Assertions.assertTrue(threadNames.contains(Thread.currentThread().getName()));
+
+        // key数量未超过批次大小时仅调用一次
+        batchSizes.clear();
+        methodSource.getSources(Arrays.asList(1, 2), null);
+        Assertions.assertEquals(Collections.singletonList(2), batchSizes);
+        methodSourceContainer.unregister("exampleBatch");
+    }
+
+    @Test
+    public void testConcurrentNamespaces() {
+        Set<String> threadNames = Collections.synchronizedSet(new HashSet<>());
+        // 两个命名空间的方法均开始执行后才返回，确保二者同时执行
+        CountDownLatch started = new CountDownLatch(2);
+        methodSourceContainer.registerMethod(
+            ids -> {
+                threadNames.add(Thread.currentThread().getName());
+                countDownAndAwait(started);
+                return MethodSourceService.getExamples();
+            },
+            "exampleA", Example.class, "id", MappingType.ONE_TO_ONE
+        );
+        methodSourceContainer.registerMethod(
+            ids -> {
+                threadNames.add(Thread.currentThread().getName());
+                countDownAndAwait(started);
+                return MethodSourceService.getExamples();
+            },
+            "exampleB", Example.class, "id", MappingType.ONE_TO_ONE
+        );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        methodSourceContainer.setExecutor(executor);
+
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        AssembleOperation operationA = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "exampleA", methodSourceContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        AssembleOperation operationB = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "exampleB", methodSourceContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        Example example = new Example(1, 2);
+        Multimap<AssembleOperation, Example> operations = ArrayListMultimap.create();
+        operations.put(operationA, example);
+        operations.put(operationB, example);
+        try {
+            methodSourceContainer.process(operations);
+        } finally {
+            methodSourceContainer.setExecutor(null);
+            executor.shutdown();
+            methodSourceContainer.unregister("exampleA");
+            methodSourceContainer.unregister("exampleB");
+        }
+
+        // 两个命名空间分别在当前线程与线程池中调用
+        Assertions.assertEquals("小明", example.getName());
+        Assertions.assertEquals(0, started.getCount());
+        Assertions.assertEquals(2, threadNames.size());
+        Assertions.assertTrue(threadNames.contains(Thread.currentThread().getName()));
+    }
+
+    @Test(timeout = 10000)
+    public void testProcessOnExecutorThread() throws Exception {
+        methodSourceContainer.registerMethod(
+            ids -> MethodSourceService.getExamples().stream()
+                .filter(example -> ids.contains(example.getId()))
+                .collect(Collectors.toList()),
+            "exampleA", Example.class, "id", MappingType.ONE_TO_ONE, 1, true
+        );
+        methodSourceContainer.registerMethod(
+            ids -> MethodSourceService.getExamples().stream()
+                .filter(example -> ids.contains(example.getId()))
+                .collect(Collectors.toList()),
+            "exampleB", Example.class, "id", MappingType.ONE_TO_ONE, 1, true
+        );
+        // 当前线程本身就是容器所用线程池中的唯一线程时，应当由当前线程执行全部任务，而不是等待排队中的任务
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        methodSourceContainer.setExecutor(executor);
+
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        AssembleOperation operationA = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "exampleA", methodSourceContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        AssembleOperation operationB = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "exampleB", methodSourceContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        List<Example> examples = Arrays.asList(new Example(1, 1), new Example(2, 1));
+        Multimap<AssembleOperation, Example> operations = ArrayListMultimap.create();
+        examples.forEach(example -> {
+            operations.put(operationA, example);
+            operations.put(operationB, example);
+        });
+        try {
+            executor.submit(() -> methodSourceContainer.process(operations)).get(5, TimeUnit.SECONDS);
+        } finally {
+            methodSourceContainer.setExecutor(null);
+            executor.shutdown();
+            methodSourceContainer.unregister("exampleA");
+            methodSourceContainer.unregister("exampleB");
+        }
+        Assertions.assertEquals("小明", examples.get(0).getName());
+        Assertions.assertEquals("小红", examples.get(1).getName());
+    }
+
+    private static void countDownAndAwait(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentNamespacesWithParallelBatches() {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        methodSourceContainer.registerMethod(
+            ids -> {
+                batchSizes.add(ids.size());
+                return MethodSourceService.getExamples().stream()
+                    .filter(example -> ids.contains(example.getId()))
+                    .collect(Collectors.toList());
+            },
+            "exampleA", Example.class, "id", MappingType.ONE_TO_ONE, 1, true
+        );
+        methodSourceContainer.registerMethod(
+            ids -> {
+                batchSizes.add(ids.size());
+                return MethodSourceService.getExamples().stream()
+                    .filter(example -> ids.contains(example.getId()))
+                    .collect(Collectors.toList());
+            },
+            "exampleB", Example.class, "id", MappingType.ONE_TO_ONE, 1, true
+        );
+        // 仅有一个线程时，命名空间与批次都可能由提交它们的线程执行，而不应等待排队中的任务
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        methodSourceContainer.setExecutor(executor);
+
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        AssembleOperation operationA = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "exampleA", methodSourceContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        AssembleOperation operationB = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "exampleB", methodSourceContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("name", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        List<Example> examples = Arrays.asList(new Example(1, 1), new Example(2, 1), new Example(3, 2));
+        Multimap<AssembleOperation, Example> operations = ArrayListMultimap.create();
+        examples.forEach(example -> {
+            operations.put(operationA, example);
+            operations.put(operationB, example);
+        });
+        try {
+            methodSourceContainer.process(operations);
+        } finally {
+            methodSourceContainer.setExecutor(null);
+            executor.shutdown();
+            methodSourceContainer.unregister("exampleA");
+            methodSourceContainer.unregister("exampleB");
+        }
+
+        // 两个命名空间的key值均按批次拆分调用
+        Assertions.assertEquals(Arrays.asList(1, 1, 1, 1, 1, 1), batchSizes);
+        Assertions.assertEquals("小明", examples.get(0).getName());
+        Assertions.assertEquals("小红", examples.get(1).getName());
+        Assertions.assertEquals("小王", examples.get(2).getName());
+    }
+
     @EqualsAndHashCode
     @Data
     @AllArgsConstructor
@@ -0,0 +1,177 @@
+package io.github.createsequence.crane.starter.core.executor;
+
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.executor.AdaptiveOperationExecutor;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.BeanAssembleOperation;
+import io.github.createsequence.crane.core.parser.BeanOperationConfiguration;
+import io.github.createsequence.crane.core.parser.BeanPropertyMapping;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/19 16:10
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class AdaptiveOperationExecutorTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+
+    @Test
+    public void testInlineAndFanOut() {
+        RecordingContainer first = new RecordingContainer();
+        RecordingContainer second = new RecordingContainer();
+        OperationConfiguration configuration = getConfiguration(first, second);
+        AdaptiveOperationExecutor executor = new AdaptiveOperationExecutor(Executors.newFixedThreadPool(2), 1, TimeUnit.MILLISECONDS);
+
+        // 从未处理过的容器估算耗时为0，首次执行时总是在当前线程中处理
+        first.setDelayMillis(20);
+        second.setDelayMillis(20);
+        executor.execute(getExamples(1), configuration);
+        Assertions.assertTrue(first.isLastProcessedInline());
+        Assertions.assertTrue(second.isLastProcessedInline());
+
+        // 估算的并行收益超过阈值后，提交到线程池中并行处理
+        executor.execute(getExamples(1), configuration);
+        Assertions.assertFalse(first.isLastProcessedInline());
+        Assertions.assertFalse(second.isLastProcessedInline());
+
+        // 仅需访问一个容器时，总是在当前线程中处理
+        RecordingContainer single = new RecordingContainer();
+        single.setDelayMillis(20);
+        OperationConfiguration singleConfiguration = getConfiguration(single);
+        executor.execute(getExamples(1), singleConfiguration);
+        executor.execute(getExamples(1), singleConfiguration);
+        Assertions.assertTrue(single.isLastProcessedInline());
+    }
+
+    @Test
+    public void testEstimateUpdates() {
+        RecordingContainer first = new RecordingContainer();
+        RecordingContainer second = new RecordingContainer();
+        OperationConfiguration configuration = getConfiguration(first, second);
+        AdaptiveOperationExecutor executor = new AdaptiveOperationExecutor(Executors.newFixedThreadPool(2), 1, TimeUnit.MILLISECONDS);
+        first.setDelayMillis(20);
+        second.setDelayMillis(20);
+        executor.execute(getExamples(1), configuration);
+
+        // 耗时按指数加权移动平均值更新，因此容器变快后不会立刻退回当前线程处理，而是逐渐衰减
+        first.setDelayMillis(0);
+        second.setDelayMillis(0);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(getExamples(1), configuration);
+            Assertions.assertFalse(first.isLastProcessedInline());
+        }
+        for (int i = 0; i < 30 && !first.isLastProcessedInline(); i++) {
+            executor.execute(getExamples(1), configuration);
+        }
+        Assertions.assertTrue(first.isLastProcessedInline());
+        Assertions.assertTrue(second.isLastProcessedInline());
+    }
+
+    @Test
+    public void testEstimateScalesWithOperations() {
+        RecordingContainer first = new RecordingContainer();
+        RecordingContainer second = new RecordingContainer();
+        OperationConfiguration configuration = getConfiguration(first, second);
+        AdaptiveOperationExecutor executor = new AdaptiveOperationExecutor(Executors.newFixedThreadPool(2), 50, TimeUnit.MILLISECONDS);
+        first.setDelayMillis(10);
+        second.setDelayMillis(10);
+
+        // 处理少量对象时的并行收益低于阈值
+        executor.execute(getExamples(1), configuration);
+        executor.execute(getExamples(1), configuration);
+        Assertions.assertTrue(first.isLastProcessedInline());
+
+        // 待处理对象数量增加时，估算耗时按比例放大
+        executor.execute(getExamples(10), configuration);
+        Assertions.assertFalse(first.isLastProcessedInline());
+        Assertions.assertFalse(second.isLastProcessedInline());
+    }
+
+    private OperationConfiguration getConfiguration(Container... containers) {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        for (Container container : containers) {
+            configuration.getAssembleOperations().add(new BeanAssembleOperation(
+                0, configuration, ReflexUtils.findField(Example.class, "id"),
+                Collections.emptySet(), "", container, assembler,
+                Collections.singletonList(new BeanPropertyMapping("name", "", "", Void.class)),
+                Collections.singleton(DefaultGroup.class)
+            ));
+        }
+        return configuration;
+    }
+
+    private static List<Example> getExamples(int size) {
+        List<Example> examples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            examples.add(new Example(i));
+        }
+        return examples;
+    }
+
+    /**
+     * 记录处理线程，并按指定耗时模拟获取数据源的容器
+     */
+    private static class RecordingContainer implements Container {
+
+        private final Thread caller = Thread.currentThread();
+        private volatile long delayMillis;
+        private volatile Thread lastThread;
+
+        @Override
+        public void process(Multimap<AssembleOperation, ?> operations) {
+            lastThread = Thread.currentThread();
+            if (delayMillis <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void setDelayMillis(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        boolean isLastProcessedInline() {
+            return lastThread == caller;
+        }
+
+    }
+
+    @Data
+    private static class Example {
+        private Integer id;
+        private String name;
+        public Example(Integer id) {
+            this.id = id;
+        }
+    }
+
+}
@@ -5,11 +5,14 @@ import cn.hutool.core.map.MapUtil;
 import io.github.createsequence.crane.core.annotation.AssembleKV;
 import io.github.createsequence.crane.core.annotation.Prop;
 import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.cache.SourceScope;
+import io.github.createsequence.crane.core.container.BaseKeyContainer;
 import io.github.createsequence.crane.core.container.BeanIntrospectContainer;
 import io.github.createsequence.crane.core.container.Container;
 import io.github.createsequence.crane.core.container.KeyIntrospectContainer;
 import io.github.createsequence.crane.core.container.KeyValueContainer;
 import io.github.createsequence.crane.core.executor.AsyncUnorderedOperationExecutor;
+import io.github.createsequence.crane.core.executor.ContainerListener;
 import io.github.createsequence.crane.core.helper.DefaultGroup;
 import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
 import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
@@ -22,6 +25,7 @@ import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperatio
 import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
 import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
 import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import com.google.common.collect.Multimap;
 import lombok.Data;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
@@ -30,8 +34,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import javax.annotation.Nonnull;
 import java.util.*;
-import java.util.concurrent.Executors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
@@ -107,6 +113,293 @@ public class AsyncUnorderedOperationExecutorTest {
 
     }
 
+    @Test
+    public void testTimeout() throws InterruptedException {
+        SlowContainer slowContainer = new SlowContainer();
+        OperationConfiguration configuration = getTimeoutConfiguration(slowContainer);
+        AsyncUnorderedOperationExecutor executor = new AsyncUnorderedOperationExecutor(Executors.newFixedThreadPool(2));
+        executor.setTimeout(100, TimeUnit.MILLISECONDS);
+        AtomicInteger timeouts = new AtomicInteger();
+        executor.setContainerListener((container, operations, timeout) -> {
+            Assertions.assertSame(slowContainer, container);
+            Assertions.assertEquals(100L, timeout);
+            timeouts.incrementAndGet();
+        });
+
+        // 默认忽略超时的容器，其余容器照常完成处理
+        List<TimeoutExample> examples = Arrays.asList(new TimeoutExample(1, "小明"), new TimeoutExample(2, "小王"));
+        executor.execute(examples, configuration);
+        Assertions.assertEquals(1, timeouts.get());
+        examples.forEach(example -> {
+            Assertions.assertEquals(example.getId(), example.getIntrospectId());
+            Assertions.assertNull(example.getIntrospectName());
+        });
+
+        // 超时的容器即使忽略中断继续执行，也不会在调用返回后写入字段
+        slowContainer.release();
+        Assertions.assertTrue(slowContainer.awaitFinished());
+        examples.forEach(example -> Assertions.assertNull(example.getIntrospectName()));
+    }
+
+    @Test
+    public void testTimeoutWithFailPolicy() throws InterruptedException {
+        SlowContainer slowContainer = new SlowContainer();
+        OperationConfiguration configuration = getTimeoutConfiguration(slowContainer);
+        AsyncUnorderedOperationExecutor executor = new AsyncUnorderedOperationExecutor(Executors.newFixedThreadPool(2));
+        executor.setTimeout(100, TimeUnit.MILLISECONDS);
+        executor.setTimeoutPolicy(AsyncUnorderedOperationExecutor.TimeoutPolicy.FAIL);
+        AtomicInteger timeouts = new AtomicInteger();
+        executor.setContainerListener((container, operations, timeout) -> timeouts.incrementAndGet());
+
+        List<TimeoutExample> examples = Collections.singletonList(new TimeoutExample(1, "小明"));
+        CompletionException ex = Assertions.assertThrows(CompletionException.class, () -> executor.execute(examples, configuration));
+        Assertions.assertTrue(ex.getCause() instanceof TimeoutException);
+        Assertions.assertEquals(1, timeouts.get());
+
+        slowContainer.release();
+        Assertions.assertTrue(slowContainer.awaitFinished());
+        Assertions.assertNull(examples.get(0).getIntrospectName());
+    }
+
+    @Test
+    public void testContainerTimeout() throws InterruptedException {
+        SlowContainer slowContainer = new SlowContainer();
+        OperationConfiguration configuration = getTimeoutConfiguration(slowContainer);
+        AsyncUnorderedOperationExecutor executor = new AsyncUnorderedOperationExecutor(Executors.newFixedThreadPool(2));
+        AtomicInteger timeouts = new AtomicInteger();
+        executor.setContainerListener((container, operations, timeout) -> {
+            Assertions.assertSame(slowContainer, container);
+            Assertions.assertEquals(50L, timeout);
+            Assertions.assertEquals(1, operations.keySet().size());
+            timeouts.incrementAndGet();
+        });
+
+        // 同时存在时以较短的时限为准
+        executor.setTimeout(10, TimeUnit.SECONDS);
+        executor.setContainerTimeout(slowContainer, 50, TimeUnit.MILLISECONDS);
+        List<TimeoutExample> examples = Collections.singletonList(new TimeoutExample(1, "小明"));
+        executor.execute(examples, configuration);
+        Assertions.assertEquals(1, timeouts.get());
+        Assertions.assertEquals(1, examples.get(0).getIntrospectId());
+        slowContainer.release();
+        Assertions.assertTrue(slowContainer.awaitFinished());
+        Assertions.assertNull(examples.get(0).getIntrospectName());
+
+        // 移除时限后，容器按时完成处理
+        executor.setTimeout(0, TimeUnit.MILLISECONDS);
+        executor.setContainerTimeout(slowContainer, 0, TimeUnit.MILLISECONDS);
+        SlowContainer fastContainer = new SlowContainer();
+        fastContainer.release();
+        executor.setContainerTimeout(fastContainer, 10, TimeUnit.SECONDS);
+        List<TimeoutExample> others = Collections.singletonList(new TimeoutExample(2, "小王"));
+        executor.execute(others, getTimeoutConfiguration(fastContainer));
+        Assertions.assertEquals("小王", others.get(0).getIntrospectName());
+        Assertions.assertEquals(1, timeouts.get());
+    }
+
+    @Test
+    public void testContainerBulkhead() throws Exception {
+        SlowContainer slowContainer = new SlowContainer();
+        OperationConfiguration configuration = getTimeoutConfiguration(slowContainer);
+        AsyncUnorderedOperationExecutor executor = new AsyncUnorderedOperationExecutor(Executors.newFixedThreadPool(4));
+        executor.setContainerBulkhead(slowContainer, 1, 0);
+        AtomicInteger rejected = new AtomicInteger();
+        executor.setContainerListener(new ContainerListener() {
+            @Override
+            public void onTimeout(Container container, Multimap<AssembleOperation, ?> operations, long timeoutMillis) {
+                Assertions.fail("unexpected timeout");
+            }
+            @Override
+            public void onRejected(Container container, Multimap<AssembleOperation, ?> operations) {
+                Assertions.assertSame(slowContainer, container);
+                rejected.incrementAndGet();
+            }
+        });
+
+        // 第一次调用占满舱壁
+        List<TimeoutExample> examples = Collections.singletonList(new TimeoutExample(1, "小明"));
+        CompletableFuture<Void> first = executor.executeAsync(examples, configuration).toCompletableFuture();
+
+        // 第二次调用时舱壁已满，超出的任务被拒绝并通知监听器，其余容器照常完成处理
+        List<TimeoutExample> others = Collections.singletonList(new TimeoutExample(2, "小王"));
+        executor.execute(others, configuration);
+        Assertions.assertEquals(1, rejected.get());
+        Assertions.assertEquals(2, others.get(0).getIntrospectId());
+        Assertions.assertNull(others.get(0).getIntrospectName());
+
+        slowContainer.release();
+        first.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("小明", examples.get(0).getIntrospectName());
+    }
+
+    @Test
+    public void testContainerRejectedByExecutor() throws Exception {
+        List<Container> rejected = new CopyOnWriteArrayList<>();
+        ContainerListener listener = new ContainerListener() {
+            @Override
+            public void onTimeout(Container container, Multimap<AssembleOperation, ?> operations, long timeoutMillis) {
+                Assertions.fail("unexpected timeout");
+            }
+            @Override
+            public void onRejected(Container container, Multimap<AssembleOperation, ?> operations) {
+                rejected.add(container);
+            }
+        };
+
+        // 舱壁未满但线程池拒绝执行时，同样通知监听器并忽略该容器
+        SlowContainer slowContainer = new SlowContainer();
+        OperationConfiguration configuration = getSlowConfiguration(slowContainer);
+        ExecutorService threadPool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        AsyncUnorderedOperationExecutor executor = new AsyncUnorderedOperationExecutor(threadPool);
+        executor.setContainerBulkhead(slowContainer, 2, 1);
+        executor.setContainerListener(listener);
+        List<TimeoutExample> examples = Collections.singletonList(new TimeoutExample(1, "小明"));
+        CompletableFuture<Void> first = executor.executeAsync(examples, configuration).toCompletableFuture();
+        List<TimeoutExample> others = Collections.singletonList(new TimeoutExample(2, "小王"));
+        executor.execute(others, configuration);
+        Assertions.assertEquals(Collections.singletonList(slowContainer), rejected);
+        Assertions.assertNull(others.get(0).getIntrospectName());
+        slowContainer.release();
+        first.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("小明", examples.get(0).getIntrospectName());
+        threadPool.shutdown();
+
+        // 等待中的任务在提交到线程池时被拒绝，同样通知监听器，并结束对应的调用
+        rejected.clear();
+        SlowContainer queuedContainer = new SlowContainer();
+        OperationConfiguration queuedConfiguration = getSlowConfiguration(queuedContainer);
+        ExecutorService queuedThreadPool = Executors.newSingleThreadExecutor();
+        AsyncUnorderedOperationExecutor queuedExecutor = new AsyncUnorderedOperationExecutor(queuedThreadPool);
+        queuedExecutor.setContainerBulkhead(queuedContainer, 1, 1);
+        queuedExecutor.setContainerListener(listener);
+        List<TimeoutExample> running = Collections.singletonList(new TimeoutExample(3, "小李"));
+        CompletableFuture<Void> runningFuture = queuedExecutor.executeAsync(running, queuedConfiguration).toCompletableFuture();
+        List<TimeoutExample> waiting = Collections.singletonList(new TimeoutExample(4, "小刚"));
+        CompletableFuture<Void> waitingFuture = queuedExecutor.executeAsync(waiting, queuedConfiguration).toCompletableFuture();
+        Assertions.assertTrue(rejected.isEmpty());
+        queuedThreadPool.shutdown();
+        queuedContainer.release();
+        runningFuture.get(5, TimeUnit.SECONDS);
+        waitingFuture.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("小李", running.get(0).getIntrospectName());
+        Assertions.assertNull(waiting.get(0).getIntrospectName());
+        Assertions.assertEquals(Collections.singletonList(queuedContainer), rejected);
+    }
+
+    @Test
+    public void testSourceScope() {
+        List<Set<Integer>> requestedKeys = new CopyOnWriteArrayList<>();
+        BaseKeyContainer<Integer> container = new BaseKeyContainer<Integer>() {
+            @Override
+            protected Map<Integer, ?> getSources(@Nonnull Set<Integer> keys) {
+                requestedKeys.add(new HashSet<>(keys));
+                Map<Integer, String> sources = new HashMap<>();
+                keys.forEach(key -> sources.put(key, "id是" + key));
+                return sources;
+            }
+        };
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, TimeoutExample.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(TimeoutExample.class, "id"),
+            Collections.emptySet(), "", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectName", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        AsyncUnorderedOperationExecutor executor = new AsyncUnorderedOperationExecutor(Executors.newFixedThreadPool(2));
+
+        // 容器在线程池中处理时，同样复用调用方的作用域中已经获取过的数据源
+        try (SourceScope scope = SourceScope.open()) {
+            for (int i = 0; i < 2; i++) {
+                List<TimeoutExample> examples = Collections.singletonList(new TimeoutExample(1, "小明"));
+                executor.execute(examples, configuration);
+                Assertions.assertEquals("id是1", examples.get(0).getIntrospectName());
+            }
+        }
+        Assertions.assertEquals(1, requestedKeys.size());
+
+        // 作用域外则每次都重新获取
+        executor.execute(Collections.singletonList(new TimeoutExample(1, "小明")), configuration);
+        Assertions.assertEquals(2, requestedKeys.size());
+    }
+
+    private OperationConfiguration getSlowConfiguration(Container slowContainer) {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, TimeoutExample.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(TimeoutExample.class, "name"),
+            Collections.emptySet(), "", slowContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectName", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        return configuration;
+    }
+
+    private OperationConfiguration getTimeoutConfiguration(Container slowContainer) {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, TimeoutExample.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(TimeoutExample.class, "id"),
+            Collections.emptySet(), "", new KeyIntrospectContainer(), assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectId", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(TimeoutExample.class, "name"),
+            Collections.emptySet(), "", slowContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectName", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        return configuration;
+    }
+
+    /**
+     * 忽略中断，直到被释放后才将待处理对象本身作为数据源写入的容器
+     */
+    private static class SlowContainer implements Container {
+
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        @Override
+        public void process(Multimap<AssembleOperation, ?> operations) {
+            boolean interrupted = false;
+            while (released.getCount() > 0) {
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            operations.forEach((operation, target) -> operation.getAssembler().execute(target, target, operation));
+            finished.countDown();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        boolean awaitFinished() throws InterruptedException {
+            return finished.await(5, TimeUnit.SECONDS);
+        }
+
+    }
+
+    @Data
+    private static class TimeoutExample {
+        private Integer id;
+        private String name;
+        private Integer introspectId;
+        private String introspectName;
+        public TimeoutExample(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
     @Data
     private static class Example<T> {
         private String name;
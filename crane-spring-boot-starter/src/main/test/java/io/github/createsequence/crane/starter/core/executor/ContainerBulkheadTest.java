@@ -0,0 +1,144 @@
+package io.github.createsequence.crane.starter.core.executor;
+
+import io.github.createsequence.crane.core.executor.ContainerBulkhead;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/26 14:30
+ */
+public class ContainerBulkheadTest {
+
+    @Test
+    public void testContainerBulkhead() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ContainerBulkhead bulkhead = new ContainerBulkhead(2, 1);
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        List<FutureTask<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new FutureTask<>(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                started.countDown();
+                released.await();
+                running.decrementAndGet();
+                return null;
+            }));
+        }
+
+        // 并发数达到上限前直接提交到线程池
+        Assertions.assertTrue(bulkhead.submit(tasks.get(0), executor));
+        Assertions.assertTrue(bulkhead.submit(tasks.get(1), executor));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, bulkhead.getRunningCalls());
+
+        // 超出并发数的任务进入等待队列，队列已满时拒绝
+        Assertions.assertTrue(bulkhead.submit(tasks.get(2), executor));
+        Assertions.assertEquals(1, bulkhead.getWaitingCalls());
+        Assertions.assertFalse(bulkhead.submit(tasks.get(3), executor));
+        Assertions.assertEquals(1, bulkhead.getWaitingCalls());
+
+        // 任务完成后，等待中的任务依次执行，且同时执行的任务数不超过上限
+        released.countDown();
+        for (int i = 0; i < 3; i++) {
+            tasks.get(i).get(5, TimeUnit.SECONDS);
+        }
+        Assertions.assertFalse(tasks.get(3).isDone());
+        Assertions.assertEquals(2, maxRunning.get());
+        waitUntilIdle(bulkhead);
+        Assertions.assertEquals(0, bulkhead.getRunningCalls());
+        Assertions.assertEquals(0, bulkhead.getWaitingCalls());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testContainerBulkheadWithoutQueue() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ContainerBulkhead bulkhead = new ContainerBulkhead(1, 0);
+        CountDownLatch released = new CountDownLatch(1);
+        FutureTask<Void> running = new FutureTask<>(() -> {
+            released.await();
+            return null;
+        });
+        Assertions.assertTrue(bulkhead.submit(running, executor));
+        Assertions.assertFalse(bulkhead.submit(new FutureTask<>(() -> null), executor));
+        Assertions.assertEquals(0, bulkhead.getWaitingCalls());
+        released.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        waitUntilIdle(bulkhead);
+        Assertions.assertTrue(bulkhead.submit(new FutureTask<>(() -> null), executor));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRejectedByExecutor() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        ContainerBulkhead bulkhead = new ContainerBulkhead(1, 1);
+        FutureTask<Void> task = new FutureTask<>(() -> null);
+        AtomicInteger rejected = new AtomicInteger();
+
+        // 直接提交的任务被线程池拒绝时返回false，且不调用拒绝处理
+        Assertions.assertFalse(bulkhead.submit(task, executor, rejected::incrementAndGet));
+        Assertions.assertFalse(task.isDone());
+        Assertions.assertEquals(0, rejected.get());
+        Assertions.assertEquals(0, bulkhead.getRunningCalls());
+    }
+
+    @Test
+    public void testWaitingTaskRejectedByExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ContainerBulkhead bulkhead = new ContainerBulkhead(1, 1);
+        CountDownLatch released = new CountDownLatch(1);
+        FutureTask<Void> running = new FutureTask<>(() -> {
+            released.await();
+            return null;
+        });
+        FutureTask<Void> waiting = new FutureTask<>(() -> null);
+        FutureTask<Void> cancelled = new FutureTask<>(() -> null);
+        AtomicInteger rejected = new AtomicInteger();
+        Assertions.assertTrue(bulkhead.submit(running, executor));
+        Assertions.assertTrue(bulkhead.submit(waiting, executor, rejected::incrementAndGet));
+        Assertions.assertEquals(1, bulkhead.getWaitingCalls());
+
+        // 等待中的任务被线程池拒绝时调用拒绝处理，未指定时取消该任务
+        executor.shutdown();
+        released.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        waitUntilIdle(bulkhead);
+        Assertions.assertEquals(1, rejected.get());
+        Assertions.assertFalse(waiting.isDone());
+        Assertions.assertEquals(0, bulkhead.getRunningCalls());
+        Assertions.assertEquals(0, bulkhead.getWaitingCalls());
+
+        ExecutorService shutdownExecutor = Executors.newSingleThreadExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        FutureTask<Void> blocking = new FutureTask<>(() -> {
+            blocked.await();
+            return null;
+        });
+        Assertions.assertTrue(bulkhead.submit(blocking, shutdownExecutor));
+        Assertions.assertTrue(bulkhead.submit(cancelled, shutdownExecutor));
+        shutdownExecutor.shutdown();
+        blocked.countDown();
+        blocking.get(5, TimeUnit.SECONDS);
+        waitUntilIdle(bulkhead);
+        Assertions.assertTrue(cancelled.isCancelled());
+    }
+
+    private static void waitUntilIdle(ContainerBulkhead bulkhead) throws InterruptedException {
+        // 任务的Future完成后，舱壁才会释放并发数
+        for (int i = 0; i < 500 && bulkhead.getRunningCalls() > 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package io.github.createsequence.crane.starter.core.executor;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.map.MapUtil;
+import io.github.createsequence.crane.core.annotation.AssembleKV;
+import io.github.createsequence.crane.core.annotation.Prop;
+import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.container.KeyValueContainer;
+import io.github.createsequence.crane.core.executor.FixedPointOperationExecutor;
+import io.github.createsequence.crane.core.executor.UnorderedOperationExecutor;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexDisassembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.*;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.*;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/21 17:00
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class FixedPointOperationExecutorTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+    @Autowired
+    FieldAnnotationConfigurationParser fieldAnnotationConfigurationParser;
+    @Autowired
+    ConfigurationCache ConfigurationCache;
+    @Autowired
+    KeyValueContainer keyValueContainer;
+
+    @Test
+    public void testFixedPointOperationExecutor() {
+        keyValueContainer.register("test", MapUtil.builder().put(0, "装配得到的嵌套对象").build());
+
+        // 获取配置，根据id装配一个嵌套对象，该嵌套对象本身也需要装配
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        AssembleOperation nestOperation = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "nest", keyValueContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("dynamicObject", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        configuration.getAssembleOperations().add(nestOperation);
+
+        // 获取装卸配置
+        DisassembleOperation disassembleOperation = new BeanDynamicDisassembleOperation(
+            fieldAnnotationConfigurationParser, 0,
+            configuration,
+            new BeanReflexDisassembler(beanReflexOperateProcessor),
+            ReflexUtils.findField(Example.class, "dynamicObject"),
+            Collections.emptySet(),
+            ConfigurationCache
+        );
+        configuration.getDisassembleOperations().add(disassembleOperation);
+
+        // 普通执行器在装配前收集装卸操作，因此无法处理装配得到的嵌套对象
+        registerNestExamples();
+        List<Example<Example<?>>> examples = Arrays.asList(new Example<>(1, "小明"), new Example<>(2, "小王"), new Example<>(3, "小李"));
+        new UnorderedOperationExecutor().execute(examples, configuration);
+        examples.forEach(example -> {
+            Assertions.assertNotNull(example.getDynamicObject());
+            Assertions.assertNull(example.getDynamicObject().getName());
+        });
+
+        // 执行操作
+        registerNestExamples();
+        examples = Arrays.asList(new Example<>(1, "小明"), new Example<>(2, "小王"), new Example<>(3, "小李"));
+        new FixedPointOperationExecutor(new UnorderedOperationExecutor()).execute(examples, configuration);
+
+        Map<Integer, Example<Example<?>>> exampleMap = CollUtil.toMap(examples, new HashMap<>(4), Example::getId);
+        Assertions.assertEquals(3, exampleMap.size());
+        Assertions.assertEquals("装配得到的嵌套对象", exampleMap.get(1).getDynamicObject().getName());
+        Assertions.assertEquals("装配得到的嵌套对象", exampleMap.get(2).getDynamicObject().getName());
+        Assertions.assertEquals("装配得到的嵌套对象", exampleMap.get(3).getDynamicObject().getName());
+        Assertions.assertEquals("小明", exampleMap.get(1).getName());
+        Assertions.assertEquals("小王", exampleMap.get(2).getName());
+        Assertions.assertEquals("小李", exampleMap.get(3).getName());
+    }
+
+    private void registerNestExamples() {
+        keyValueContainer.register("nest", MapUtil.builder()
+            .put(1, new Example<>(0, null))
+            .put(2, new Example<>(0, null))
+            .put(3, new Example<>(0, null))
+            .build()
+        );
+    }
+
+    @Data
+    private static class Example<T> {
+        private String name;
+        @AssembleKV(namespace = "test", props = @Prop(ref = "name"))
+        private Integer id;
+        private T dynamicObject;
+        public Example(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+}
@@ -0,0 +1,285 @@
+package io.github.createsequence.crane.starter.core.executor;
+
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.BaseKeyContainer;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.container.KeyIntrospectContainer;
+import io.github.createsequence.crane.core.executor.ParallelUnorderedOperationExecutor;
+import io.github.createsequence.crane.core.executor.UnorderedOperationExecutor;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexDisassembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.BeanAssembleOperation;
+import io.github.createsequence.crane.core.parser.BeanDisassembleOperation;
+import io.github.createsequence.crane.core.parser.BeanOperationConfiguration;
+import io.github.createsequence.crane.core.parser.BeanPropertyMapping;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/16 16:02
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class ParallelUnorderedOperationExecutorTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+
+    @Test
+    public void testParallelUnorderedOperationExecutor() {
+        CountingContainer<Integer> idContainer = new CountingContainer<Integer>() {};
+        CountingContainer<String> nameContainer = new CountingContainer<String>() {};
+
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "", idContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("idSource", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "name"),
+            Collections.emptySet(), "", nameContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("nameSource", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+
+        // 分块大小为2时，10个对象将被拆分为多个分块并行收集，且不同分块中存在相同的key值
+        List<Example> examples = IntStream.range(0, 10)
+            .mapToObj(i -> new Example(i % 5, "name" + (i % 3)))
+            .collect(Collectors.toList());
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            new ParallelUnorderedOperationExecutor(forkJoinPool, 2).execute(examples, configuration);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        // 合并后每个容器仅被处理一次，且仅获取一次数据源，key值为全部分块中的key值的并集
+        Assertions.assertEquals(1, idContainer.processCount.get());
+        Assertions.assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList(0, 1, 2, 3, 4))), idContainer.requestedKeys);
+        Assertions.assertEquals(1, nameContainer.processCount.get());
+        Assertions.assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList("name0", "name1", "name2"))), nameContainer.requestedKeys);
+        examples.forEach(example -> {
+            Assertions.assertEquals("source" + example.getId(), example.getIdSource());
+            Assertions.assertEquals("source" + example.getName(), example.getNameSource());
+        });
+    }
+
+    @Test(timeout = 10000)
+    public void testSharedAndCyclicTargets() {
+        List<Object> processedTargets = new CopyOnWriteArrayList<>();
+        Container keyIntrospectContainer = new KeyIntrospectContainer();
+        Container countingContainer = operations -> {
+            processedTargets.addAll(operations.values());
+            keyIntrospectContainer.process(operations);
+        };
+        OperationConfiguration configuration = getNodeConfiguration(countingContainer);
+
+        // 两个对象引用同一个嵌套对象，另有两个对象互相引用构成环
+        Node shared = new Node(0, null);
+        Node cyclic = new Node(3, null);
+        Node cyclicChild = new Node(4, cyclic);
+        cyclic.setChild(cyclicChild);
+        List<Node> nodes = Arrays.asList(new Node(1, shared), new Node(2, shared), cyclic);
+        // 分块大小为1时，共享的嵌套对象会在不同的分块中分别被收集
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            new ParallelUnorderedOperationExecutor(forkJoinPool, 1).execute(nodes, configuration);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        // 执行可以正常结束，且每个对象实例仅被装配一次
+        Set<Object> distinctTargets = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinctTargets.addAll(processedTargets);
+        Assertions.assertEquals(5, processedTargets.size());
+        Assertions.assertEquals(5, distinctTargets.size());
+        Assertions.assertTrue(distinctTargets.contains(shared));
+        Assertions.assertTrue(distinctTargets.contains(cyclicChild));
+        nodes.forEach(node -> Assertions.assertEquals(node.getId(), node.getIntrospectId()));
+        Assertions.assertEquals(0, shared.getIntrospectId());
+        Assertions.assertEquals(4, cyclicChild.getIntrospectId());
+    }
+
+    @Test
+    public void testParallelDisassemble() {
+        OperationConfiguration configuration = getTreeConfiguration();
+        // 根节点下有10个子节点，每个子节点下又有3个子节点
+        Tree root = new Tree(0, IntStream.range(1, 11)
+            .mapToObj(i -> new Tree(i, IntStream.range(0, 3)
+                .mapToObj(j -> new Tree(i * 100 + j, null))
+                .collect(Collectors.toList())))
+            .collect(Collectors.toList()));
+        List<Tree> trees = Collections.singletonList(root);
+
+        // 串行装卸
+        List<List<Object>> serialResults = new ArrayList<>();
+        new UnorderedOperationExecutor() {
+            @Nonnull
+            @Override
+            protected List<Object> disassemble(@Nonnull Collection<?> targets, @Nonnull DisassembleOperation operation) {
+                List<Object> results = super.disassemble(targets, operation);
+                serialResults.add(results);
+                return results;
+            }
+        }.execute(trees, configuration);
+
+        // 分块大小为2时，包含10个与30个对象的层级将在线程池中并行装卸
+        List<List<Object>> parallelResults = new ArrayList<>();
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            new ParallelUnorderedOperationExecutor(forkJoinPool, 2) {
+                @Nonnull
+                @Override
+                protected List<Object> disassemble(@Nonnull Collection<?> targets, @Nonnull DisassembleOperation operation) {
+                    List<Object> results = super.disassemble(targets, operation);
+                    parallelResults.add(results);
+                    return results;
+                }
+            }.execute(trees, configuration);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        // 并行装卸得到的对象及其顺序与串行装卸一致
+        Assertions.assertEquals(3, parallelResults.size());
+        Assertions.assertEquals(serialResults, parallelResults);
+        Assertions.assertEquals(10, parallelResults.get(0).size());
+        List<Object> grandchildren = root.getChildren().stream()
+            .flatMap(child -> child.getChildren().stream())
+            .collect(Collectors.toList());
+        Assertions.assertEquals(grandchildren, parallelResults.get(1));
+        Assertions.assertTrue(parallelResults.get(2).isEmpty());
+        grandchildren.stream().map(Tree.class::cast)
+            .forEach(tree -> Assertions.assertEquals(tree.getId(), tree.getIntrospectId()));
+    }
+
+    private OperationConfiguration getTreeConfiguration() {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Tree.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Tree.class, "id"),
+            Collections.emptySet(), "", new KeyIntrospectContainer(), assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectId", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getDisassembleOperations().add(new BeanDisassembleOperation(
+            0, configuration, new BeanReflexDisassembler(beanReflexOperateProcessor),
+            configuration, ReflexUtils.findField(Tree.class, "children"), Collections.emptySet()
+        ));
+        return configuration;
+    }
+
+    private OperationConfiguration getNodeConfiguration(Container container) {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Node.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Node.class, "id"),
+            Collections.emptySet(), "", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectId", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getDisassembleOperations().add(new BeanDisassembleOperation(
+            0, configuration, new BeanReflexDisassembler(beanReflexOperateProcessor),
+            configuration, ReflexUtils.findField(Node.class, "child"), Collections.emptySet()
+        ));
+        return configuration;
+    }
+
+    /**
+     * 记录处理次数与每次获取数据源时的key值的容器
+     */
+    private abstract static class CountingContainer<K> extends BaseKeyContainer<K> {
+
+        private final AtomicInteger processCount = new AtomicInteger();
+        private final List<Set<K>> requestedKeys = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void process(Multimap<AssembleOperation, ?> operations) {
+            processCount.incrementAndGet();
+            super.process(operations);
+        }
+
+        @Override
+        public void process(Multimap<AssembleOperation, ?> operations, ForkJoinPool forkJoinPool) {
+            processCount.incrementAndGet();
+            super.process(operations, forkJoinPool);
+        }
+
+        @Override
+        protected Map<K, ?> getSources(@Nonnull Set<K> keys) {
+            requestedKeys.add(new HashSet<>(keys));
+            return keys.stream().collect(Collectors.toMap(key -> key, key -> "source" + key));
+        }
+
+    }
+
+    @Data
+    private static class Example {
+        private Integer id;
+        private String name;
+        private String idSource;
+        private String nameSource;
+        public Example(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * 可能被共享或循环引用的对象，不使用{@link Data}以免生成的equals与hashCode在环上无限递归
+     */
+    @Getter
+    @Setter
+    private static class Node {
+        private Integer id;
+        private Integer introspectId;
+        private Node child;
+        public Node(Integer id, Node child) {
+            this.id = id;
+            this.child = child;
+        }
+    }
+
+    @Getter
+    @Setter
+    private static class Tree {
+        private Integer id;
+        private Integer introspectId;
+        private List<Tree> children;
+        public Tree(Integer id, List<Tree> children) {
+            this.id = id;
+            this.children = children;
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package io.github.createsequence.crane.starter.core.executor;
+
+import cn.hutool.core.map.MapUtil;
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.container.KeyIntrospectContainer;
+import io.github.createsequence.crane.core.container.KeyValueContainer;
+import io.github.createsequence.crane.core.executor.AsyncUnorderedOperationExecutor;
+import io.github.createsequence.crane.core.executor.PipelinedOperationExecutor;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexDisassembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.*;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/22 11:00
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class PipelinedOperationExecutorTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+    @Autowired
+    FieldAnnotationConfigurationParser fieldAnnotationConfigurationParser;
+    @Autowired
+    ConfigurationCache ConfigurationCache;
+    @Autowired
+    KeyValueContainer keyValueContainer;
+
+    @Test
+    public void testTraversalOverlapsWithFetches() {
+        FetchingContainer fetchingContainer = new FetchingContainer();
+        OperationConfiguration configuration = getNestedConfiguration(fetchingContainer);
+
+        // 遍历下一层时，上一层的容器已经开始获取数据源
+        List<Parent> parents = Arrays.asList(new Parent(1, "小明", fetchingContainer, 5000), new Parent(2, "小王", fetchingContainer, 5000));
+        new PipelinedOperationExecutor(Executors.newFixedThreadPool(2)).execute(parents, configuration);
+        parents.forEach(parent -> {
+            Assertions.assertTrue(parent.isOverlapped());
+            Assertions.assertEquals(parent.getName(), parent.getIntrospectName());
+            Assertions.assertEquals(parent.getId() * 10, parent.getChild().getIntrospectId());
+        });
+
+        // 普通执行器完整遍历对象图后才访问容器
+        FetchingContainer otherContainer = new FetchingContainer();
+        List<Parent> others = Collections.singletonList(new Parent(3, "小李", otherContainer, 100));
+        new AsyncUnorderedOperationExecutor(Executors.newFixedThreadPool(2)).execute(others, getNestedConfiguration(otherContainer));
+        Assertions.assertFalse(others.get(0).isOverlapped());
+        Assertions.assertEquals("小李", others.get(0).getIntrospectName());
+        Assertions.assertEquals(30, others.get(0).getChild().getIntrospectId());
+    }
+
+    @Test
+    public void testAssembledPropertyCannotBeDisassembled() {
+        keyValueContainer.register("nest", MapUtil.builder().put(1, new Example(0)).build());
+
+        // 装配操作写入的字段同时也是装卸操作的目标字段
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "nest", keyValueContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("dynamicObject", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getDisassembleOperations().add(new BeanDynamicDisassembleOperation(
+            fieldAnnotationConfigurationParser, 0, configuration,
+            new BeanReflexDisassembler(beanReflexOperateProcessor),
+            ReflexUtils.findField(Example.class, "dynamicObject"),
+            Collections.emptySet(), ConfigurationCache
+        ));
+
+        PipelinedOperationExecutor executor = new PipelinedOperationExecutor(Executors.newFixedThreadPool(2));
+        List<Example> examples = Collections.singletonList(new Example(1));
+        CompletionException ex = Assertions.assertThrows(CompletionException.class, () -> executor.execute(examples, configuration));
+        Assertions.assertTrue(ex.getCause() instanceof IllegalArgumentException);
+        Assertions.assertNull(examples.get(0).getDynamicObject());
+    }
+
+    private OperationConfiguration getNestedConfiguration(Container fetchingContainer) {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration childConfiguration = new BeanOperationConfiguration(globalConfiguration, Child.class, new ArrayList<>(), new ArrayList<>());
+        childConfiguration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, childConfiguration, ReflexUtils.findField(Child.class, "id"),
+            Collections.emptySet(), "", new KeyIntrospectContainer(), assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectId", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Parent.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Parent.class, "name"),
+            Collections.emptySet(), "", fetchingContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectName", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getDisassembleOperations().add(new BeanDisassembleOperation(
+            0, configuration, new BeanReflexDisassembler(beanReflexOperateProcessor),
+            childConfiguration, ReflexUtils.findField(Parent.class, "child"), Collections.emptySet()
+        ));
+        return configuration;
+    }
+
+    /**
+     * 开始处理时发出通知，然后将待处理对象本身作为数据源写入的容器
+     */
+    private static class FetchingContainer implements Container {
+
+        private final CountDownLatch fetchStarted = new CountDownLatch(1);
+
+        @Override
+        public void process(Multimap<AssembleOperation, ?> operations) {
+            fetchStarted.countDown();
+            operations.forEach((operation, target) -> operation.getAssembler().execute(target, target, operation));
+        }
+
+    }
+
+    /**
+     * 读取嵌套对象时，等待容器开始获取数据源
+     */
+    @Getter
+    @Setter
+    private static class Parent {
+        private Integer id;
+        private String name;
+        private String introspectName;
+        private Child child;
+        private final FetchingContainer container;
+        private final long awaitMillis;
+        private volatile boolean overlapped;
+        public Parent(Integer id, String name, FetchingContainer container, long awaitMillis) {
+            this.id = id;
+            this.name = name;
+            this.child = new Child(id * 10);
+            this.container = container;
+            this.awaitMillis = awaitMillis;
+        }
+        public Child getChild() {
+            try {
+                overlapped = overlapped || container.fetchStarted.await(awaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return child;
+        }
+    }
+
+    @Data
+    private static class Child {
+        private Integer id;
+        private Integer introspectId;
+        public Child(Integer id) {
+            this.id = id;
+        }
+    }
+
+    @Data
+    private static class Example {
+        private Integer id;
+        private Example dynamicObject;
+        public Example(Integer id) {
+            this.id = id;
+        }
+    }
+
+}
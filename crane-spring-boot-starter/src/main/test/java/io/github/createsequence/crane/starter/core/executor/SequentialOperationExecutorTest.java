@@ -23,6 +23,8 @@ import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration
 import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
 import io.github.createsequence.crane.starter.core.CoreTestConfig;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 import org.junit.runner.RunWith;
@@ -30,7 +32,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
@@ -105,6 +112,118 @@ public class SequentialOperationExecutorTest {
         Assertions.assertEquals("小李::3", exampleMap.get(3).getIntrospectName());
     }
 
+    @Test(timeout = 10000)
+    public void testSharedAndCyclicTargets() {
+        List<Object> processedTargets = new CopyOnWriteArrayList<>();
+        Container keyIntrospectContainer = new KeyIntrospectContainer();
+        Container countingContainer = operations -> {
+            processedTargets.addAll(operations.values());
+            keyIntrospectContainer.process(operations);
+        };
+        OperationConfiguration configuration = getNodeConfiguration(countingContainer);
+
+        // 两个对象引用同一个嵌套对象，另有两个对象互相引用构成环
+        Node shared = new Node(0, null);
+        Node cyclic = new Node(3, null);
+        Node cyclicChild = new Node(4, cyclic);
+        cyclic.setChild(cyclicChild);
+        List<Node> nodes = Arrays.asList(new Node(1, shared), new Node(2, shared), cyclic);
+        new SequentialOperationExecutor().execute(nodes, configuration);
+
+        // 执行可以正常结束，且每个对象实例仅被装配一次
+        Set<Object> distinctTargets = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinctTargets.addAll(processedTargets);
+        Assertions.assertEquals(5, processedTargets.size());
+        Assertions.assertEquals(5, distinctTargets.size());
+        Assertions.assertTrue(distinctTargets.contains(shared));
+        Assertions.assertTrue(distinctTargets.contains(cyclicChild));
+        nodes.forEach(node -> Assertions.assertEquals(node.getId(), node.getIntrospectId()));
+        Assertions.assertEquals(0, shared.getIntrospectId());
+        Assertions.assertEquals(4, cyclicChild.getIntrospectId());
+    }
+
+    private OperationConfiguration getNodeConfiguration(Container container) {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Node.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Node.class, "id"),
+            Collections.emptySet(), "", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectId", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        configuration.getDisassembleOperations().add(new BeanDisassembleOperation(
+            0, configuration, new BeanReflexDisassembler(beanReflexOperateProcessor),
+            configuration, ReflexUtils.findField(Node.class, "child"), Collections.emptySet()
+        ));
+        return configuration;
+    }
+
+    @Test
+    public void testExecuteAsync() {
+        SequentialOperationExecutor executor = new SequentialOperationExecutor();
+
+        // 返回的结果在全部操作完成后完成
+        List<Example<?>> examples = Collections.singletonList(new Example<>(1, "小明", null));
+        CompletableFuture<Void> future = executor.executeAsync(examples, getAsyncConfiguration(new KeyIntrospectContainer()))
+            .toCompletableFuture();
+        Assertions.assertNull(future.join());
+        Assertions.assertEquals(1, examples.get(0).getIntrospectId());
+
+        // 容器处理失败时，调用线程不会抛出异常，而是以该异常完成返回的结果
+        Container failingContainer = operations -> {
+            throw new IllegalStateException("container failed");
+        };
+        CompletableFuture<Void> failed = executor.executeAsync(examples, getAsyncConfiguration(failingContainer))
+            .toCompletableFuture();
+        CompletionException ex = Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertTrue(ex.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testPlanCache() {
+        AtomicInteger createCount = new AtomicInteger();
+        List<Object> plans = new ArrayList<>();
+        SequentialOperationExecutor executor = new SequentialOperationExecutor() {
+            @Override
+            protected Plan getPlan(@Nonnull Set<Class<?>> targetGroups, @Nonnull Set<OperationConfiguration> configurations) {
+                Plan plan = super.getPlan(targetGroups, configurations);
+                plans.add(plan);
+                return plan;
+            }
+            @Override
+            protected Plan createPlan(@Nonnull Set<Class<?>> targetGroups, @Nonnull Set<OperationConfiguration> configurations) {
+                createCount.incrementAndGet();
+                return super.createPlan(targetGroups, configurations);
+            }
+        };
+
+        // 相同的类操作配置与操作组再次执行时复用已缓存的执行计划，且执行结果一致
+        OperationConfiguration configuration = getAsyncConfiguration(new KeyIntrospectContainer());
+        List<Example<?>> first = Arrays.asList(new Example<>(1, "小明", null), new Example<>(2, "小王", null));
+        executor.execute(first, configuration, new HashSet<>(Collections.singleton(DefaultGroup.class)));
+        List<Example<?>> second = Arrays.asList(new Example<>(1, "小明", null), new Example<>(2, "小王", null));
+        executor.execute(second, configuration, new HashSet<>(Collections.singleton(DefaultGroup.class)));
+
+        Assertions.assertEquals(1, createCount.get());
+        Assertions.assertEquals(2, plans.size());
+        Assertions.assertSame(plans.get(0), plans.get(1));
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(1, second.get(0).getIntrospectId());
+        Assertions.assertEquals(2, second.get(1).getIntrospectId());
+    }
+
+    private OperationConfiguration getAsyncConfiguration(Container container) {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        configuration.getAssembleOperations().add(new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "", container, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectId", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        ));
+        return configuration;
+    }
+
     @Data
     private static class Example<T> {
         private String name;
@@ -119,4 +238,20 @@ public class SequentialOperationExecutorTest {
             this.dynamicObject = Objects.isNull(supplier) ? null : supplier.get();
         }
     }
+
+    /**
+     * 可能被共享或循环引用的对象，不使用{@link Data}以免生成的equals与hashCode在环上无限递归
+     */
+    @Getter
+    @Setter
+    private static class Node {
+        private Integer id;
+        private Integer introspectId;
+        private Node child;
+        public Node(Integer id, Node child) {
+            this.id = id;
+            this.child = child;
+        }
+    }
+
 }
@@ -0,0 +1,134 @@
+package io.github.createsequence.crane.starter.core.executor;
+
+import com.google.common.collect.Multimap;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.executor.VirtualThreadOperationExecutor;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.BeanAssembleOperation;
+import io.github.createsequence.crane.core.parser.BeanOperationConfiguration;
+import io.github.createsequence.crane.core.parser.BeanPropertyMapping;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/20 16:00
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class VirtualThreadOperationExecutorTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+
+    @Test
+    public void testPlatformThreadFallback() {
+        Assume.assumeFalse(VirtualThreadOperationExecutor.isVirtualThreadSupported());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new VirtualThreadOperationExecutor(0));
+
+        // 不支持虚拟线程时，使用固定大小的平台线程池
+        VirtualThreadOperationExecutor executor = new VirtualThreadOperationExecutor(2);
+        Assertions.assertFalse(executor.isVirtualThreadEnabled());
+        RecordingContainer[] containers = {new RecordingContainer(), new RecordingContainer(), new RecordingContainer(), new RecordingContainer()};
+        executor.execute(getExamples(), getConfiguration(containers));
+        executor.shutdown();
+
+        Assertions.assertTrue(RecordingContainer.MAX_RUNNING.get() <= 2);
+        for (RecordingContainer container : containers) {
+            Assertions.assertEquals(1, container.threads.size());
+            Thread thread = container.threads.get(0);
+            Assertions.assertTrue(thread.getName().startsWith("crane-executor-"));
+            Assertions.assertTrue(thread.isDaemon());
+        }
+    }
+
+    @Test
+    public void testVirtualThread() {
+        Assume.assumeTrue(VirtualThreadOperationExecutor.isVirtualThreadSupported());
+
+        // 支持虚拟线程时，每个容器的处理任务都在一个新的虚拟线程中执行
+        VirtualThreadOperationExecutor executor = new VirtualThreadOperationExecutor(0);
+        Assertions.assertTrue(executor.isVirtualThreadEnabled());
+        RecordingContainer[] containers = {new RecordingContainer(), new RecordingContainer()};
+        executor.execute(getExamples(), getConfiguration(containers));
+        executor.shutdown();
+
+        for (RecordingContainer container : containers) {
+            Assertions.assertEquals(1, container.threads.size());
+            Assertions.assertTrue(container.threads.get(0).getClass().getName().contains("VirtualThread"));
+        }
+        Assertions.assertNotSame(containers[0].threads.get(0), containers[1].threads.get(0));
+    }
+
+    private OperationConfiguration getConfiguration(Container... containers) {
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        for (Container container : containers) {
+            configuration.getAssembleOperations().add(new BeanAssembleOperation(
+                0, configuration, ReflexUtils.findField(Example.class, "id"),
+                Collections.emptySet(), "", container, assembler,
+                Collections.singletonList(new BeanPropertyMapping("name", "", "", Void.class)),
+                Collections.singleton(DefaultGroup.class)
+            ));
+        }
+        return configuration;
+    }
+
+    private static List<Example> getExamples() {
+        return Arrays.asList(new Example(1), new Example(2));
+    }
+
+    /**
+     * 记录处理线程与同时处理的任务数的容器
+     */
+    private static class RecordingContainer implements Container {
+
+        private static final AtomicInteger RUNNING = new AtomicInteger();
+        private static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void process(Multimap<AssembleOperation, ?> operations) {
+            threads.add(Thread.currentThread());
+            MAX_RUNNING.accumulateAndGet(RUNNING.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                RUNNING.decrementAndGet();
+            }
+        }
+
+    }
+
+    @Data
+    private static class Example {
+        private Integer id;
+        private String name;
+        public Example(Integer id) {
+            this.id = id;
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+package io.github.createsequence.crane.starter.core.executor;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.map.MapUtil;
+import io.github.createsequence.crane.core.annotation.AssembleKV;
+import io.github.createsequence.crane.core.annotation.Prop;
+import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.container.BeanIntrospectContainer;
+import io.github.createsequence.crane.core.container.Container;
+import io.github.createsequence.crane.core.container.KeyIntrospectContainer;
+import io.github.createsequence.crane.core.container.KeyValueContainer;
+import io.github.createsequence.crane.core.executor.OperationExecutor;
+import io.github.createsequence.crane.core.executor.UnorderedOperationExecutor;
+import io.github.createsequence.crane.core.executor.WindowedOperationExecutor;
+import io.github.createsequence.crane.core.helper.DefaultGroup;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexAssembler;
+import io.github.createsequence.crane.core.operator.BeanReflexDisassembler;
+import io.github.createsequence.crane.core.operator.BeanReflexOperateProcessor;
+import io.github.createsequence.crane.core.operator.interfaces.Assembler;
+import io.github.createsequence.crane.core.parser.*;
+import io.github.createsequence.crane.core.parser.interfaces.AssembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/17 11:02
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class WindowedOperationExecutorTest {
+
+    @Autowired
+    private BeanReflexOperateProcessor beanReflexOperateProcessor;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+    @Autowired
+    FieldAnnotationConfigurationParser fieldAnnotationConfigurationParser;
+    @Autowired
+    ConfigurationCache ConfigurationCache;
+    @Autowired
+    KeyValueContainer keyValueContainer;
+
+    @Test
+    public void testWindowedOperationExecutor() {
+        Container keyIntrospectContainer = new KeyIntrospectContainer();
+        Container beanIntrospectContainer = new BeanIntrospectContainer();
+        keyValueContainer.register("test", MapUtil.builder().put(0, "动态的嵌套对象").build());
+
+        // 获取装配配置
+        Assembler assembler = new BeanReflexAssembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        AssembleOperation idIntrospectOperation = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "id"),
+            Collections.emptySet(), "", keyIntrospectContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectId", "", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        configuration.getAssembleOperations().add(idIntrospectOperation);
+        AssembleOperation nameIntrospectOperation = new BeanAssembleOperation(
+            0, configuration, ReflexUtils.findField(Example.class, "name"),
+            Collections.emptySet(), "", beanIntrospectContainer, assembler,
+            Collections.singletonList(new BeanPropertyMapping("introspectName", "name", "", Void.class)),
+            Collections.singleton(DefaultGroup.class)
+        );
+        configuration.getAssembleOperations().add(nameIntrospectOperation);
+
+        // 获取装卸配置
+        DisassembleOperation disassembleOperation = new BeanDynamicDisassembleOperation(
+            fieldAnnotationConfigurationParser, 0,
+            configuration,
+            new BeanReflexDisassembler(beanReflexOperateProcessor),
+            ReflexUtils.findField(Example.class, "dynamicObject"),
+            Collections.emptySet(),
+            ConfigurationCache
+        );
+        configuration.getDisassembleOperations().add(disassembleOperation);
+
+        // 执行操作
+        Supplier<Example<?>> nestExample = () -> new Example<>(0, null, null);
+        Stream<Example<Example<?>>> targets = Stream.of(new Example<>(1, "小明", nestExample), new Example<>(2, "小王", nestExample), new Example<>(3, "小李", nestExample));
+        List<Example<Example<?>>> examples = new WindowedOperationExecutor(new UnorderedOperationExecutor(), 2)
+            .execute(targets, configuration, Collections.singleton(DefaultGroup.class))
+            .collect(Collectors.toList());
+
+        Map<Integer, Example<Example<?>>> exampleMap = CollUtil.toMap(examples, new HashMap<>(4), Example::getId);
+        Assertions.assertEquals(3, exampleMap.size());
+        Assertions.assertEquals(1, exampleMap.get(1).getIntrospectId());
+        Assertions.assertEquals(2, exampleMap.get(2).getIntrospectId());
+        Assertions.assertEquals(3, exampleMap.get(3).getIntrospectId());
+        Assertions.assertEquals("动态的嵌套对象", exampleMap.get(1).getDynamicObject().getName());
+        Assertions.assertEquals("动态的嵌套对象", exampleMap.get(2).getDynamicObject().getName());
+        Assertions.assertEquals("动态的嵌套对象", exampleMap.get(3).getDynamicObject().getName());
+        Assertions.assertEquals("小明", exampleMap.get(1).getIntrospectName());
+        Assertions.assertEquals("小王", exampleMap.get(2).getIntrospectName());
+        Assertions.assertEquals("小李", exampleMap.get(3).getIntrospectName());
+
+    }
+
+    @Test
+    public void testLazyWindows() {
+        List<Integer> windowSizes = new ArrayList<>();
+        OperationExecutor delegate = (targets, configuration, groups) -> windowSizes.add(CollUtil.size(targets));
+        List<Integer> readTargets = new ArrayList<>();
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Stream<Integer> targets = Stream.of(1, 2, 3).peek(readTargets::add).onClose(() -> closed.set(true));
+        Stream<Integer> windowed = new WindowedOperationExecutor(delegate, 2)
+            .execute(targets, null, Collections.singleton(DefaultGroup.class));
+
+        // 流被消费前不读取也不处理任何窗口
+        Assertions.assertTrue(windowSizes.isEmpty());
+        Assertions.assertTrue(readTargets.isEmpty());
+
+        // 消费第一个元素时仅读取并处理第一个窗口
+        Iterator<Integer> iterator = windowed.iterator();
+        Assertions.assertEquals(1, iterator.next());
+        Assertions.assertEquals(Collections.singletonList(2), windowSizes);
+        Assertions.assertEquals(Arrays.asList(1, 2), readTargets);
+
+        // 剩余元素不足一个窗口时按实际数量处理
+        List<Integer> rest = new ArrayList<>();
+        iterator.forEachRemaining(rest::add);
+        Assertions.assertEquals(Arrays.asList(2, 3), rest);
+        Assertions.assertEquals(Arrays.asList(2, 1), windowSizes);
+
+        // 关闭时一并关闭原始流
+        windowed.close();
+        Assertions.assertTrue(closed.get());
+    }
+
+    @Test
+    public void testExecuteAsync() {
+        // 未重写异步方法的执行器在当前线程中执行，并在执行完毕后完成返回的结果
+        List<Integer> windowSizes = new ArrayList<>();
+        OperationExecutor delegate = (targets, configuration, groups) -> windowSizes.add(CollUtil.size(targets));
+        CompletableFuture<Void> future = new WindowedOperationExecutor(delegate, 2)
+            .executeAsync(Arrays.asList(1, 2, 3), null, DefaultGroup.class)
+            .toCompletableFuture();
+        Assertions.assertNull(future.join());
+        Assertions.assertEquals(Arrays.asList(2, 1), windowSizes);
+
+        // 执行失败时，调用线程不会抛出异常，而是以该异常完成返回的结果
+        OperationExecutor failingDelegate = (targets, configuration, groups) -> {
+            throw new IllegalStateException("container failed");
+        };
+        CompletableFuture<Void> failed = new WindowedOperationExecutor(failingDelegate, 2)
+            .executeAsync(Arrays.asList(1, 2, 3), null, DefaultGroup.class)
+            .toCompletableFuture();
+        CompletionException ex = Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertTrue(ex.getCause() instanceof IllegalStateException);
+    }
+
+    @Data
+    private static class Example<T> {
+        @AssembleKV(namespace = "test", props = @Prop(ref = "name"))
+        private Integer id;
+        private String name;
+        private Integer introspectId;
+        private String introspectName;
+        private T dynamicObject;
+        public Example(Integer id, String name, Supplier<T> supplier) {
+            this.id = id;
+            this.name = name;
+            this.dynamicObject = Objects.isNull(supplier) ? null : supplier.get();
+        }
+    }
+
+}
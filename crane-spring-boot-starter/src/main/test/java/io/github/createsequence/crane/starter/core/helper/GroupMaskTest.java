@@ -0,0 +1,77 @@
+package io.github.createsequence.crane.starter.core.helper;
+
+import io.github.createsequence.crane.core.helper.GroupMask;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/26 16:20
+ */
+public class GroupMaskTest {
+
+    @Test
+    public void testGroupMask() {
+        Assertions.assertEquals(0L, GroupMask.of(Collections.emptySet()));
+        Set<Class<?>> groups = new HashSet<>(Arrays.asList(String.class, Integer.class));
+        long mask = GroupMask.of(groups);
+        Assertions.assertEquals(mask, GroupMask.of(new HashSet<>(Arrays.asList(Integer.class, String.class))));
+        Assertions.assertTrue(GroupMask.containsAny(mask, groups, GroupMask.of(Collections.singleton(String.class)), Collections.singleton(String.class)));
+        Assertions.assertFalse(GroupMask.containsAny(mask, groups, GroupMask.of(Collections.singleton(Long.class)), Collections.singleton(Long.class)));
+    }
+
+    @Test
+    public void testOverflow() {
+        // 操作组超过63个时，id更大的操作组统一使用溢出位表示
+        List<Class<?>> classes = getGroups();
+        Assertions.assertTrue(classes.size() > 64);
+        List<Class<?>> overflowGroups = new ArrayList<>();
+        for (Class<?> group : classes) {
+            long mask = GroupMask.of(Collections.singleton(group));
+            Assertions.assertEquals(1, Long.bitCount(mask));
+            if (mask == GroupMask.OVERFLOW_BIT) {
+                overflowGroups.add(group);
+            }
+        }
+        Assertions.assertTrue(overflowGroups.size() >= 2);
+
+        // 仅在溢出位存在交集时，需要比较原始的操作组
+        Set<Class<?>> first = Collections.singleton(overflowGroups.get(0));
+        Set<Class<?>> second = Collections.singleton(overflowGroups.get(1));
+        Assertions.assertEquals(GroupMask.of(first), GroupMask.of(second));
+        Assertions.assertFalse(GroupMask.containsAny(GroupMask.of(first), first, GroupMask.of(second), second));
+        Assertions.assertTrue(GroupMask.containsAny(GroupMask.of(first), first, GroupMask.of(first), first));
+
+        // 与直接比较操作组集合的结果一致
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            Set<Class<?>> groups = randomGroups(classes, random);
+            Set<Class<?>> otherGroups = randomGroups(classes, random);
+            Assertions.assertEquals(
+                !Collections.disjoint(groups, otherGroups),
+                GroupMask.containsAny(GroupMask.of(groups), groups, GroupMask.of(otherGroups), otherGroups)
+            );
+        }
+    }
+
+    private static Set<Class<?>> randomGroups(List<Class<?>> classes, Random random) {
+        Set<Class<?>> groups = new HashSet<>();
+        for (int i = random.nextInt(4); i >= 0; i--) {
+            groups.add(classes.get(random.nextInt(classes.size())));
+        }
+        return groups;
+    }
+
+    private static List<Class<?>> getGroups() {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        classes.addAll(Arrays.asList(Collections.class.getDeclaredClasses()));
+        classes.addAll(Arrays.asList(ConcurrentHashMap.class.getDeclaredClasses()));
+        classes.addAll(Arrays.asList(Character.class.getDeclaredClasses()));
+        classes.addAll(Arrays.asList(Thread.class.getDeclaredClasses()));
+        return new ArrayList<>(classes);
+    }
+
+}
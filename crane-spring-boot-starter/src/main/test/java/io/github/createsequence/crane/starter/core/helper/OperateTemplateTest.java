@@ -0,0 +1,74 @@
+package io.github.createsequence.crane.starter.core.helper;
+
+import cn.hutool.core.map.MapUtil;
+import io.github.createsequence.crane.core.annotation.AssembleKV;
+import io.github.createsequence.crane.core.annotation.Prop;
+import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.container.KeyValueContainer;
+import io.github.createsequence.crane.core.executor.OperationExecutor;
+import io.github.createsequence.crane.core.executor.SequentialOperationExecutor;
+import io.github.createsequence.crane.core.helper.OperateTemplate;
+import io.github.createsequence.crane.core.parser.FieldAnnotationConfigurationParser;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/27 15:30
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class OperateTemplateTest {
+
+    @Autowired
+    private ConfigurationCache configurationCache;
+    @Autowired
+    private FieldAnnotationConfigurationParser fieldAnnotationConfigurationParser;
+    @Autowired
+    private KeyValueContainer keyValueContainer;
+
+    @Test
+    public void testProcessAsync() {
+        keyValueContainer.register("operateTemplate", MapUtil.builder().put(1, "小明").build());
+        OperateTemplate operateTemplate = new OperateTemplate(
+            configurationCache, fieldAnnotationConfigurationParser, new SequentialOperationExecutor()
+        );
+
+        // 返回的结果在全部操作完成后完成
+        Example example = new Example(1);
+        CompletableFuture<Void> future = operateTemplate.processAsync(example).toCompletableFuture();
+        Assertions.assertNull(future.join());
+        Assertions.assertEquals("小明", example.getName());
+
+        // 处理失败时，调用线程不会抛出异常，而是以该异常完成返回的结果
+        OperationExecutor failingExecutor = (targets, configuration, groups) -> {
+            throw new IllegalStateException("container failed");
+        };
+        CompletableFuture<Void> failed = operateTemplate.processAsync(new Example(1), failingExecutor).toCompletableFuture();
+        CompletionException ex = Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertTrue(ex.getCause() instanceof IllegalStateException);
+
+        // 待处理对象为空时直接完成
+        Assertions.assertTrue(operateTemplate.processAsync(null).toCompletableFuture().isDone());
+    }
+
+    @Data
+    private static class Example {
+        @AssembleKV(namespace = "operateTemplate", props = @Prop(ref = "name"))
+        private Integer id;
+        private String name;
+        public Example(Integer id) {
+            this.id = id;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.github.createsequence.crane.starter.core.helper;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.convert.ConverterRegistry;
+import io.github.createsequence.crane.core.helper.TypeConverters;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/26 18:00
+ */
+public class TypeConvertersTest {
+
+    @Test
+    public void testIdentity() {
+        // 类型一致或目标类型为Object时直接返回原值
+        String str = "crane";
+        Assertions.assertSame(str, TypeConverters.convert(String.class, str));
+        Assertions.assertSame(str, TypeConverters.convert(Object.class, str));
+        Assertions.assertSame(Function.identity(), TypeConverters.getConverter(String.class, String.class));
+        Assertions.assertNull(TypeConverters.convert(String.class, null));
+        Assertions.assertSame(str, TypeConverters.convert(null, str));
+
+        // 基本类型按其包装类型比较
+        Integer num = 1000;
+        Assertions.assertSame(num, TypeConverters.convert(int.class, num));
+        Assertions.assertSame(num, TypeConverters.convert(Integer.class, num));
+        Assertions.assertSame(Function.identity(), TypeConverters.getConverter(Integer.class, int.class));
+
+        // 集合、Map与数组即使类型一致，也仍然按原本的方式转换
+        Assertions.assertNotSame(Function.identity(), TypeConverters.getConverter(ArrayList.class, ArrayList.class));
+        Assertions.assertNotSame(Function.identity(), TypeConverters.getConverter(HashMap.class, HashMap.class));
+        Assertions.assertNotSame(Function.identity(), TypeConverters.getConverter(int[].class, int[].class));
+        List<Integer> list = new ArrayList<>(Arrays.asList(1, 2));
+        Object copiedList = TypeConverters.convert(ArrayList.class, list);
+        Assertions.assertNotSame(list, copiedList);
+        Assertions.assertEquals(list, copiedList);
+        Map<String, Integer> map = Collections.singletonMap("a", 1);
+        Assertions.assertEquals(Convert.convert(HashMap.class, map), TypeConverters.convert(HashMap.class, map));
+        int[] array = {1, 2};
+        int[] convertedArray = TypeConverters.convert(int[].class, array);
+        Assertions.assertArrayEquals(Convert.convert(int[].class, array), convertedArray);
+    }
+
+    @Test
+    public void testRegistryConverter() {
+        // 使用注册表中目标类型的转换器，且同一组类型的转换方法仅解析一次
+        Function<Object, Object> converter = TypeConverters.getConverter(String.class, Integer.class);
+        Assertions.assertSame(converter, TypeConverters.getConverter(String.class, Integer.class));
+        Assertions.assertEquals(12, converter.apply("12"));
+        Long num = TypeConverters.convert(long.class, "12");
+        Assertions.assertEquals(Long.valueOf(12L), num);
+        Assertions.assertEquals("12", TypeConverters.convert(String.class, 12));
+    }
+
+    @Test
+    public void testConvertFallback() {
+        // 注册表中没有目标类型的转换器时，使用Convert进行转换
+        Assertions.assertNull(ConverterRegistry.getInstance().getConverter(TimeUnit.class, true));
+        Assertions.assertEquals(TimeUnit.SECONDS, TypeConverters.convert(TimeUnit.class, "SECONDS"));
+        Assertions.assertEquals(Convert.convert(TimeUnit.class, "MINUTES"), TypeConverters.convert(TimeUnit.class, "MINUTES"));
+    }
+
+    @Test
+    public void testCustomConverter() {
+        // 首次转换前注册的自定义转换器将被使用，即使实际类型与目标类型一致
+        ConverterRegistry.getInstance().putCustom(Tag.class, (value, defaultValue) -> new Tag("custom:" + value));
+        Tag tag = new Tag("a");
+        Tag converted = TypeConverters.convert(Tag.class, tag);
+        Assertions.assertNotSame(tag, converted);
+        Assertions.assertEquals("custom:a", converted.toString());
+        Assertions.assertEquals("custom:b", String.valueOf(TypeConverters.convert(Tag.class, "b")));
+    }
+
+    private static class Tag {
+        private final String name;
+        Tag(String name) {
+            this.name = name;
+        }
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+}
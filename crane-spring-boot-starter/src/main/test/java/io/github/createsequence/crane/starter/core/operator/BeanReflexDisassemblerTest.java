@@ -60,10 +60,36 @@ public class BeanReflexDisassemblerTest {
         Assertions.assertEquals(item, actual);
     }
 
+    @Test
+    public void testNestedCollectionWithNull() {
+        Disassembler disassembler = new BeanReflexDisassembler(beanReflexOperateProcessor);
+        OperationConfiguration configuration = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        DisassembleOperation disassembleOperation = new BeanDisassembleOperation(
+            0, new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>()),
+            disassembler, configuration, ReflexUtils.findField(Example.class, "exampleArray"), Collections.emptySet()
+        );
+
+        // 字段值为空时不返回任何对象
+        Example target = new Example();
+        Assertions.assertTrue(disassembler.execute(target, disassembleOperation).isEmpty());
+
+        // 跳过数组与嵌套集合中的null，并按层级顺序返回对象
+        Example first = new Example();
+        Example second = new Example();
+        Example third = new Example();
+        target.setExampleArray(new Object[]{ null, Arrays.asList(second, null), first, Collections.emptyList(), Arrays.asList(null, Collections.singletonList(third)) });
+        List<Object> results = new ArrayList<>(disassembler.execute(target, disassembleOperation));
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertSame(first, results.get(0));
+        Assertions.assertSame(second, results.get(1));
+        Assertions.assertSame(third, results.get(2));
+    }
+
     @Data
     private static class Example {
 
         private List<List<Example>> exampleList;
+        private Object[] exampleArray;
 
     }
 
@@ -0,0 +1,81 @@
+package io.github.createsequence.crane.starter.core.parser;
+
+import io.github.createsequence.crane.core.annotation.AssembleKV;
+import io.github.createsequence.crane.core.cache.ConfigurationCache;
+import io.github.createsequence.crane.core.helper.reflex.ReflexUtils;
+import io.github.createsequence.crane.core.operator.BeanReflexDisassembler;
+import io.github.createsequence.crane.core.parser.BeanDynamicDisassembleOperation;
+import io.github.createsequence.crane.core.parser.BeanOperationConfiguration;
+import io.github.createsequence.crane.core.parser.FieldAnnotationConfigurationParser;
+import io.github.createsequence.crane.core.parser.interfaces.DisassembleOperation;
+import io.github.createsequence.crane.core.parser.interfaces.GlobalConfiguration;
+import io.github.createsequence.crane.core.parser.interfaces.OperationConfiguration;
+import io.github.createsequence.crane.starter.core.CoreTestConfig;
+import lombok.Data;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author huangchengxing
+ * @date 2022/07/27 16:30
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = CoreTestConfig.class)
+public class BeanDynamicDisassembleOperationTest {
+
+    @Autowired
+    private BeanReflexDisassembler beanReflexDisassembler;
+    @Autowired
+    private FieldAnnotationConfigurationParser fieldAnnotationConfigurationParser;
+    @Autowired
+    private ConfigurationCache configurationCache;
+    @Autowired
+    private GlobalConfiguration globalConfiguration;
+
+    @Test
+    public void testResolveNestedTarget() {
+        OperationConfiguration owner = new BeanOperationConfiguration(globalConfiguration, Example.class, new ArrayList<>(), new ArrayList<>());
+        BeanDynamicDisassembleOperation operation = new BeanDynamicDisassembleOperation(
+            fieldAnnotationConfigurationParser, 0, owner, beanReflexDisassembler,
+            ReflexUtils.findField(Example.class, "dynamicObject"), Collections.emptySet(), configurationCache
+        );
+
+        // 目标对象为空时无法解析
+        Assertions.assertNull(operation.getTargetOperateConfiguration(null));
+        Assertions.assertNull(operation.resolve(null));
+
+        // 跳过嵌套的集合与数组中的null，以第一个非集合或数组的对象类型作为目标类型
+        Object target = Arrays.asList(
+            null, new Object[]{ null, Collections.emptyList() },
+            Arrays.asList(null, new Item[]{ null, new Item() })
+        );
+        OperationConfiguration configuration = operation.getTargetOperateConfiguration(target);
+        Assertions.assertNotNull(configuration);
+        Assertions.assertEquals(Item.class, configuration.getTargetClass());
+        DisassembleOperation resolved = operation.resolve(target);
+        Assertions.assertNotNull(resolved);
+        Assertions.assertSame(configuration, resolved.getTargetOperateConfiguration());
+        Assertions.assertSame(owner, resolved.getOwner());
+    }
+
+    @Data
+    private static class Example {
+        private Object dynamicObject;
+    }
+
+    @Data
+    private static class Item {
+        @AssembleKV(namespace = "item")
+        private Integer id;
+        private String name;
+    }
+
+}